@@ -69,6 +69,72 @@ public class GeneralConfig extends DummyConfig {
     @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "The maximum network energy transfer rate.", isCommandable = true, minimalValue = 0)
     public static int energyRateLimit = Integer.MAX_VALUE;
 
+    /**
+     * If the available network energy should only be read once per tick, and consumed energy should be extracted at the end of the tick.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "If the available network energy should only be read once per tick, and consumed energy should be extracted at the end of the tick. Disabling this will make each network element check and extract energy separately.", isCommandable = true)
+    public static boolean energyConsumptionLedger = true;
+
+    /**
+     * If the values of independent networks should be evaluated in parallel, before their elements are updated on the server thread.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "If the values of independent networks should be evaluated in parallel, before their elements are updated on the server thread. The world is never read or modified in parallel, so only values that do not depend on the current state of the world, or on readers that are updated in the same tick, are evaluated in parallel. This is experimental.", isCommandable = true)
+    public static boolean parallelNetworkEvaluation = false;
+
+    /**
+     * The maximum number of threads to use for parallel network evaluation.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "The maximum number of threads to use for parallel network evaluation, 0 will use all available processors.", minimalValue = 0)
+    public static int parallelNetworkEvaluationThreads = 0;
+
+    /**
+     * If variables should only be re-evaluated when one of the variables they depend on has changed.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "If variables should only be re-evaluated when one of the variables they depend on has changed. Variables with operators that read live world data, such as the health of an entity, are always re-evaluated. This only applies to variables that are created after this was enabled.", isCommandable = true)
+    public static boolean reactiveVariableEvaluation = false;
+
+    /**
+     * If nested operator variables should be compiled into a single program.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "If nested operator variables should be compiled into a single program, so that their types only have to be checked once.", isCommandable = true)
+    public static boolean compileOperatorExpressions = true;
+
+    /**
+     * The maximum total weight of results of pure operators that are remembered per network across ticks.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "The maximum total weight of results of pure operators that are remembered per network across ticks, so that they are not evaluated again while their input does not change. Each result weighs one, plus the number of elements of the lists in its input and output. 0 disables this.", minimalValue = 0, requiresMcRestart = true)
+    public static int operatorMemoTableSize = 16384;
+
+    /**
+     * The maximum number of operator applications in a single variable evaluation.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "The maximum number of operator applications in a single variable evaluation, after which the evaluation fails. 0 disables this.", isCommandable = true, minimalValue = 0)
+    public static int evaluationStepBudget = 100000;
+
+    /**
+     * The maximum number of operator applications in all variable evaluations of a network in a single tick.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "The maximum number of operator applications in all variable evaluations of a network in a single tick, after which evaluations fail until the next tick. 0 disables this.", isCommandable = true, minimalValue = 0)
+    public static int networkEvaluationStepBudget = 1000000;
+
+    /**
+     * The minimum list length from which pure operators are applied to the elements of a list in parallel.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "The minimum length of a materialized list of plain values, such as numbers and strings, from which pure operators are applied to its elements in parallel when mapping, filtering or reducing it. 0 disables this.", isCommandable = true, minimalValue = 0)
+    public static int parallelListEvaluationThreshold = 4096;
+
+    /**
+     * The initial number of elements between remembered elements of lazily built lists.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "The initial number of elements between the elements that lazily built lists remember, from which other elements are calculated again when needed.", isCommandable = true, minimalValue = 1)
+    public static int lazyBuiltListCheckpointInterval = 64;
+
+    /**
+     * The maximum number of remembered elements per lazily built list.
+     */
+    @ConfigurableProperty(category = ConfigurableTypeCategory.CORE, comment = "The maximum number of elements each lazily built list remembers. When this is reached, every other remembered element is forgotten.", isCommandable = true, minimalValue = 2)
+    public static int lazyBuiltListMaxCheckpoints = 256;
+
     /**
      * The maximum offset in blocks a directional connector can look for its target.
      */
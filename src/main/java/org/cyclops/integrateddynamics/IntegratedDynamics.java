@@ -235,6 +235,7 @@ public class IntegratedDynamics extends ModBaseVersionable {
     @Override
     public void onServerStopping(FMLServerStoppingEvent event) {
         super.onServerStopping(event);
+        TickHandler.getInstance().shutdownEvaluationPool();
     }
 
     @Override
@@ -11,6 +11,9 @@ import java.util.Map;
 public interface IVariableContainer {
 
     /**
+     * The returned map must always be the same instance, which is modified when the stored variables change.
+     * After modifying it, {@link org.cyclops.integrateddynamics.api.network.IPartNetwork#updateVariableContainer}
+     * must be called for the network this container is part of.
      * @return The stored variable facades for this part.
      */
     public Map<Integer, IVariableFacade> getVariableCache();
@@ -1,6 +1,10 @@
 package org.cyclops.integrateddynamics.api.evaluate.expression;
 
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IBoundOperator;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
 
 /**
  * Cache object that is responsible for storing values of this expression.
@@ -13,4 +17,19 @@ public interface ILazyExpressionValueCache {
     public boolean hasValue(int id);
     public IValue getValue(int id);
 
+    /**
+     * Get the value of the given operator applied to the given input.
+     * Implementations may reuse the result of an earlier evaluation of a {@link IOperator#isPure() pure} operator
+     * on equal input, also from previous ticks.
+     * @param operator The operator.
+     * @param input The input variables.
+     * @param evaluator The evaluator for the operator on the given input.
+     * @return The output value.
+     * @throws EvaluationException If evaluation failed.
+     */
+    public default IValue getOrEvaluate(IOperator operator, IVariable[] input, IBoundOperator evaluator)
+            throws EvaluationException {
+        return evaluator.evaluate(input);
+    }
+
 }
@@ -0,0 +1,23 @@
+package org.cyclops.integrateddynamics.api.evaluate.operator;
+
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+
+/**
+ * An operator that has been bound to a fixed signature of input value types using {@link IOperator#bind(org.cyclops.integrateddynamics.api.evaluate.variable.IValueType...)}.
+ * Its input types have been validated once, so that it can be evaluated repeatedly without validating them again.
+ * @author rubensworks
+ */
+public interface IBoundOperator {
+
+    /**
+     * Evaluate the given input values for the bound operator.
+     * The types of the given input must be exactly the types this operator was bound to.
+     * @param input The ordered input values.
+     * @return The output value.
+     * @throws EvaluationException When something went wrong while evaluating.
+     */
+    public IValue evaluate(IVariable... input) throws EvaluationException;
+
+}
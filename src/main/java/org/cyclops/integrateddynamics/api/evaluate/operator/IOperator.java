@@ -72,6 +72,45 @@ public interface IOperator {
      */
     public IValue evaluate(IVariable... input) throws EvaluationException;
 
+    /**
+     * Bind this operator to the given input value types.
+     * The resulting operator can be evaluated any number of times for input of exactly these types,
+     * without validating the input types again.
+     * By default, the types are only validated when binding, but evaluation still goes through {@link #evaluate(IVariable...)}.
+     * @param inputTypes The ordered input value types.
+     * @return The bound operator.
+     * @throws EvaluationException If the given types are not valid for this operator.
+     */
+    public default IBoundOperator bind(IValueType... inputTypes) throws EvaluationException {
+        L10NHelpers.UnlocalizedString error = validateTypes(inputTypes);
+        if (error != null) {
+            throw new EvaluationException(error.localize());
+        }
+        return this::evaluate;
+    }
+
+    /**
+     * If this operator is a pure function of the values of all of its input.
+     * Pure operators do not depend on anything else, such as the world, and they always produce an equal output
+     * for equal input values, so that their results may be reused across ticks while their input does not change.
+     * Since all input must be evaluated to reuse a result, operators that do not always evaluate all of their input
+     * should not be pure.
+     * @return If this operator is pure.
+     */
+    public default boolean isPure() {
+        return false;
+    }
+
+    /**
+     * If this operator takes two input values and is associative for input of the same type,
+     * so that applying it as op(op(a, b), c) gives the same result as op(a, op(b, c)).
+     * This allows reductions with this operator to be split into parts that are evaluated independently.
+     * @return If this operator is associative.
+     */
+    public default boolean isAssociative() {
+        return false;
+    }
+
     /**
      * @return The required input length.
      */
@@ -0,0 +1,29 @@
+package org.cyclops.integrateddynamics.api.evaluate.variable;
+
+/**
+ * A variable that notifies its listeners when its value may have changed.
+ * This allows dependent variables to reuse their previous value as long as none of their inputs changed.
+ * @author rubensworks
+ */
+public interface IObservableVariable<V extends IValue> extends IVariable<V> {
+
+    /**
+     * @return If all changes to the value of this variable are signalled to its listeners.
+     *         If false, the value of this variable must be assumed to change at any time.
+     */
+    public boolean isChangeTracked();
+
+    /**
+     * Add a listener that will be called when the value of this variable may have changed.
+     * Listeners are only weakly referenced.
+     * @param listener The listener.
+     */
+    public void addInvalidateListener(IVariableInvalidateListener listener);
+
+    /**
+     * Remove the given listener.
+     * @param listener The listener.
+     */
+    public void removeInvalidateListener(IVariableInvalidateListener listener);
+
+}
@@ -0,0 +1,52 @@
+package org.cyclops.integrateddynamics.api.evaluate.variable;
+
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+
+/**
+ * A single pass over the elements of a list, in order.
+ * Resources that back the list, such as inventories, are only looked up once when the cursor is created,
+ * instead of for every element.
+ * Cursors are only valid during the evaluation in which they were created.
+ * @param <V> The list element type.
+ */
+public interface IValueTypeListCursor<V extends IValue> {
+
+    /**
+     * @return If there is a next element.
+     * @throws EvaluationException If something went wrong while checking the list.
+     */
+    public boolean hasNext() throws EvaluationException;
+
+    /**
+     * @return The next element.
+     * @throws EvaluationException If something went wrong while getting the element.
+     */
+    public V next() throws EvaluationException;
+
+    /**
+     * A cursor that gets elements from a list by index, of which the length is determined once.
+     * @param <V> The list element type.
+     */
+    public static class Indexed<V extends IValue> implements IValueTypeListCursor<V> {
+
+        private final IValueTypeListProxy<?, V> list;
+        private final int length;
+        private int index = 0;
+
+        public Indexed(IValueTypeListProxy<?, V> list) throws EvaluationException {
+            this.list = list;
+            this.length = list.getLength();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < length;
+        }
+
+        @Override
+        public V next() throws EvaluationException {
+            return list.get(index++);
+        }
+    }
+
+}
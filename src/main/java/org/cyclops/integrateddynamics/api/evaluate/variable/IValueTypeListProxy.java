@@ -23,6 +23,17 @@ public interface IValueTypeListProxy<T extends IValueType<V>, V extends IValue>
      */
     public V get(int index) throws EvaluationException;
 
+    /**
+     * Start a pass over all elements in this list.
+     * This should be preferred over {@link #get(int)} and {@link #iterator()} when iterating over the whole list,
+     * as proxies can override it to look up the resources that back the list only once.
+     * @return A new cursor at the start of this list.
+     * @throws EvaluationException If something went wrong while accessing the list.
+     */
+    public default IValueTypeListCursor<V> cursor() throws EvaluationException {
+        return new IValueTypeListCursor.Indexed<>(this);
+    }
+
     /**
      * @return The list element value type.
      */
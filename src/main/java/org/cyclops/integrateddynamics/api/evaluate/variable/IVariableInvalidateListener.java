@@ -0,0 +1,14 @@
+package org.cyclops.integrateddynamics.api.evaluate.variable;
+
+/**
+ * Listener for changes in the value of an {@link IObservableVariable}.
+ * @author rubensworks
+ */
+public interface IVariableInvalidateListener {
+
+    /**
+     * Called when the value of a variable this listens to may have changed.
+     */
+    public void invalidate();
+
+}
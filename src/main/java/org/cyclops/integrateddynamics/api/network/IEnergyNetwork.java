@@ -13,4 +13,14 @@ public interface IEnergyNetwork extends IEnergyStorage, IPositionedAddonsNetwork
      */
     public int getConsumptionRate();
 
+    /**
+     * Indicate that the energy stored at one of the positions of this network has changed.
+     */
+    public void invalidateEnergyStored();
+
+    /**
+     * Indicate that the energy capacity at one of the positions of this network has changed.
+     */
+    public void invalidateMaxEnergyStored();
+
 }
@@ -81,4 +81,11 @@ public interface IFullNetworkListener {
      */
     public void onSkipUpdate(INetworkElement element);
 
+    /**
+     * Called after all network elements that were due in a network tick have been updated.
+     */
+    default public void afterUpdate() {
+
+    }
+
 }
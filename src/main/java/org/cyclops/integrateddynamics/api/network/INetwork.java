@@ -13,6 +13,46 @@ import java.util.Set;
  */
 public interface INetwork extends IFullNetworkListener, INBTSerializable {
 
+    /**
+     * @return A unique id for this network, which remains the same during the lifetime of this network instance.
+     */
+    public int getId();
+
+    /**
+     * @return A number that is incremented each time the structure or elements of this network change.
+     *         This can be used to cheaply detect changes since an earlier moment.
+     */
+    public long getChangeGeneration();
+
+    /**
+     * Start the update of this network for the current tick.
+     * This must be called on the server thread.
+     * Calling {@link #update()} is equivalent to calling this method,
+     * followed by {@link #finishUpdate()} if this method returned true.
+     * This also calls {@link INetworkElement#prepareEvaluateUpdate(INetwork)} for the elements that will be updated.
+     * @return If the elements of this network must be updated in this tick.
+     */
+    public boolean startUpdate();
+
+    /**
+     * Evaluate the values that will be required by the elements that will be updated in {@link #finishUpdate()}.
+     *
+     * This may only be called between {@link #startUpdate()} and {@link #finishUpdate()}.
+     * It may be called off the server thread, in parallel with the evaluation of other networks,
+     * but never concurrently with any other method call on this network.
+     * This method and the {@link INetworkElement#evaluateUpdate(INetwork)} and
+     * {@link org.cyclops.integrateddynamics.api.part.IPartType#evaluateUpdate} calls it delegates to
+     * must therefore never modify or read the world.
+     * Evaluations that would have to read the world are abandoned, and are done again in {@link #finishUpdate()}.
+     */
+    public void evaluateUpdate();
+
+    /**
+     * Update all elements that are due in the current tick.
+     * This must be called on the server thread, after {@link #startUpdate()} returned true.
+     */
+    public void finishUpdate();
+
     /**
      * @return If this network and its elements have been fully initialized.
      */
@@ -35,6 +35,20 @@ public interface INetworkElement extends Comparable<INetworkElement> {
      */
     public void update(INetwork network);
 
+    /**
+     * Prepare the upcoming {@link #evaluateUpdate(INetwork)} call.
+     * This is always called on the server thread.
+     * @param network The network to update in.
+     */
+    public void prepareEvaluateUpdate(INetwork network);
+
+    /**
+     * Evaluate the values that will be required in the upcoming {@link #update(INetwork)} call.
+     * This may be called off the server thread, see {@link INetwork#evaluateUpdate()}.
+     * @param network The network to update in.
+     */
+    public void evaluateUpdate(INetwork network);
+
     /**
      * Called right before the network is terminated or will be reset.
      * @param network The network to update in.
@@ -128,4 +142,13 @@ public interface INetworkElement extends Comparable<INetworkElement> {
      */
     public void revalidate(INetwork network);
 
+    /**
+     * Recalculate the cached data by which this element is ordered, such as its priority.
+     * This is only called while this element is not contained in any ordered collection of a network,
+     * for example when it has been loaded or unloaded.
+     */
+    public default void refreshOrder() {
+
+    }
+
 }
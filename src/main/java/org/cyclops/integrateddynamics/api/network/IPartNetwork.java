@@ -17,6 +17,11 @@ import org.cyclops.integrateddynamics.api.part.aspect.IAspectRead;
  */
 public interface IPartNetwork extends ILazyExpressionValueCache {
 
+    /**
+     * @return The network this part network is attached to.
+     */
+    public INetwork getNetwork();
+
     /**
      * Add the given part state to the network.
      * @param partId The id of the part.
@@ -99,6 +104,17 @@ public interface IPartNetwork extends ILazyExpressionValueCache {
      */
     public void removeVariableContainer(DimPos dimPos);
 
+    /**
+     * Indicate that the variables in the variable container at the given position have changed.
+     * This must be called by variable containers after their variable cache was modified.
+     *
+     * Variables that were added to or removed from a container without calling this are still found,
+     * but if two containers hold the same id, the container that was added first to this network
+     * is only guaranteed to be used once both have called this.
+     * @param dimPos The variable container position.
+     */
+    public void updateVariableContainer(DimPos dimPos);
+
     /**
      * Add the given proxy to the network.
      * @param proxyId The id of the proxy.
@@ -125,4 +141,58 @@ public interface IPartNetwork extends ILazyExpressionValueCache {
      */
     public void notifyPartsChanged();
 
+    /**
+     * Get the id under which the value of an operator application must be cached in this network.
+     * Applications with the same structural key share the id of the first application
+     * that was registered with that key, so that they are only evaluated once per tick.
+     * The registered keys are forgotten when the structure of the network changes.
+     * @param id The id of the operator variable.
+     * @param structuralKey A key that is equal for applications of the same operator on the same input.
+     * @return The id to cache the value under.
+     */
+    public int getCanonicalExpressionId(int id, String structuralKey);
+
+    /**
+     * @return The number of operator variables of which the value is shared with an equivalent operator variable.
+     */
+    public int getMergedExpressionCount();
+
+    /**
+     * @return The number of steps that expression evaluations may still take in this network during the current tick,
+     *         excluding the steps that are reserved by evaluations that are in progress.
+     */
+    public long getRemainingEvaluationSteps();
+
+    /**
+     * Reserve steps for an expression evaluation in the current tick,
+     * so that concurrent evaluations can not take more steps than this network allows together.
+     * The reservation must be released with {@link #addEvaluationCost(int, long, long, boolean)}.
+     * @param steps The maximum number of steps the evaluation may take.
+     * @return The number of steps that were reserved, which is at most the given number.
+     */
+    public long reserveEvaluationSteps(long steps);
+
+    /**
+     * Account the steps of an evaluation of an expression to the current tick,
+     * and release the steps that were reserved for it.
+     * @param id The id of the variable of the expression.
+     * @param steps The number of steps the evaluation took.
+     * @param reservedSteps The number of steps that were reserved for the evaluation.
+     * @param deferred If the evaluation was deferred by an earlier evaluation of the expression,
+     *                 such as for lazy lists, in which case the steps are added to the cost of the last evaluation.
+     */
+    public void addEvaluationCost(int id, long steps, long reservedSteps, boolean deferred);
+
+    /**
+     * Get the cost of the last evaluation of the expression of the given variable.
+     * @param id The id of the variable.
+     * @return The number of steps the evaluation took, or 0 if it was not evaluated.
+     */
+    public long getEvaluationCost(int id);
+
+    /**
+     * @return The id of the variable of which the last evaluation took the most steps, or -1 if there is none.
+     */
+    public int getCostliestExpressionId();
+
 }
@@ -141,6 +141,32 @@ public interface IPartType<P extends IPartType<P, S>, S extends IPartState<P>> e
      */
     public void update(INetwork network, IPartNetwork partNetwork, PartTarget target, S state);
 
+    /**
+     * Prepare the upcoming {@link #evaluateUpdate(INetwork, IPartNetwork, PartTarget, IPartState)} call on the server thread,
+     * such as resolving the active variable, so that the evaluation itself does not have to build or modify anything.
+     * @param network The network to update in.
+     * @param partNetwork The part network to update in.
+     * @param target The target block.
+     * @param state The state
+     */
+    public void prepareEvaluateUpdate(INetwork network, IPartNetwork partNetwork, PartTarget target, S state);
+
+    /**
+     * Evaluate the values that will be required in the upcoming {@link #update(INetwork, IPartNetwork, PartTarget, IPartState)} call,
+     * such as the value of the active variable.
+     *
+     * This may be called off the server thread, but never concurrently with any other method call on the same network.
+     * Implementations must therefore not modify or read the world.
+     * Values that can only be determined by reading the world abandon the evaluation with an exception,
+     * in which case they are evaluated in the upcoming update call instead.
+     * Results may only be stored in caches that are local to the network, such as the lazy expression value cache.
+     * @param network The network to update in.
+     * @param partNetwork The part network to update in.
+     * @param target The target block.
+     * @param state The state
+     */
+    public void evaluateUpdate(INetwork network, IPartNetwork partNetwork, PartTarget target, S state);
+
     /**
      * Called right before the network is terminated or will be reset.
      * @param network The network to update in.
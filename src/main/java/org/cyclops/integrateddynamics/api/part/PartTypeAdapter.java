@@ -89,6 +89,16 @@ public abstract class PartTypeAdapter<P extends IPartType<P, S>, S extends IPart
 
     }
 
+    @Override
+    public void prepareEvaluateUpdate(INetwork network, IPartNetwork partNetwork, PartTarget target, S state) {
+
+    }
+
+    @Override
+    public void evaluateUpdate(INetwork network, IPartNetwork partNetwork, PartTarget target, S state) {
+
+    }
+
     @Override
     public void beforeNetworkKill(INetwork network, IPartNetwork partNetwork, PartTarget target, S state) {
 
@@ -1,15 +1,26 @@
 package org.cyclops.integrateddynamics.core;
 
+import com.google.common.collect.Lists;
 import net.minecraftforge.fml.common.eventhandler.SubscribeEvent;
 import net.minecraftforge.fml.common.gameevent.TickEvent;
 import org.cyclops.cyclopscore.helper.MinecraftHelpers;
+import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.IntegratedDynamics;
 import org.cyclops.integrateddynamics.api.network.INetwork;
 import org.cyclops.integrateddynamics.core.network.diagnostics.NetworkDiagnostics;
 import org.cyclops.integrateddynamics.core.persist.world.NetworkWorldStorage;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
 /**
  * Handles server ticks to delegate to networks.
+ *
+ * If {@link GeneralConfig#parallelNetworkEvaluation} is enabled, network updates happen in three phases:
+ * all networks are started on the server thread, the values of all networks are evaluated in parallel,
+ * after which all network elements are updated on the server thread.
  * @author rubensworks
  */
 public final class TickHandler {
@@ -18,6 +29,9 @@ public final class TickHandler {
     private int tick = 0;
     private boolean shouldCrash = false;
 
+    private ForkJoinPool evaluationPool = null;
+    private int evaluationPoolThreads = -1;
+
     private TickHandler() {
 
     }
@@ -44,20 +58,109 @@ public final class TickHandler {
                 tick = (tick + 1) % MinecraftHelpers.SECOND_IN_TICKS;
             }
             boolean shouldSendTickDurationInfo = isBeingDiagnozed && tick == 0;
-            for(INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getNetworks()) {
-                if (isBeingDiagnozed && (shouldSendTickDurationInfo || network.hasChanged())) {
-                    NetworkDiagnostics.getInstance().sendNetworkUpdate(network);
-                    network.resetLastSecondDurations();
+            if (GeneralConfig.parallelNetworkEvaluation) {
+                updateNetworksParallel(isBeingDiagnozed, shouldSendTickDurationInfo);
+            } else {
+                for(INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getNetworks()) {
+                    sendDiagnostics(network, isBeingDiagnozed, shouldSendTickDurationInfo);
+                    try {
+                        if (!network.isCrashed()) {
+                            network.update();
+                        }
+                    } catch (RuntimeException e) {
+                        network.setCrashed(true);
+                        throw e;
+                    }
+                }
+            }
+        }
+    }
+
+    protected void sendDiagnostics(INetwork network, boolean isBeingDiagnozed, boolean shouldSendTickDurationInfo) {
+        if (isBeingDiagnozed && (shouldSendTickDurationInfo || network.hasChanged())) {
+            NetworkDiagnostics.getInstance().sendNetworkUpdate(network);
+            network.resetLastSecondDurations();
+        }
+    }
+
+    protected void updateNetworksParallel(boolean isBeingDiagnozed, boolean shouldSendTickDurationInfo) {
+        // Start all networks on the server thread
+        List<INetwork> startedNetworks = Lists.newArrayList();
+        for(INetwork network : NetworkWorldStorage.getInstance(IntegratedDynamics._instance).getNetworks()) {
+            sendDiagnostics(network, isBeingDiagnozed, shouldSendTickDurationInfo);
+            try {
+                if (!network.isCrashed() && network.startUpdate()) {
+                    startedNetworks.add(network);
                 }
+            } catch (RuntimeException e) {
+                network.setCrashed(true);
+                throw e;
+            }
+        }
+
+        // Evaluate in parallel, this is pointless if there is only one network.
+        if (startedNetworks.size() > 1) {
+            ForkJoinPool pool = getEvaluationPool();
+            List<ForkJoinTask<?>> tasks = Lists.newArrayListWithCapacity(startedNetworks.size());
+            for (INetwork network : startedNetworks) {
+                tasks.add(pool.submit(network::evaluateUpdate));
+            }
+            // Wait for all networks to finish before rethrowing, so that no evaluations are running in the background.
+            RuntimeException exception = null;
+            for (int i = 0; i < tasks.size(); i++) {
                 try {
-                    if (!network.isCrashed()) {
-                        network.update();
-                    }
+                    tasks.get(i).join();
                 } catch (RuntimeException e) {
-                    network.setCrashed(true);
-                    throw e;
+                    startedNetworks.get(i).setCrashed(true);
+                    if (exception == null) {
+                        exception = e;
+                    }
                 }
             }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+
+        // Update all network elements on the server thread
+        for (INetwork network : startedNetworks) {
+            try {
+                network.finishUpdate();
+            } catch (RuntimeException e) {
+                network.setCrashed(true);
+                throw e;
+            }
+        }
+    }
+
+    protected ForkJoinPool getEvaluationPool() {
+        int threads = GeneralConfig.parallelNetworkEvaluationThreads > 0
+                ? GeneralConfig.parallelNetworkEvaluationThreads : Runtime.getRuntime().availableProcessors();
+        if (evaluationPool == null || evaluationPoolThreads != threads) {
+            if (evaluationPool != null) {
+                evaluationPool.shutdown();
+            }
+            final ClassLoader classLoader = TickHandler.class.getClassLoader();
+            evaluationPool = new ForkJoinPool(threads, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Integrated Dynamics Network Evaluator #" + thread.getPoolIndex());
+                thread.setContextClassLoader(classLoader);
+                return thread;
+            }, null, false);
+            evaluationPoolThreads = threads;
+        }
+        return evaluationPool;
+    }
+
+    /**
+     * Stop the threads that are used for parallel network evaluation.
+     * They will be started again when they are needed.
+     */
+    public void shutdownEvaluationPool() {
+        if (evaluationPool != null) {
+            evaluationPool.shutdown();
+            evaluationPool = null;
+            evaluationPoolThreads = -1;
         }
     }
 
@@ -0,0 +1,58 @@
+package org.cyclops.integrateddynamics.core.evaluate;
+
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.network.INetwork;
+
+/**
+ * Keeps track of the threads that are evaluating networks in parallel, see {@link GeneralConfig#parallelNetworkEvaluation}.
+ *
+ * These threads may not read from the world, so values that can only be determined by reading the world,
+ * such as aspect values that have not been read yet or that will still be updated in the current tick,
+ * throw a {@link WorldReadDeferredException} during {@link INetwork#evaluateUpdate()}.
+ * The evaluation that required such a value is abandoned,
+ * and is done again when its element is updated on the server thread.
+ * @author rubensworks
+ */
+public class ParallelNetworkEvaluation {
+
+    private static final ThreadLocal<Boolean> ACTIVE = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * @return If the current thread is evaluating a network in parallel.
+     */
+    public static boolean isActive() {
+        return ACTIVE.get();
+    }
+
+    /**
+     * Set if the current thread is evaluating a network in parallel.
+     * @param active If the current thread is evaluating a network in parallel.
+     * @return The previous state, which must be restored when the evaluation has finished.
+     */
+    public static boolean setActive(boolean active) {
+        boolean previous = ACTIVE.get();
+        ACTIVE.set(active);
+        return previous;
+    }
+
+    /**
+     * Indicate that the world must be read to determine a value.
+     * @throws WorldReadDeferredException If the current thread is evaluating a network in parallel.
+     */
+    public static void checkWorldRead() {
+        if (isActive()) {
+            throw new WorldReadDeferredException();
+        }
+    }
+
+    /**
+     * Thrown when the world must be read while evaluating a network in parallel.
+     */
+    public static class WorldReadDeferredException extends RuntimeException {
+
+        public WorldReadDeferredException() {
+            // This is always caught by the network, so no stack trace is needed.
+            super("The world can not be read while evaluating networks in parallel.", null, false, false);
+        }
+    }
+}
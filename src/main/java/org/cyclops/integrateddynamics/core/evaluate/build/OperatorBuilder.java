@@ -39,11 +39,14 @@ public class OperatorBuilder<O> {
     private final IConditionalOutputTypeDeriver conditionalOutputTypeDeriver;
     private final ITypeValidator typeValidator;
     private final List<IOperatorValuePropagator> valuePropagators;
+    private final boolean pure;
+    private final boolean associative;
 
     protected OperatorBuilder(String symbol, String operatorName, IValueType[] inputTypes, IValueType outputType,
                               OperatorBase.IFunction function, IConfigRenderPattern renderPattern, String modId,
                               List<String> kinds, IConditionalOutputTypeDeriver conditionalOutputTypeDeriver,
-                              ITypeValidator typeValidator, List<IOperatorValuePropagator> valuePropagators) {
+                              ITypeValidator typeValidator, List<IOperatorValuePropagator> valuePropagators,
+                              boolean pure, boolean associative) {
         this.symbol = symbol;
         this.operatorName = operatorName;
         this.inputTypes = inputTypes;
@@ -55,6 +58,8 @@ public class OperatorBuilder<O> {
         this.conditionalOutputTypeDeriver = conditionalOutputTypeDeriver;
         this.typeValidator = typeValidator;
         this.valuePropagators = valuePropagators;
+        this.pure = pure;
+        this.associative = associative;
     }
 
     /**
@@ -64,7 +69,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> output(IValueType outputType) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -74,7 +79,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> symbol(String symbol) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -84,7 +89,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> operatorName(String operatorName) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -95,7 +100,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> symbolOperator(String symbolOperator) {
         return new OperatorBuilder<>(symbolOperator, symbolOperator, inputTypes, outputType, function, renderPattern,
-                modId, kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                modId, kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -105,7 +110,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> inputTypes(IValueType... inputTypes) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -116,7 +121,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> inputTypes(int length, IValueType defaultType) {
         return new OperatorBuilder<>(symbol, operatorName, OperatorBase.constructInputVariables(length, defaultType),
-                outputType, function, renderPattern, modId, kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                outputType, function, renderPattern, modId, kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -138,7 +143,7 @@ public class OperatorBuilder<O> {
             throw new IllegalStateException("Can not add a function when value propagators are present.");
         }
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -148,7 +153,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> renderPattern(IConfigRenderPattern renderPattern) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -158,7 +163,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> modId(String modId) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -168,7 +173,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> appendKind(String kind) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId,
-                Helpers.joinList(kinds, kind), conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                Helpers.joinList(kinds, kind), conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -179,7 +184,7 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> conditionalOutputTypeDeriver(IConditionalOutputTypeDeriver conditionalOutputTypeDeriver) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId,
-                kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -189,7 +194,29 @@ public class OperatorBuilder<O> {
      */
     public OperatorBuilder<O> typeValidator(ITypeValidator typeValidator) {
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId,
-                kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators);
+                kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
+    }
+
+    /**
+     * Set if the operator is pure, which is the case by default.
+     * Operators that depend on anything else than the values of their input, such as the world,
+     * or that do not always evaluate all of their input, must not be pure.
+     * @param pure If the operator is pure. This will be used for {@link IOperator#isPure()}.
+     * @return The builder instance.
+     */
+    public OperatorBuilder<O> pure(boolean pure) {
+        return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId,
+                kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
+    }
+
+    /**
+     * Set if the operator is associative, which is not the case by default.
+     * @param associative If the operator is associative. This will be used for {@link IOperator#isAssociative()}.
+     * @return The builder instance.
+     */
+    public OperatorBuilder<O> associative(boolean associative) {
+        return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId,
+                kinds, conditionalOutputTypeDeriver, typeValidator, valuePropagators, pure, associative);
     }
 
     /**
@@ -203,7 +230,7 @@ public class OperatorBuilder<O> {
             throw new IllegalStateException("Can not add a function when value propagators are present.");
         }
         return new OperatorBuilder<>(symbol, operatorName, inputTypes, outputType, function, renderPattern, modId, kinds,
-                conditionalOutputTypeDeriver, typeValidator, Helpers.joinList(valuePropagators, valuePropagator));
+                conditionalOutputTypeDeriver, typeValidator, Helpers.joinList(valuePropagators, valuePropagator), pure, associative);
     }
 
     /**
@@ -221,7 +248,7 @@ public class OperatorBuilder<O> {
      */
     public static OperatorBuilder<OperatorBase.SafeVariablesGetter> forType(IValueType<?> outputType) {
         return new OperatorBuilder<>(null, null, null, outputType, null, null, Reference.MOD_ID,
-                Collections.<String>emptyList(), null, null, null);
+                Collections.<String>emptyList(), null, null, null, true, false);
     }
 
     private static class Built extends OperatorBase {
@@ -230,6 +257,8 @@ public class OperatorBuilder<O> {
         private final String unlocalizedType;
         private final IConditionalOutputTypeDeriver conditionalOutputTypeDeriver;
         private final ITypeValidator typeValidator;
+        private final boolean pure;
+        private final boolean associative;
 
         protected Built(OperatorBuilder operatorBuilder) {
             super(Objects.requireNonNull(operatorBuilder.symbol),
@@ -242,6 +271,8 @@ public class OperatorBuilder<O> {
             this.unlocalizedType = deriveUnlocalizedType(operatorBuilder);
             this.conditionalOutputTypeDeriver = operatorBuilder.conditionalOutputTypeDeriver;
             this.typeValidator = operatorBuilder.typeValidator;
+            this.pure = operatorBuilder.pure;
+            this.associative = operatorBuilder.associative;
         }
 
         protected static IFunction deriveFunction(OperatorBuilder operatorBuilder) {
@@ -288,6 +319,16 @@ public class OperatorBuilder<O> {
                     ? typeValidator.validateTypes(this, input)
                     : super.validateTypes(input);
         }
+
+        @Override
+        public boolean isPure() {
+            return pure;
+        }
+
+        @Override
+        public boolean isAssociative() {
+            return associative;
+        }
     }
 
     public static interface IConditionalOutputTypeDeriver {
@@ -0,0 +1,431 @@
+package org.cyclops.integrateddynamics.core.evaluate.expression;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.expression.IExpression;
+import org.cyclops.integrateddynamics.api.evaluate.expression.ILazyExpressionValueCache;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IBoundOperator;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IObservableVariable;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeCategory;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariableInvalidateListener;
+import org.cyclops.integrateddynamics.api.item.IOperatorVariableFacade;
+import org.cyclops.integrateddynamics.api.item.IValueTypeVariableFacade;
+import org.cyclops.integrateddynamics.api.item.IVariableFacade;
+import org.cyclops.integrateddynamics.api.network.IPartNetwork;
+import org.cyclops.integrateddynamics.api.part.aspect.IAspectVariable;
+import org.cyclops.integrateddynamics.core.evaluate.operator.OperatorBase;
+import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeBoolean;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
+import org.cyclops.integrateddynamics.core.evaluate.variable.Variable;
+import org.cyclops.integrateddynamics.core.evaluate.variable.VariableInvalidateListeners;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An expression of nested operator variable facades that has been compiled into a single program.
+ *
+ * All nested operator variables in the network are resolved once, and are inlined as nodes,
+ * where nodes that are referenced multiple times are shared.
+ * Nodes of pure operators of which all input is constant are folded into a constant at compile time,
+ * and short-circuiting operators with a constant condition are reduced to the input they would return.
+ * The input types of nodes are validated once at compile time if they can not change,
+ * so that their operators can be invoked without validating their input again.
+ * Nodes are evaluated lazily, at most once per evaluation of the program,
+ * and share their values with other expressions through the network value cache.
+ * Nodes that apply the same operator to the same input as another operator variable in the network
+ * are cached under the id of that variable, so that equivalent expressions are only evaluated once per tick.
+ * Results of pure operators can be reused across ticks through the network value cache.
+ * Each evaluation is limited by an {@link EvaluationBudget}, of which the cost is accounted to the root variable.
+ *
+ * The program must be compiled again when the structure of the network changes.
+ * @author rubensworks
+ */
+public class CompiledExpression<V extends IValue> implements IExpression<V>, IObservableVariable<V>,
+        IVariableInvalidateListener {
+
+    private final IPartNetwork network;
+    private final int id;
+    private final ILazyExpressionValueCache valueCache;
+    private final List<Node> nodes = Lists.newArrayList();
+    private final TIntObjectMap<Node> nodesByCacheId = new TIntObjectHashMap<>();
+    private final Set<IVariable> leaves = Sets.newIdentityHashSet();
+    private final Set<IVariable> constants = Sets.newIdentityHashSet();
+    private final VariableInvalidateListeners invalidateListeners = new VariableInvalidateListeners();
+    private IOperator operator = null;
+    private IVariable root = null;
+    private boolean changeTracked = true;
+    private boolean errored = false;
+    private volatile boolean dirty = true;
+    private IValue lastValue = null;
+    private long run = 0;
+
+    protected CompiledExpression(IPartNetwork network, int id) {
+        this.network = network;
+        this.id = id;
+        this.valueCache = network;
+    }
+
+    /**
+     * Compile the expression of the given operator variable facade.
+     * @param facade The root operator variable facade.
+     * @param network The network in which the variables must be resolved.
+     * @param <V> The value type.
+     * @return The compiled expression, or null if a variable could not be resolved,
+     *         or if the variables contain a cyclic reference.
+     */
+    @Nullable
+    public static <V extends IValue> CompiledExpression<V> compile(IOperatorVariableFacade facade, IPartNetwork network) {
+        CompiledExpression<V> expression = new CompiledExpression<>(network, facade.getId());
+        expression.operator = facade.getOperator();
+        expression.root = expression.compileNode(facade, network, new TIntObjectHashMap<>(), new TIntHashSet());
+        if (expression.root == null) {
+            return null;
+        }
+        // Changes are only tracked if reactive evaluation was enabled when this expression was compiled,
+        // and if all operators are pure, as impure operators may return another value for the same input.
+        expression.changeTracked = GeneralConfig.reactiveVariableEvaluation && expression.operator.isPure();
+        for (CompiledExpression<V>.Node node : expression.nodes) {
+            expression.changeTracked &= node.operator.isPure();
+        }
+        if (expression.changeTracked) {
+            for (IVariable leaf : expression.leaves) {
+                if (leaf instanceof IObservableVariable) {
+                    IObservableVariable observableVariable = (IObservableVariable) leaf;
+                    observableVariable.addInvalidateListener(expression);
+                    expression.changeTracked &= observableVariable.isChangeTracked();
+                } else {
+                    expression.changeTracked = false;
+                }
+            }
+        }
+        return expression;
+    }
+
+    @Nullable
+    protected IVariable compileNode(IOperatorVariableFacade facade, IPartNetwork network,
+                                    TIntObjectMap<IVariable> compiledNodes, TIntSet compilingIds) {
+        IVariable compiled = compiledNodes.get(facade.getId());
+        if (compiled != null) {
+            return compiled;
+        }
+        // A facade that is still being compiled indicates a cyclic reference.
+        if (!facade.isValid() || !compilingIds.add(facade.getId())) {
+            return null;
+        }
+
+        int[] variableIds = facade.getVariableIds();
+        IVariable[] input = new IVariable[variableIds.length];
+        for (int i = 0; i < variableIds.length; i++) {
+            int variableId = variableIds[i];
+            if (!network.hasVariableFacade(variableId)) {
+                return null;
+            }
+            IVariableFacade variableFacade = network.getVariableFacade(variableId);
+            if (!variableFacade.isValid()) {
+                return null;
+            }
+            if (variableFacade instanceof IOperatorVariableFacade) {
+                input[i] = compileNode((IOperatorVariableFacade) variableFacade, network, compiledNodes, compilingIds);
+            } else {
+                input[i] = variableFacade.getVariable(network);
+                leaves.add(input[i]);
+                if (variableFacade instanceof IValueTypeVariableFacade) {
+                    constants.add(input[i]);
+                }
+            }
+            if (input[i] == null) {
+                return null;
+            }
+        }
+
+        compilingIds.remove(facade.getId());
+        compiled = partiallyEvaluate(facade.getOperator(), input);
+        if (compiled == null) {
+            int cacheId = getCacheId(facade, input, network);
+            Node node = nodesByCacheId.get(cacheId);
+            if (node == null) {
+                node = new Node(cacheId, facade.getOperator(), input);
+                nodes.add(node);
+                nodesByCacheId.put(cacheId, node);
+            }
+            compiled = node;
+        }
+        compiledNodes.put(facade.getId(), compiled);
+        return compiled;
+    }
+
+    /**
+     * Get the id under which the value of the given operator application must be cached.
+     * @param facade The operator variable facade.
+     * @param input The compiled input.
+     * @param network The network.
+     * @return The cache id, which is shared with all structurally equivalent applications in the network.
+     */
+    protected int getCacheId(IOperatorVariableFacade facade, IVariable[] input, IPartNetwork network) {
+        IOperator operator = facade.getOperator();
+        // Only registered operators are identified by their unique name,
+        // other operators such as curried operators hold additional state.
+        if (Operators.REGISTRY.getOperator(operator.getUniqueName()) != operator) {
+            return facade.getId();
+        }
+        int[] variableIds = facade.getVariableIds();
+        StringBuilder structuralKey = new StringBuilder(operator.getUniqueName()).append('(');
+        for (int i = 0; i < input.length; i++) {
+            // Nested nodes are identified by their own cache id, so that equivalence propagates upwards.
+            int inputId = input[i] instanceof CompiledExpression.Node ? ((CompiledExpression.Node) input[i]).id : variableIds[i];
+            if (i > 0) {
+                structuralKey.append(',');
+            }
+            structuralKey.append(inputId);
+        }
+        structuralKey.append(')');
+        return network.getCanonicalExpressionId(facade.getId(), structuralKey.toString());
+    }
+
+    /**
+     * Try to simplify the application of the given operator to the given input at compile time.
+     * @param operator The operator.
+     * @param input The compiled input.
+     * @return The variable that can be used instead of this application, or null if it can not be simplified.
+     */
+    @Nullable
+    protected IVariable partiallyEvaluate(IOperator operator, IVariable[] input) {
+        // Impure operators may depend on more than their input, so their result can change over time.
+        boolean constant = operator.isPure();
+        for (IVariable variable : input) {
+            constant &= constants.contains(variable);
+        }
+        if (constant) {
+            try {
+                IValue value = operator.evaluate(input);
+                IVariable variable = new Variable<>(value.getType(), value);
+                constants.add(variable);
+                return variable;
+            } catch (EvaluationException e) {
+                // Let the error occur again when the expression is evaluated, so that it is shown to the player.
+                return null;
+            }
+        }
+        if (validateStatically(operator, input)) {
+            if (operator == Operators.LOGICAL_AND) {
+                return partiallyEvaluateShortCircuit(input, false);
+            } else if (operator == Operators.LOGICAL_OR) {
+                return partiallyEvaluateShortCircuit(input, true);
+            } else if (operator == Operators.GENERAL_CHOICE) {
+                Boolean condition = getConstantBoolean(input[0]);
+                if (condition != null) {
+                    return condition ? input[1] : input[2];
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    protected IVariable partiallyEvaluateShortCircuit(IVariable[] input, boolean absorbing) {
+        Boolean a = getConstantBoolean(input[0]);
+        if (a != null) {
+            return a == absorbing ? input[0] : input[1];
+        }
+        // The first input must still be evaluated if the second input is absorbing, as this may fail.
+        Boolean b = getConstantBoolean(input[1]);
+        if (b != null && b != absorbing) {
+            return input[0];
+        }
+        return null;
+    }
+
+    @Nullable
+    protected Boolean getConstantBoolean(IVariable variable) {
+        if (constants.contains(variable) && variable.getType() == ValueTypes.BOOLEAN) {
+            try {
+                return ((ValueTypeBoolean.ValueBoolean) variable.getValue()).getRawValue();
+            } catch (EvaluationException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the type of the given input variable if it can not change, without evaluating it.
+     * @param variable An input variable.
+     * @return The type, or null if the type may change.
+     */
+    @Nullable
+    protected static IValueType getStaticType(IVariable variable) {
+        IValueType valueType = null;
+        if (variable instanceof CompiledExpression.Node) {
+            valueType = ((CompiledExpression.Node) variable).getOperator().getOutputType();
+        } else if (variable instanceof Variable || variable instanceof IAspectVariable) {
+            valueType = variable.getType();
+        }
+        return valueType instanceof IValueTypeCategory ? null : valueType;
+    }
+
+    /**
+     * Check if the given operator accepts the given input for as long as this program exists.
+     * @param operator The operator.
+     * @param input The input variables.
+     * @return If the types of the input can not change, and are valid for the operator.
+     */
+    protected static boolean validateStatically(IOperator operator, IVariable[] input) {
+        IValueType[] inputTypes = new IValueType[input.length];
+        for (int i = 0; i < input.length; i++) {
+            inputTypes[i] = getStaticType(input[i]);
+            if (inputTypes[i] == null) {
+                return false;
+            }
+        }
+        return operator.validateTypes(inputTypes) == null;
+    }
+
+    /**
+     * @return The number of nodes in this program.
+     */
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    @Override
+    public IValue evaluate() throws EvaluationException {
+        boolean reactive = GeneralConfig.reactiveVariableEvaluation && changeTracked;
+        if (reactive) {
+            if (!dirty) {
+                return lastValue;
+            }
+            dirty = false;
+        } else if (changeTracked) {
+            // Invalidations are not sent while reactive evaluation is disabled,
+            // so the value can not be reused when it is enabled again.
+            dirty = true;
+        }
+        run++;
+        EvaluationBudget budget = EvaluationBudget.begin(network, id);
+        try {
+            lastValue = root.getValue();
+        } catch (EvaluationException | RuntimeException e) {
+            dirty = true;
+            throw e;
+        } finally {
+            if (budget != null) {
+                budget.end();
+            }
+        }
+        return lastValue;
+    }
+
+    @Override
+    public boolean hasErrored() {
+        return errored;
+    }
+
+    @Override
+    public IValueType<V> getType() {
+        return root.getType();
+    }
+
+    @Override
+    public V getValue() throws EvaluationException {
+        IValue value;
+        try {
+            value = evaluate();
+        } catch (EvaluationException e) {
+            errored = true;
+            throw new EvaluationException(e.getMessage());
+        }
+        try {
+            return (V) value;
+        } catch (ClassCastException e) {
+            errored = true;
+            throw new EvaluationException(String.format("The evaluation for operator %s returned %s instead of " +
+                    "the expected %s.", operator, value.getType(), operator.getOutputType()));
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        if (!dirty) {
+            dirty = true;
+            lastValue = null;
+            invalidateListeners.invalidate();
+        }
+    }
+
+    @Override
+    public boolean isChangeTracked() {
+        return changeTracked;
+    }
+
+    @Override
+    public void addInvalidateListener(IVariableInvalidateListener listener) {
+        invalidateListeners.add(listener);
+    }
+
+    @Override
+    public void removeInvalidateListener(IVariableInvalidateListener listener) {
+        invalidateListeners.remove(listener);
+    }
+
+    /**
+     * A single operator application within the program.
+     */
+    protected class Node implements IVariable {
+
+        private final int id;
+        private final IOperator operator;
+        private final IVariable[] input;
+        private final IBoundOperator evaluator;
+        private long evaluatedRun = -1;
+        private IValue value = null;
+
+        public Node(int id, IOperator operator, IVariable[] input) {
+            this.id = id;
+            this.operator = operator;
+            this.input = input;
+            if (operator instanceof OperatorBase && validateStatically(operator, input)) {
+                OperatorBase.SafeVariablesGetter variables = new OperatorBase.SafeVariablesGetter(input);
+                this.evaluator = in -> ((OperatorBase) operator).evaluateValidated(variables);
+            } else {
+                this.evaluator = operator::evaluate;
+            }
+        }
+
+        public IOperator getOperator() {
+            return operator;
+        }
+
+        @Override
+        public IValueType getType() {
+            return operator.getConditionalOutputType(input);
+        }
+
+        @Override
+        public IValue getValue() throws EvaluationException {
+            if (evaluatedRun != run) {
+                if (valueCache.hasValue(id)) {
+                    value = valueCache.getValue(id);
+                } else {
+                    value = valueCache.getOrEvaluate(operator, input, evaluator);
+                    valueCache.setValue(id, value);
+                }
+                evaluatedRun = run;
+            }
+            return value;
+        }
+    }
+
+}
@@ -0,0 +1,209 @@
+package org.cyclops.integrateddynamics.core.evaluate.expression;
+
+import org.cyclops.cyclopscore.helper.L10NHelpers;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.network.IPartNetwork;
+import org.cyclops.integrateddynamics.core.helper.L10NValues;
+
+import javax.annotation.Nullable;
+import java.lang.ref.WeakReference;
+
+/**
+ * A limit on the number of steps that the evaluation of an expression may take on the current thread.
+ *
+ * Each application of an operator counts as one step, including the applications of operators
+ * that are passed to other operators, such as in maps and reductions.
+ * Only the outermost expression that is being evaluated on a thread owns the budget,
+ * nested expressions are accounted to it.
+ * The budget is limited by {@link GeneralConfig#evaluationStepBudget}
+ * and by the steps of the network in the current tick, which are reserved when the budget begins,
+ * so that concurrent evaluations in the same network can not exceed them together.
+ *
+ * Lazy values, such as mapped lists, can be evaluated after the evaluation of their expression has ended.
+ * These deferred evaluations are accounted to the {@link Owner} of the budget in which the lazy value was created.
+ *
+ * Parts of an evaluation that run on other threads, such as the chunks of a parallel map,
+ * count their steps in a forked budget, which are added to the budget of the evaluation when the parts are joined.
+ * @author rubensworks
+ */
+public class EvaluationBudget {
+
+    private static final ThreadLocal<EvaluationBudget> CURRENT = new ThreadLocal<>();
+
+    private final Owner owner;
+    private final boolean deferred;
+    private final boolean forked;
+    private final long limit;
+    private long steps = 0;
+
+    protected EvaluationBudget(Owner owner, boolean deferred, boolean forked, long limit) {
+        this.owner = owner;
+        this.deferred = deferred;
+        this.forked = forked;
+        this.limit = limit;
+    }
+
+    /**
+     * Start a budget for an expression evaluation on the current thread.
+     * @param network The network in which the expression is evaluated.
+     * @param id The id of the variable of the expression.
+     * @return The new budget, or null if an evaluation on this thread already has a budget.
+     */
+    @Nullable
+    public static EvaluationBudget begin(@Nullable IPartNetwork network, int id) {
+        return begin(new Owner(network, id), false);
+    }
+
+    /**
+     * Start a budget on the current thread for an evaluation that was deferred by an earlier evaluation,
+     * such as the elements of a lazy list that are only evaluated when they are read.
+     * @param owner The owner of the budget in which the deferred evaluation was created.
+     * @return The new budget, or null if there is no owner,
+     *         or if an evaluation on this thread already has a budget that the steps are accounted to.
+     */
+    @Nullable
+    public static EvaluationBudget beginDeferred(@Nullable Owner owner) {
+        return owner == null ? null : begin(owner, true);
+    }
+
+    @Nullable
+    protected static EvaluationBudget begin(Owner owner, boolean deferred) {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        long limit = GeneralConfig.evaluationStepBudget > 0 ? GeneralConfig.evaluationStepBudget : Long.MAX_VALUE;
+        IPartNetwork network = owner.getNetwork();
+        if (network != null) {
+            limit = network.reserveEvaluationSteps(limit);
+        }
+        EvaluationBudget budget = new EvaluationBudget(owner, deferred, false, limit);
+        CURRENT.set(budget);
+        return budget;
+    }
+
+    /**
+     * Start a budget on the current thread for a part of an evaluation that was forked from another thread.
+     * Its steps are not accounted to the network when it ends,
+     * the forking evaluation must add them to its own budget using {@link #steps(long)}.
+     * The budget of the current thread must be suspended first using {@link #suspend()}.
+     * @param owner The owner of the forking budget, or null if there is none.
+     * @param limit The maximum number of steps, which should be the remaining steps of the forking budget.
+     * @return The new budget.
+     */
+    public static EvaluationBudget beginForked(@Nullable Owner owner, long limit) {
+        EvaluationBudget budget = new EvaluationBudget(owner != null ? owner : new Owner(null, -1), false, true, limit);
+        CURRENT.set(budget);
+        return budget;
+    }
+
+    /**
+     * @return The number of steps that the evaluation on the current thread may still take,
+     *         or {@link Long#MAX_VALUE} if it has no budget.
+     */
+    public static long getRemainingSteps() {
+        EvaluationBudget budget = CURRENT.get();
+        return budget != null ? Math.max(0, budget.limit - budget.steps) : Long.MAX_VALUE;
+    }
+
+    /**
+     * @return The owner of the budget on the current thread, or null if there is none.
+     */
+    @Nullable
+    public static Owner getCurrentOwner() {
+        EvaluationBudget budget = CURRENT.get();
+        return budget != null ? budget.owner : null;
+    }
+
+    /**
+     * Remove the budget from the current thread, so that the steps that this thread takes on behalf of another
+     * evaluation are not accounted to it.
+     * @return The removed budget, which must be restored with {@link #resume(EvaluationBudget)}, or null.
+     */
+    @Nullable
+    public static EvaluationBudget suspend() {
+        EvaluationBudget budget = CURRENT.get();
+        CURRENT.remove();
+        return budget;
+    }
+
+    /**
+     * Restore a budget on the current thread that was removed by {@link #suspend()}.
+     * @param budget The suspended budget, or null if there was none.
+     */
+    public static void resume(@Nullable EvaluationBudget budget) {
+        if (budget != null) {
+            CURRENT.set(budget);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Count a step in the evaluation on the current thread, if it has a budget.
+     * @throws EvaluationException If the budget has been exceeded.
+     */
+    public static void step() throws EvaluationException {
+        steps(1);
+    }
+
+    /**
+     * Count a number of steps in the evaluation on the current thread, if it has a budget.
+     * This is used for steps that were taken in forked budgets on other threads on behalf of this evaluation.
+     * @param count The number of steps.
+     * @throws EvaluationException If the budget has been exceeded.
+     */
+    public static void steps(long count) throws EvaluationException {
+        EvaluationBudget budget = CURRENT.get();
+        if (budget != null && (budget.steps += count) > budget.limit) {
+            throw new EvaluationException(new L10NHelpers.UnlocalizedString(
+                    L10NValues.OPERATOR_ERROR_EVALUATIONBUDGET, budget.limit).localize());
+        }
+    }
+
+    /**
+     * Stop this budget on the current thread, account its steps to the network,
+     * and release the steps that it reserved but did not take.
+     * Forked budgets are not accounted, their steps are returned to the forking evaluation instead.
+     * @return The number of steps that were taken.
+     */
+    public long end() {
+        CURRENT.remove();
+        IPartNetwork network = owner.getNetwork();
+        if (!forked && network != null) {
+            network.addEvaluationCost(owner.getId(), steps, limit, deferred);
+        }
+        return steps;
+    }
+
+    /**
+     * The expression to which the steps of a budget are accounted.
+     * The network is only weakly referenced, as lazy values may outlive it.
+     */
+    public static class Owner {
+
+        private final WeakReference<IPartNetwork> network;
+        private final int id;
+
+        public Owner(@Nullable IPartNetwork network, int id) {
+            this.network = network != null ? new WeakReference<>(network) : null;
+            this.id = id;
+        }
+
+        /**
+         * @return The network in which the expression is evaluated, or null if there is none.
+         */
+        @Nullable
+        public IPartNetwork getNetwork() {
+            return network != null ? network.get() : null;
+        }
+
+        /**
+         * @return The id of the variable of the expression.
+         */
+        public int getId() {
+            return id;
+        }
+    }
+
+}
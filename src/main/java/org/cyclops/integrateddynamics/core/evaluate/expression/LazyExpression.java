@@ -1,43 +1,130 @@
 package org.cyclops.integrateddynamics.core.evaluate.expression;
 
+import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.expression.IExpression;
 import org.cyclops.integrateddynamics.api.evaluate.expression.ILazyExpressionValueCache;
 import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IObservableVariable;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariableInvalidateListener;
+import org.cyclops.integrateddynamics.api.network.IPartNetwork;
+import org.cyclops.integrateddynamics.core.evaluate.variable.VariableInvalidateListeners;
 
 /**
  * A generic expression with arbitrarily nested binary operations.
  * This is evaluated in a lazy manner.
+ *
+ * If {@link GeneralConfig#reactiveVariableEvaluation} is enabled, the operator is pure,
+ * and the changes of all input variables are tracked,
+ * the previous value is reused until one of the input variables is invalidated.
  * @author rubensworks
  */
-public class LazyExpression<V extends IValue> implements IExpression<V> {
+public class LazyExpression<V extends IValue> implements IExpression<V>, IObservableVariable<V>,
+        IVariableInvalidateListener {
 
     private final int id;
     private final IOperator op;
     private final IVariable[] input;
     private final ILazyExpressionValueCache valueCache;
+    private final VariableInvalidateListeners invalidateListeners = new VariableInvalidateListeners();
+    private final boolean changeTracked;
     private boolean errored = false;
+    private volatile boolean dirty = true;
+    private IValue lastValue = null;
 
     public LazyExpression(int id, IOperator op, IVariable[] input, ILazyExpressionValueCache valueCache) {
         this.id = id;
         this.op = op;
         this.input = input;
         this.valueCache = valueCache;
+
+        // Changes are only tracked if reactive evaluation was enabled when this expression was created.
+        // Impure operators may return another value for the same input, such as the health of an entity.
+        boolean changeTracked = GeneralConfig.reactiveVariableEvaluation && op.isPure();
+        if (changeTracked) {
+            for (IVariable variable : input) {
+                if (variable instanceof IObservableVariable) {
+                    IObservableVariable observableVariable = (IObservableVariable) variable;
+                    observableVariable.addInvalidateListener(this);
+                    changeTracked &= observableVariable.isChangeTracked();
+                } else {
+                    changeTracked = false;
+                }
+            }
+        }
+        this.changeTracked = changeTracked;
     }
 
     @Override
     public IValue evaluate() throws EvaluationException {
+        if (GeneralConfig.reactiveVariableEvaluation && changeTracked) {
+            if (!dirty) {
+                return lastValue;
+            }
+            // Mark as clean before evaluating, so that invalidations during evaluation are not lost.
+            dirty = false;
+            try {
+                lastValue = evaluateOperator();
+            } catch (EvaluationException | RuntimeException e) {
+                dirty = true;
+                throw e;
+            }
+            return lastValue;
+        }
+        if (changeTracked) {
+            // Invalidations are not sent while reactive evaluation is disabled,
+            // so the value can not be reused when it is enabled again.
+            dirty = true;
+        }
+
         if(valueCache.hasValue(id)) {
             return valueCache.getValue(id);
         }
-        IValue value = op.evaluate(input);
+        IValue value = evaluateOperator();
         valueCache.setValue(id, value);
         return value;
     }
 
+    protected IValue evaluateOperator() throws EvaluationException {
+        IPartNetwork network = valueCache instanceof IPartNetwork ? (IPartNetwork) valueCache : null;
+        EvaluationBudget budget = EvaluationBudget.begin(network, id);
+        try {
+            return valueCache.getOrEvaluate(op, input, op::evaluate);
+        } finally {
+            if (budget != null) {
+                budget.end();
+            }
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        // Dependents can only have reused our value if we were evaluated after our last invalidation.
+        if (!dirty) {
+            dirty = true;
+            lastValue = null;
+            invalidateListeners.invalidate();
+        }
+    }
+
+    @Override
+    public boolean isChangeTracked() {
+        return changeTracked;
+    }
+
+    @Override
+    public void addInvalidateListener(IVariableInvalidateListener listener) {
+        invalidateListeners.add(listener);
+    }
+
+    @Override
+    public void removeInvalidateListener(IVariableInvalidateListener listener) {
+        invalidateListeners.remove(listener);
+    }
+
     @Override
     public boolean hasErrored() {
         return errored;
@@ -0,0 +1,105 @@
+package org.cyclops.integrateddynamics.core.evaluate.expression;
+
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import org.cyclops.integrateddynamics.api.evaluate.expression.ILazyExpressionValueCache;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+
+/**
+ * A lazy expression value cache in which each value is stamped with the generation in which it was set.
+ * Values are only valid for a limited number of generations,
+ * so that all values can be invalidated at once by incrementing the generation,
+ * instead of clearing the backing map.
+ * @author rubensworks
+ */
+public class LazyExpressionValueCache implements ILazyExpressionValueCache {
+
+    /**
+     * After how many generations stale entries are removed from the backing map.
+     */
+    public static final int PRUNE_INTERVAL = 1200;
+
+    private final TIntObjectMap<Entry> entries = new TIntObjectHashMap<>();
+    private final int validGenerations;
+    private long generation = 0;
+
+    public LazyExpressionValueCache() {
+        this(1);
+    }
+
+    /**
+     * @param validGenerations For how many generations values remain valid, must be at least one.
+     */
+    public LazyExpressionValueCache(int validGenerations) {
+        if (validGenerations < 1) {
+            throw new IllegalArgumentException("Values must remain valid for at least one generation, got "
+                    + validGenerations);
+        }
+        this.validGenerations = validGenerations;
+    }
+
+    /**
+     * @return The current generation.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Move on to the next generation, which will invalidate all values that have become too old.
+     */
+    public void invalidate() {
+        generation++;
+        if (generation % PRUNE_INTERVAL == 0) {
+            // Make sure that the values of expressions that are not evaluated anymore do not stay in memory.
+            entries.retainEntries((id, entry) -> isValid(entry));
+        }
+    }
+
+    /**
+     * @return The number of values in the backing map, including values that are not valid anymore.
+     */
+    protected int getStoredValues() {
+        return entries.size();
+    }
+
+    protected boolean isValid(Entry entry) {
+        return generation - entry.generation < validGenerations;
+    }
+
+    @Override
+    public void setValue(int id, IValue value) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            entries.put(id, new Entry(value, generation));
+        } else {
+            entry.value = value;
+            entry.generation = generation;
+        }
+    }
+
+    @Override
+    public boolean hasValue(int id) {
+        Entry entry = entries.get(id);
+        return entry != null && isValid(entry);
+    }
+
+    @Override
+    public IValue getValue(int id) {
+        Entry entry = entries.get(id);
+        return entry != null && isValid(entry) ? entry.value : null;
+    }
+
+    protected static class Entry {
+
+        private IValue value;
+        private long generation;
+
+        public Entry(IValue value, long generation) {
+            this.value = value;
+            this.generation = generation;
+        }
+
+    }
+
+}
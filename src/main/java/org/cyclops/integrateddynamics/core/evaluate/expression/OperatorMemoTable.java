@@ -0,0 +1,213 @@
+package org.cyclops.integrateddynamics.core.evaluate.expression;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.MapMaker;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IBoundOperator;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.core.evaluate.operator.CurriedOperator;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueObjectTypeEntity;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeList;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeListProxyMaterialized;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeOperator;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * A bounded table of results of pure operators, that is kept across ticks.
+ *
+ * Results are keyed by the operator and the values of its input.
+ * Input values are compared by equality, except for lists, which are only compared by identity,
+ * so that keys can be hashed and compared without iterating over the list elements.
+ * Materialized lists are compared by the identity of their contents,
+ * other lists only if they were produced by this table, as they may otherwise lazily read from the world.
+ * Operators that are passed as input value must be pure themselves,
+ * curried operators are compared by their base operator and the keys of their applied values.
+ *
+ * The table is bounded by the total weight of its results, where each result weighs one,
+ * plus the number of elements of the materialized lists that it holds on to.
+ * @author rubensworks
+ */
+public class OperatorMemoTable {
+
+    private final Cache<Key, IValue> results;
+    private final Set<IValue> producedLists = Collections.newSetFromMap(new MapMaker().weakKeys().makeMap());
+
+    /**
+     * @param maximumWeight The maximum total weight of the results to keep.
+     */
+    public OperatorMemoTable(int maximumWeight) {
+        this.results = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((Key key, IValue value) -> key.weight)
+                .build();
+    }
+
+    /**
+     * Evaluate the given pure operator, or get the result of an earlier evaluation on equal input.
+     * @param operator A pure operator.
+     * @param input The input variables, which will all be evaluated.
+     * @param evaluator The evaluator for the operator if no earlier result is available.
+     * @return The output value.
+     * @throws EvaluationException If evaluation failed.
+     */
+    public IValue evaluate(IOperator operator, IVariable[] input, IBoundOperator evaluator) throws EvaluationException {
+        Object operatorKey = getOperatorKey(operator);
+        if (operatorKey == null) {
+            return evaluator.evaluate(input);
+        }
+        Object[] inputKeys = new Object[input.length];
+        long weight = 1;
+        for (int i = 0; i < input.length; i++) {
+            IValue value;
+            try {
+                value = input[i].getValue();
+            } catch (EvaluationException e) {
+                // Let the operator decide if it really needs this input.
+                return evaluator.evaluate(input);
+            }
+            inputKeys[i] = getInputKey(value);
+            if (inputKeys[i] == null) {
+                return evaluator.evaluate(input);
+            }
+            weight += getWeight(value);
+        }
+
+        Key key = new Key(operatorKey, inputKeys);
+        IValue result = results.getIfPresent(key);
+        if (result == null) {
+            result = evaluator.evaluate(input);
+            if (result instanceof ValueTypeList.ValueList) {
+                producedLists.add(result);
+            }
+            key.weight = (int) Math.min(Integer.MAX_VALUE, weight + getWeight(result));
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Get the key by which the given input value can be compared to earlier input.
+     * @param value An input value.
+     * @return The key, or null if results for this value can not be reused.
+     */
+    @Nullable
+    protected Object getInputKey(IValue value) throws EvaluationException {
+        if (value instanceof ValueTypeList.ValueList) {
+            if (producedLists.contains(value)) {
+                return new IdentityKey(value);
+            }
+            IValueTypeListProxy list = ((ValueTypeList.ValueList) value).getRawValue();
+            return list instanceof ValueTypeListProxyMaterialized ? new IdentityKey(list) : null;
+        }
+        if (value instanceof ValueTypeOperator.ValueOperator) {
+            return getOperatorKey(((ValueTypeOperator.ValueOperator) value).getRawValue());
+        }
+        if (value instanceof ValueObjectTypeEntity.ValueEntity) {
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * Get the key by which the given operator can be compared to earlier operators.
+     * @param operator An operator.
+     * @return The key, or null if results for this operator can not be reused.
+     * @throws EvaluationException If an applied value of a curried operator could not be evaluated.
+     */
+    @Nullable
+    protected Object getOperatorKey(IOperator operator) throws EvaluationException {
+        if (!operator.isPure()) {
+            return null;
+        }
+        if (operator instanceof CurriedOperator) {
+            CurriedOperator curriedOperator = (CurriedOperator) operator;
+            Object baseOperatorKey = getOperatorKey(curriedOperator.getBaseOperator());
+            IVariable[] appliedVariables = curriedOperator.getAppliedVariables();
+            Object[] appliedKeys = new Object[appliedVariables.length];
+            for (int i = 0; i < appliedVariables.length; i++) {
+                appliedKeys[i] = getInputKey(appliedVariables[i].getValue());
+                if (appliedKeys[i] == null) {
+                    return null;
+                }
+            }
+            return baseOperatorKey == null ? null : new Key(baseOperatorKey, appliedKeys);
+        }
+        return operator;
+    }
+
+    /**
+     * Get the weight that the given value adds to this table when it is kept.
+     * @param value An input or output value.
+     * @return The number of elements of the materialized list in the value, or zero.
+     * @throws EvaluationException If the length of the list could not be determined.
+     */
+    protected static long getWeight(IValue value) throws EvaluationException {
+        if (value instanceof ValueTypeList.ValueList) {
+            IValueTypeListProxy list = ((ValueTypeList.ValueList) value).getRawValue();
+            if (list instanceof ValueTypeListProxyMaterialized) {
+                return list.getLength();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return The number of results in this table.
+     */
+    public long size() {
+        return results.size();
+    }
+
+    protected static class Key {
+
+        private final Object operatorKey;
+        private final Object[] inputKeys;
+        private final int hash;
+        private int weight = 1;
+
+        public Key(Object operatorKey, Object[] inputKeys) {
+            this.operatorKey = operatorKey;
+            this.inputKeys = inputKeys;
+            this.hash = 31 * operatorKey.hashCode() + Arrays.hashCode(inputKeys);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && ((Key) obj).hash == this.hash && ((Key) obj).operatorKey.equals(this.operatorKey)
+                    && Arrays.equals(((Key) obj).inputKeys, this.inputKeys);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    protected static class IdentityKey {
+
+        private final Object object;
+
+        public IdentityKey(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof IdentityKey && ((IdentityKey) obj).object == this.object;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+
+}
@@ -51,6 +51,11 @@ public class CastOperator<T1 extends IValueType<V1>, T2 extends IValueType<V2>,
         return "operator.operators." + getModId() + "." + getUnlocalizedType();
     }
 
+    @Override
+    public boolean isPure() {
+        return true;
+    }
+
     @Override
     public void loadTooltip(List<String> lines, boolean appendOptionalInfo) {
         lines.add(L10NHelpers.localize("operator.operators.integrateddynamics.cast.tooltip",
@@ -1,5 +1,6 @@
 package org.cyclops.integrateddynamics.core.evaluate.operator;
 
+import com.google.common.collect.Lists;
 import net.minecraft.nbt.*;
 import org.cyclops.cyclopscore.helper.MinecraftHelpers;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
@@ -12,6 +13,8 @@ import org.cyclops.integrateddynamics.core.evaluate.variable.ValueHelpers;
 import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeBoolean;
 import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -43,6 +46,37 @@ public class CombinedOperator extends OperatorBase {
         return this;
     }
 
+    @Override
+    public boolean isPure() {
+        for (IOperator operator : ((OperatorsFunction) getFunction()).getOperators()) {
+            if (!operator.isPure()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Inline the operators of the given operators that are combined with the same function type,
+     * so that nested chains of the same combination are evaluated as a single operator.
+     * This is only valid for associative combinations.
+     * @param functionClass The function type.
+     * @param operators The operators to combine.
+     * @return The flattened operators.
+     */
+    protected static IOperator[] flatten(Class<? extends OperatorsFunction> functionClass, IOperator... operators) {
+        List<IOperator> flattened = Lists.newArrayListWithExpectedSize(operators.length);
+        for (IOperator operator : operators) {
+            if (operator instanceof CombinedOperator
+                    && functionClass.isInstance(((CombinedOperator) operator).getFunction())) {
+                Collections.addAll(flattened, ((OperatorsFunction) ((CombinedOperator) operator).getFunction()).getOperators());
+            } else {
+                flattened.add(operator);
+            }
+        }
+        return flattened.toArray(new IOperator[flattened.size()]);
+    }
+
     public static abstract class OperatorsFunction implements IFunction {
 
         private final IOperator[] operators;
@@ -79,7 +113,7 @@ public class CombinedOperator extends OperatorBase {
         }
 
         public static CombinedOperator asOperator(IOperator... operators) {
-            CombinedOperator.Conjunction conjunction = new CombinedOperator.Conjunction(operators);
+            CombinedOperator.Conjunction conjunction = new CombinedOperator.Conjunction(flatten(Conjunction.class, operators));
             return new CombinedOperator(":&&:", "p_conjunction", conjunction, ValueTypes.BOOLEAN);
         }
 
@@ -116,7 +150,7 @@ public class CombinedOperator extends OperatorBase {
         }
 
         public static CombinedOperator asOperator(IOperator... operators) {
-            CombinedOperator.Disjunction disjunction = new CombinedOperator.Disjunction(operators);
+            CombinedOperator.Disjunction disjunction = new CombinedOperator.Disjunction(flatten(Disjunction.class, operators));
             return new CombinedOperator(":||:", "p_disjunction", disjunction, ValueTypes.BOOLEAN);
         }
 
@@ -182,7 +216,7 @@ public class CombinedOperator extends OperatorBase {
         }
 
         public static CombinedOperator asOperator(IOperator... operators) {
-            CombinedOperator.Pipe pipe = new CombinedOperator.Pipe(operators);
+            CombinedOperator.Pipe pipe = new CombinedOperator.Pipe(flatten(Pipe.class, operators));
             return new CombinedOperator(":.:", "piped", pipe, operators[operators.length - 1].getOutputType());
         }
 
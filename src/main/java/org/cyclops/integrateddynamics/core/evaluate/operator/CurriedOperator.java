@@ -7,6 +7,7 @@ import net.minecraft.nbt.NBTTagList;
 import org.cyclops.cyclopscore.helper.L10NHelpers;
 import org.cyclops.cyclopscore.helper.MinecraftHelpers;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IBoundOperator;
 import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
 import org.cyclops.integrateddynamics.api.evaluate.operator.IOperatorSerializer;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
@@ -17,6 +18,7 @@ import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
 import org.cyclops.integrateddynamics.core.evaluate.variable.Variable;
 import org.cyclops.integrateddynamics.core.helper.L10NValues;
 
+import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
@@ -35,6 +37,25 @@ public class CurriedOperator implements IOperator {
         this.appliedVariables = appliedVariables;
     }
 
+    /**
+     * Partially apply the given operator.
+     * If the operator is already curried, the variables are applied to its base operator,
+     * so that chains of curried operators are evaluated as a single operator.
+     * @param operator The operator to apply.
+     * @param variables The variables to apply.
+     * @return The curried operator.
+     */
+    public static CurriedOperator curry(IOperator operator, IVariable... variables) {
+        if (operator instanceof CurriedOperator) {
+            CurriedOperator curriedOperator = (CurriedOperator) operator;
+            IVariable[] appliedVariables = new IVariable[curriedOperator.appliedVariables.length + variables.length];
+            System.arraycopy(curriedOperator.appliedVariables, 0, appliedVariables, 0, curriedOperator.appliedVariables.length);
+            System.arraycopy(variables, 0, appliedVariables, curriedOperator.appliedVariables.length, variables.length);
+            return new CurriedOperator(curriedOperator.baseOperator, appliedVariables);
+        }
+        return new CurriedOperator(operator, variables);
+    }
+
     protected String getAppliedSymbol() {
         String symbol = "";
         for (IVariable appliedVariable : appliedVariables) {
@@ -83,7 +104,7 @@ public class CurriedOperator implements IOperator {
     @Override
     public IValueType[] getInputTypes() {
         IValueType[] baseInputTypes = baseOperator.getInputTypes();
-        return Arrays.copyOfRange(baseInputTypes, 1, baseInputTypes.length);
+        return Arrays.copyOfRange(baseInputTypes, appliedVariables.length, baseInputTypes.length);
     }
 
     @Override
@@ -96,7 +117,7 @@ public class CurriedOperator implements IOperator {
         for (int i = 0; i < appliedVariables.length; i++) {
             fullInput[i] = appliedVariables[i];
         }
-        System.arraycopy(partialInput, 0, fullInput, appliedVariables.length, fullInput.length - 1);
+        System.arraycopy(partialInput, 0, fullInput, appliedVariables.length, fullInput.length - appliedVariables.length);
         return fullInput;
     }
 
@@ -105,7 +126,7 @@ public class CurriedOperator implements IOperator {
         for (int i = 0; i < appliedVariables.length; i++) {
             fullInput[i] = appliedVariables[i].getType();
         }
-        System.arraycopy(partialInput, 0, fullInput, appliedVariables.length, fullInput.length - 1);
+        System.arraycopy(partialInput, 0, fullInput, appliedVariables.length, fullInput.length - appliedVariables.length);
         return fullInput;
     }
 
@@ -119,9 +140,35 @@ public class CurriedOperator implements IOperator {
         return baseOperator.evaluate(deriveFullInputVariables(input));
     }
 
+    @Override
+    public IBoundOperator bind(IValueType... inputTypes) throws EvaluationException {
+        for (IVariable appliedVariable : appliedVariables) {
+            // The types of other applied variables may change, so these must be validated on each evaluation.
+            if (!(appliedVariable instanceof Variable)) {
+                return IOperator.super.bind(inputTypes);
+            }
+        }
+        IBoundOperator boundOperator = baseOperator.bind(deriveFullInputTypes(inputTypes));
+        return input -> boundOperator.evaluate(deriveFullInputVariables(input));
+    }
+
+    @Override
+    public boolean isPure() {
+        if (!baseOperator.isPure()) {
+            return false;
+        }
+        for (IVariable appliedVariable : appliedVariables) {
+            // Other variables may change their value.
+            if (!(appliedVariable instanceof Variable)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Override
     public int getRequiredInputLength() {
-        return baseOperator.getRequiredInputLength() - 1;
+        return baseOperator.getRequiredInputLength() - appliedVariables.length;
     }
 
     @Override
@@ -148,6 +195,62 @@ public class CurriedOperator implements IOperator {
         return baseOperator;
     }
 
+    public IVariable[] getAppliedVariables() {
+        return appliedVariables;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CurriedOperator)) {
+            return false;
+        }
+        CurriedOperator other = (CurriedOperator) obj;
+        if (!baseOperator.equals(other.baseOperator) || appliedVariables.length != other.appliedVariables.length) {
+            return false;
+        }
+        for (int i = 0; i < appliedVariables.length; i++) {
+            IVariable appliedVariable = appliedVariables[i];
+            IVariable otherAppliedVariable = other.appliedVariables[i];
+            // Only constant variables can be compared by value, as other variables may change their value.
+            if (appliedVariable != otherAppliedVariable && !(appliedVariable instanceof Variable
+                    && otherAppliedVariable instanceof Variable
+                    && Objects.equals(getConstantValue(appliedVariable), getConstantValue(otherAppliedVariable)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = baseOperator.hashCode();
+        for (IVariable appliedVariable : appliedVariables) {
+            int appliedHash;
+            if (!(appliedVariable instanceof Variable)) {
+                appliedHash = System.identityHashCode(appliedVariable);
+            } else if (appliedVariable.getType() == ValueTypes.LIST) {
+                // Lists are not hashed by value, as that would iterate over all of their elements.
+                appliedHash = ValueTypes.LIST.hashCode();
+            } else {
+                appliedHash = Objects.hashCode(getConstantValue(appliedVariable));
+            }
+            hash = 31 * hash + appliedHash;
+        }
+        return hash;
+    }
+
+    @Nullable
+    protected static IValue getConstantValue(IVariable variable) {
+        try {
+            return variable.getValue();
+        } catch (EvaluationException e) {
+            return null;
+        }
+    }
+
     public static class Serializer implements IOperatorSerializer<CurriedOperator> {
 
         @Override
@@ -171,7 +274,6 @@ public class CurriedOperator implements IOperator {
                 } catch (EvaluationException e) {
                     value = appliedVariable.getType().getDefault();
                 }
-                i++;
                 NBTTagCompound valueTag = new NBTTagCompound();
                 IValueType valueType = value.getType();
                 valueTag.setString("valueType", valueType.getUnlocalizedName());
@@ -3,11 +3,13 @@ package org.cyclops.integrateddynamics.core.evaluate.operator;
 import org.cyclops.cyclopscore.helper.L10NHelpers;
 import org.cyclops.integrateddynamics.Reference;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IBoundOperator;
 import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
 import org.cyclops.integrateddynamics.api.logicprogrammer.IConfigRenderPattern;
+import org.cyclops.integrateddynamics.core.evaluate.expression.EvaluationBudget;
 import org.cyclops.integrateddynamics.core.evaluate.variable.ValueHelpers;
 import org.cyclops.integrateddynamics.core.helper.L10NValues;
 
@@ -133,9 +135,35 @@ public abstract class OperatorBase implements IOperator {
         if(error != null) {
             throw new EvaluationException(error.localize());
         }
+        EvaluationBudget.step();
         return function.evaluate(new SafeVariablesGetter(input));
     }
 
+    /**
+     * Evaluate this operator for the given input, without validating the input types.
+     * This may only be called for input of which the types have been validated before
+     * using {@link #validateTypes(IValueType[])}, and whose types can not change.
+     * @param variables The input variables holder.
+     * @return The output value.
+     * @throws EvaluationException If something went wrong during the evaluation.
+     */
+    public IValue evaluateValidated(SafeVariablesGetter variables) throws EvaluationException {
+        EvaluationBudget.step();
+        return function.evaluate(variables);
+    }
+
+    @Override
+    public IBoundOperator bind(IValueType... inputTypes) throws EvaluationException {
+        L10NHelpers.UnlocalizedString error = validateTypes(inputTypes);
+        if(error != null) {
+            throw new EvaluationException(error.localize());
+        }
+        return input -> {
+            EvaluationBudget.step();
+            return function.evaluate(new SafeVariablesGetter(input));
+        };
+    }
+
     @Override
     public int getRequiredInputLength() {
         return getInputTypes().length;
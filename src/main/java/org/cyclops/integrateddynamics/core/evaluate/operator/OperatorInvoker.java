@@ -0,0 +1,117 @@
+package org.cyclops.integrateddynamics.core.evaluate.operator;
+
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IBoundOperator;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.core.evaluate.expression.EvaluationBudget;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueHelpers;
+import org.cyclops.integrateddynamics.core.evaluate.variable.Variable;
+
+/**
+ * Repeatedly invokes an operator, such as for all elements of a list.
+ *
+ * The operator is bound to the types of the last input using {@link IOperator#bind(IValueType...)},
+ * so that the input types are only validated again when they differ from the previous invocation.
+ *
+ * Invocations that happen outside of an evaluation, such as for the elements of lazy lists that are read
+ * by writers and displays, are accounted to the {@link EvaluationBudget} owner of the evaluation in which
+ * this invoker was created.
+ * @author rubensworks
+ */
+public class OperatorInvoker {
+
+    private final IOperator operator;
+    private final EvaluationBudget.Owner budgetOwner;
+    private Binding binding = null;
+
+    public OperatorInvoker(IOperator operator) {
+        this.operator = operator;
+        this.budgetOwner = EvaluationBudget.getCurrentOwner();
+    }
+
+    public IOperator getOperator() {
+        return operator;
+    }
+
+    /**
+     * Evaluate the operator for the given values.
+     * @param values The ordered input values.
+     * @return The output value.
+     * @throws EvaluationException If something went wrong during operator evaluation.
+     */
+    public IValue evaluate(IValue... values) throws EvaluationException {
+        IVariable[] variables = new IVariable[values.length];
+        for (int i = 0; i < variables.length; i++) {
+            IValue value = values[i];
+            variables[i] = new Variable<>(value.getType(), value);
+        }
+        return evaluate(variables);
+    }
+
+    /**
+     * Evaluate the operator for the given variables.
+     * @param variables The ordered input variables.
+     * @return The output value.
+     * @throws EvaluationException If something went wrong during operator evaluation.
+     */
+    public IValue evaluate(IVariable... variables) throws EvaluationException {
+        // Bindings are immutable, so this is safe when invoked from multiple threads.
+        Binding binding = this.binding;
+        if (binding == null || !binding.matches(variables)) {
+            IValueType[] inputTypes = ValueHelpers.from(variables);
+            binding = new Binding(inputTypes, operator.bind(inputTypes));
+            this.binding = binding;
+        }
+        EvaluationBudget budget = EvaluationBudget.beginDeferred(budgetOwner);
+        try {
+            return binding.boundOperator.evaluate(variables);
+        } finally {
+            if (budget != null) {
+                budget.end();
+            }
+        }
+    }
+
+    /**
+     * Evaluate the operator for the given values, or curry the operator if the number of values does not match,
+     * in the same way as {@link ValueHelpers#evaluateOperator(IOperator, IValue...)}.
+     * @param values The ordered input values.
+     * @return The resulting value.
+     * @throws EvaluationException If something went wrong during operator evaluation.
+     */
+    public IValue evaluateOrCurry(IValue... values) throws EvaluationException {
+        if (operator.getRequiredInputLength() == values.length) {
+            return evaluate(values);
+        } else {
+            return ValueHelpers.evaluateOperator(operator, values);
+        }
+    }
+
+    protected static class Binding {
+
+        private final IValueType[] inputTypes;
+        private final IBoundOperator boundOperator;
+
+        public Binding(IValueType[] inputTypes, IBoundOperator boundOperator) {
+            this.inputTypes = inputTypes;
+            this.boundOperator = boundOperator;
+        }
+
+        public boolean matches(IVariable[] variables) {
+            if (variables.length != inputTypes.length) {
+                return false;
+            }
+            for (int i = 0; i < variables.length; i++) {
+                if (variables[i].getType() != inputTypes[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+    }
+
+}
@@ -3,6 +3,7 @@ package org.cyclops.integrateddynamics.core.evaluate.operator;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import lombok.Lombok;
@@ -61,6 +62,7 @@ import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
 import org.cyclops.integrateddynamics.api.evaluate.operator.IOperatorRegistry;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeNumber;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
@@ -76,6 +78,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -106,7 +109,7 @@ public final class Operators {
     /**
      * Short-circuit logical AND operator with two input booleans and one output boolean.
      */
-    public static final IOperator LOGICAL_AND = REGISTRY.register(OperatorBuilders.LOGICAL_2.symbol("&&").operatorName("and")
+    public static final IOperator LOGICAL_AND = REGISTRY.register(OperatorBuilders.LOGICAL_2.symbol("&&").operatorName("and").pure(false)
             .function(variables -> {
                 ValueTypeBoolean.ValueBoolean a = variables.getValue(0);
                 if (!a.getRawValue()) {
@@ -119,7 +122,7 @@ public final class Operators {
     /**
      * Short-circuit logical AND operator with two input booleans and one output boolean.
      */
-    public static final IOperator LOGICAL_OR = REGISTRY.register(OperatorBuilders.LOGICAL_2.symbol("||").operatorName("or")
+    public static final IOperator LOGICAL_OR = REGISTRY.register(OperatorBuilders.LOGICAL_2.symbol("||").operatorName("or").pure(false)
             .function(variables -> {
                 ValueTypeBoolean.ValueBoolean a = variables.getValue(0);
                 if (a.getRawValue()) {
@@ -158,7 +161,7 @@ public final class Operators {
     /**
      * Arithmetic ADD operator with two input integers and one output integer.
      */
-    public static final IOperator ARITHMETIC_ADDITION = REGISTRY.register(OperatorBuilders.ARITHMETIC_2.symbol("+").operatorName("addition")
+    public static final IOperator ARITHMETIC_ADDITION = REGISTRY.register(OperatorBuilders.ARITHMETIC_2.symbol("+").operatorName("addition").associative(true)
             .function(
                 variables -> ValueTypes.CATEGORY_NUMBER.add(variables.getVariables()[0], variables.getVariables()[1])
             ).build());
@@ -174,7 +177,7 @@ public final class Operators {
     /**
      * Arithmetic MULTIPLY operator with two input integers and one output integer.
      */
-    public static final IOperator ARITHMETIC_MULTIPLICATION = REGISTRY.register(OperatorBuilders.ARITHMETIC_2.symbol("*").operatorName("multiplication")
+    public static final IOperator ARITHMETIC_MULTIPLICATION = REGISTRY.register(OperatorBuilders.ARITHMETIC_2.symbol("*").operatorName("multiplication").associative(true)
             .function(
                 variables -> ValueTypes.CATEGORY_NUMBER.multiply(variables.getVariables()[0], variables.getVariables()[1])
             ).build());
@@ -190,7 +193,7 @@ public final class Operators {
     /**
      * Arithmetic MAX operator with two input integers and one output integer.
      */
-    public static final IOperator ARITHMETIC_MAXIMUM = REGISTRY.register(OperatorBuilders.ARITHMETIC_2_PREFIX.symbol("max").operatorName("maximum")
+    public static final IOperator ARITHMETIC_MAXIMUM = REGISTRY.register(OperatorBuilders.ARITHMETIC_2_PREFIX.symbol("max").operatorName("maximum").associative(true)
             .function(
                 variables -> ValueTypes.CATEGORY_NUMBER.max(variables.getVariables()[0], variables.getVariables()[1])
             ).build());
@@ -198,7 +201,7 @@ public final class Operators {
     /**
      * Arithmetic MIN operator with two input integers and one output integer.
      */
-    public static final IOperator ARITHMETIC_MINIMUM = REGISTRY.register(OperatorBuilders.ARITHMETIC_2_PREFIX.symbol("min").operatorName("minimum")
+    public static final IOperator ARITHMETIC_MINIMUM = REGISTRY.register(OperatorBuilders.ARITHMETIC_2_PREFIX.symbol("min").operatorName("minimum").associative(true)
             .function(
                 variables -> ValueTypes.CATEGORY_NUMBER.min(variables.getVariables()[0], variables.getVariables()[1])
             ).build());
@@ -335,7 +338,7 @@ public final class Operators {
     /**
      * Binary AND operator with two input integers and one output integers.
      */
-    public static final IOperator BINARY_AND = REGISTRY.register(OperatorBuilders.BINARY_2.symbol("&").operatorName("and")
+    public static final IOperator BINARY_AND = REGISTRY.register(OperatorBuilders.BINARY_2.symbol("&").operatorName("and").associative(true)
             .function(variables -> {
                 ValueTypeInteger.ValueInteger a = variables.getValue(0);
                 ValueTypeInteger.ValueInteger b = variables.getValue(1);
@@ -345,7 +348,7 @@ public final class Operators {
     /**
      * Binary OR operator with two input integers and one output integers.
      */
-    public static final IOperator BINARY_OR = REGISTRY.register(OperatorBuilders.BINARY_2.symbol("|").operatorName("or")
+    public static final IOperator BINARY_OR = REGISTRY.register(OperatorBuilders.BINARY_2.symbol("|").operatorName("or").associative(true)
             .function(variables -> {
                 ValueTypeInteger.ValueInteger a = variables.getValue(0);
                 ValueTypeInteger.ValueInteger b = variables.getValue(1);
@@ -355,7 +358,7 @@ public final class Operators {
     /**
      * Binary XOR operator with two input integers and one output integers.
      */
-    public static final IOperator BINARY_XOR = REGISTRY.register(OperatorBuilders.BINARY_2.symbol("^").operatorName("xor")
+    public static final IOperator BINARY_XOR = REGISTRY.register(OperatorBuilders.BINARY_2.symbol("^").operatorName("xor").associative(true)
             .function(variables -> {
                 ValueTypeInteger.ValueInteger a = variables.getValue(0);
                 ValueTypeInteger.ValueInteger b = variables.getValue(1);
@@ -417,7 +420,7 @@ public final class Operators {
     /**
      * String concat operator with two input strings and one output string.
      */
-    public static final IOperator STRING_CONCAT = REGISTRY.register(OperatorBuilders.STRING_2.symbol("+").operatorName("concat")
+    public static final IOperator STRING_CONCAT = REGISTRY.register(OperatorBuilders.STRING_2.symbol("+").operatorName("concat").associative(true)
             .function(variables -> {
                 ValueTypeString.ValueString a = variables.getValue(0);
                 ValueTypeString.ValueString b = variables.getValue(1);
@@ -584,8 +587,12 @@ public final class Operators {
             .function(variables -> {
                 IValueTypeListProxy<IValueType<IValue>, IValue> list = ((ValueTypeList.ValueList) variables.getValue(0)).getRawValue();
                 IValue input = variables.getValue(1);
-                for (IValue value : list) {
-                    if (value.equals(input)) {
+                if (list instanceof ValueTypeListProxyMaterialized) {
+                    return ValueTypeBoolean.ValueBoolean.of(((ValueTypeListProxyMaterialized) list).contains(input));
+                }
+                IValueTypeListCursor<IValue> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    if (cursor.next().equals(input)) {
                         return ValueTypeBoolean.ValueBoolean.of(true);
                     }
                 }
@@ -601,9 +608,11 @@ public final class Operators {
             .output(ValueTypes.BOOLEAN).symbolOperator("contains_p")
             .function(variables -> {
                 IValueTypeListProxy<IValueType<IValue>, IValue> list = ((ValueTypeList.ValueList) variables.getValue(0)).getRawValue();
-                IOperator operator = OperatorBuilders.getSafePredictate((ValueTypeOperator.ValueOperator) variables.getValue(1));
-                for (IValue value : list) {
-                    IValue result = operator.evaluate(new IVariable[]{new Variable<>(value.getType(), value)});
+                OperatorInvoker operator = new OperatorInvoker(
+                        OperatorBuilders.getSafePredictate((ValueTypeOperator.ValueOperator) variables.getValue(1)));
+                IValueTypeListCursor<IValue> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    IValue result = operator.evaluate(cursor.next());
                     if (((ValueTypeBoolean.ValueBoolean) result).getRawValue()) {
                         return ValueTypeBoolean.ValueBoolean.of(true);
                     }
@@ -621,9 +630,13 @@ public final class Operators {
             .function(variables -> {
                 IValueTypeListProxy<IValueType<IValue>, IValue> list = ((ValueTypeList.ValueList) variables.getValue(0)).getRawValue();
                 IValue value = variables.getValue(1);
+                if (list instanceof ValueTypeListProxyMaterialized) {
+                    return ValueTypeInteger.ValueInteger.of(((ValueTypeListProxyMaterialized) list).getCount(value));
+                }
                 int count = 0;
-                for (IValue listValue : list) {
-                    if (listValue.equals(value)) {
+                IValueTypeListCursor<IValue> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    if (cursor.next().equals(value)) {
                         count++;
                     }
                 }
@@ -639,10 +652,12 @@ public final class Operators {
             .symbolOperator("count_p")
             .function(variables -> {
                 IValueTypeListProxy<IValueType<IValue>, IValue> list = ((ValueTypeList.ValueList) variables.getValue(0)).getRawValue();
-                IOperator operator = OperatorBuilders.getSafePredictate((ValueTypeOperator.ValueOperator) variables.getValue(1));
+                OperatorInvoker operator = new OperatorInvoker(
+                        OperatorBuilders.getSafePredictate((ValueTypeOperator.ValueOperator) variables.getValue(1)));
                 int count = 0;
-                for (IValue listValue : list) {
-                    IValue result = operator.evaluate(new IVariable[]{new Variable<>(listValue.getType(), listValue)});
+                IValueTypeListCursor<IValue> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    IValue result = operator.evaluate(cursor.next());
                     if (((ValueTypeBoolean.ValueBoolean) result).getRawValue()) {
                         count++;
                     }
@@ -666,7 +681,7 @@ public final class Operators {
                             a.getValueType(), value.getType());
                     throw new EvaluationException(error.localize());
                 }
-                return ValueTypeList.ValueList.ofFactory(new ValueTypeListProxyAppend(a, value));
+                return ValueTypeList.ValueList.ofFactory(ValueTypeListProxyConcat.append(a, value));
             }).build());
 
     /**
@@ -675,7 +690,7 @@ public final class Operators {
     public static final IOperator LIST_CONCAT = REGISTRY.register(OperatorBuilders.LIST
             .inputTypes(new IValueType[]{ValueTypes.LIST, ValueTypes.LIST})
             .renderPattern(IConfigRenderPattern.INFIX).output(ValueTypes.LIST)
-            .symbolOperator("concat")
+            .symbolOperator("concat").associative(true)
             .function(variables -> {
                 IValueTypeListProxy a = ((ValueTypeList.ValueList) variables.getValue(0)).getRawValue();
                 IValueTypeListProxy b = ((ValueTypeList.ValueList) variables.getValue(1)).getRawValue();
@@ -685,7 +700,7 @@ public final class Operators {
                             a.getValueType(), b.getValueType());
                     throw new EvaluationException(error.localize());
                 }
-                return ValueTypeList.ValueList.ofFactory(new ValueTypeListProxyConcat(a, b));
+                return ValueTypeList.ValueList.ofFactory(ValueTypeListProxyConcat.concat(a, b));
             }).build());
 
     /**
@@ -746,15 +761,17 @@ public final class Operators {
             .symbolOperator("uniq_p")
             .function(variables -> {
                 IValueTypeListProxy<IValueType<IValue>, IValue> list = ((ValueTypeList.ValueList) variables.getValue(0)).getRawValue();
-                final IOperator operator = OperatorBuilders.getSafePredictate((ValueTypeOperator.ValueOperator) variables.getValue(1));
+                final OperatorInvoker operator = new OperatorInvoker(
+                        OperatorBuilders.getSafePredictate((ValueTypeOperator.ValueOperator) variables.getValue(1)));
                 List<IValue> values = new ArrayList<>();
+                IValueTypeListCursor<IValue> cursor = list.cursor();
                 outerLoop:
-                for(IValue value : list) {
+                while (cursor.hasNext()) {
+                    IValue value = cursor.next();
                     for(IValue existing : values) {
                         ValueTypeBoolean.ValueBoolean result;
                         try {
-                            result = (ValueTypeBoolean.ValueBoolean) operator
-                                    .evaluate(new Variable(value), new Variable(existing));
+                            result = (ValueTypeBoolean.ValueBoolean) operator.evaluate(value, existing);
                         } catch (EvaluationException e) {
                             throw Lombok.sneakyThrow(e);
                         }
@@ -773,8 +790,131 @@ public final class Operators {
             .renderPattern(IConfigRenderPattern.PREFIX_1_LONG).output(ValueTypes.LIST)
             .symbolOperator("uniq")
             .function(variables -> {
-                IValueTypeListProxy<IValueType<IValue>, IValue> list = ((ValueTypeList.ValueList) variables.getValue(0)).getRawValue();
-                return ValueTypeList.ValueList.ofList(list.getValueType(), new ArrayList<>(Sets.newLinkedHashSet(list)));
+                ValueTypeList.ValueList<IValueType<IValue>, IValue> value = variables.getValue(0);
+                IValueTypeListProxy<IValueType<IValue>, IValue> list = value.getRawValue();
+                if (list instanceof ValueTypeListProxyMaterialized) {
+                    List<IValue> distinctValues = ((ValueTypeListProxyMaterialized<IValueType<IValue>, IValue>) list).getDistinctValues();
+                    return distinctValues.size() == list.getLength() ? value : ValueTypeList.ValueList.ofList(list.getValueType(), distinctValues);
+                }
+                Set<IValue> values = Sets.newLinkedHashSet();
+                IValueTypeListCursor<IValue> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    values.add(cursor.next());
+                }
+                return ValueTypeList.ValueList.ofList(list.getValueType(), new ArrayList<>(values));
+            }).build());
+
+    /**
+     * Deduplicate the given list elements by the keys that the given operator maps them to.
+     * The first element of each key is kept.
+     */
+    public static final IOperator LIST_UNIQ_BY = REGISTRY.register(OperatorBuilders.LIST
+            .inputTypes(new IValueType[]{ValueTypes.LIST, ValueTypes.OPERATOR})
+            .renderPattern(IConfigRenderPattern.INFIX).output(ValueTypes.LIST)
+            .symbolOperator("uniq_by")
+            .function(variables -> {
+                IValueTypeListProxy<IValueType<IValue>, IValue> list = getFiniteList(variables.getValue(0), "uniq_by");
+                OperatorInvoker operator = new OperatorInvoker(((ValueTypeOperator.ValueOperator) variables.getValue(1)).getRawValue());
+                Set<IValue> keys = Sets.newHashSet();
+                List<IValue> values = new ArrayList<>();
+                IValueTypeListCursor<IValue> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    IValue value = cursor.next();
+                    if (keys.add(operator.evaluate(value))) {
+                        values.add(value);
+                    }
+                }
+                return ValueTypeList.ValueList.ofList(list.getValueType(), values);
+            }).build());
+
+    /**
+     * Group the given list elements by the keys that the given operator maps them to.
+     * The groups are ordered by the first occurrence of their key.
+     */
+    public static final IOperator LIST_GROUP_BY = REGISTRY.register(OperatorBuilders.LIST
+            .inputTypes(new IValueType[]{ValueTypes.LIST, ValueTypes.OPERATOR})
+            .renderPattern(IConfigRenderPattern.INFIX).output(ValueTypes.LIST)
+            .symbolOperator("group_by")
+            .function(variables -> {
+                IValueTypeListProxy<IValueType<IValue>, IValue> list = getFiniteList(variables.getValue(0), "group_by");
+                OperatorInvoker operator = new OperatorInvoker(((ValueTypeOperator.ValueOperator) variables.getValue(1)).getRawValue());
+                Map<IValue, List<IValue>> groups = Maps.newLinkedHashMap();
+                IValueTypeListCursor<IValue> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    IValue value = cursor.next();
+                    groups.computeIfAbsent(operator.evaluate(value), key -> new ArrayList<>()).add(value);
+                }
+                List<ValueTypeList.ValueList> values = new ArrayList<>(groups.size());
+                for (List<IValue> group : groups.values()) {
+                    values.add(ValueTypeList.ValueList.ofList(list.getValueType(), group));
+                }
+                return ValueTypeList.ValueList.ofList(ValueTypes.LIST, values);
+            }).build());
+
+    /**
+     * Sort the given list elements by their natural order.
+     */
+    public static final IOperator LIST_SORT = REGISTRY.register(OperatorBuilders.LIST
+            .inputType(ValueTypes.LIST)
+            .renderPattern(IConfigRenderPattern.PREFIX_1_LONG).output(ValueTypes.LIST)
+            .symbolOperator("sort")
+            .function(variables -> {
+                IValueTypeListProxy<IValueType<IValue>, IValue> list = getFiniteList(variables.getValue(0), "sort");
+                List<IValue> values = new ArrayList<>(list.getLength());
+                IValueTypeListCursor<IValue> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    values.add(cursor.next());
+                }
+                try {
+                    values.sort((a, b) -> {
+                        try {
+                            return ValueHelpers.compare(a, b);
+                        } catch (EvaluationException e) {
+                            throw Lombok.sneakyThrow(e);
+                        }
+                    });
+                } catch (IllegalArgumentException e) {
+                    // The sort detected an inconsistent order, which would otherwise crash the evaluating part.
+                    throw new EvaluationException(e.getMessage());
+                }
+                return ValueTypeList.ValueList.ofList(list.getValueType(), values);
+            }).build());
+
+    /**
+     * Sort the given list elements by the natural order of the keys that the given operator maps them to.
+     * Elements with equal keys keep their order.
+     */
+    public static final IOperator LIST_SORT_BY = REGISTRY.register(OperatorBuilders.LIST
+            .inputTypes(new IValueType[]{ValueTypes.LIST, ValueTypes.OPERATOR})
+            .renderPattern(IConfigRenderPattern.INFIX).output(ValueTypes.LIST)
+            .symbolOperator("sort_by")
+            .function(variables -> {
+                IValueTypeListProxy<IValueType<IValue>, IValue> list = getFiniteList(variables.getValue(0), "sort_by");
+                OperatorInvoker operator = new OperatorInvoker(((ValueTypeOperator.ValueOperator) variables.getValue(1)).getRawValue());
+                // Keys are determined once per element, instead of once per comparison.
+                List<Pair<IValue, IValue>> keyedValues = new ArrayList<>(list.getLength());
+                IValueTypeListCursor<IValue> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    IValue value = cursor.next();
+                    keyedValues.add(Pair.of(operator.evaluate(value), value));
+                }
+                try {
+                    keyedValues.sort((a, b) -> {
+                        try {
+                            return ValueHelpers.compare(a.getLeft(), b.getLeft());
+                        } catch (EvaluationException e) {
+                            throw Lombok.sneakyThrow(e);
+                        }
+                    });
+                } catch (IllegalArgumentException e) {
+                    // The sort detected an inconsistent order, which would otherwise crash the evaluating part.
+                    throw new EvaluationException(e.getMessage());
+                }
+                List<IValue> values = new ArrayList<>(keyedValues.size());
+                for (Pair<IValue, IValue> keyedValue : keyedValues) {
+                    values.add(keyedValue.getRight());
+                }
+                return ValueTypeList.ValueList.ofList(list.getValueType(), values);
             }).build());
 
     /**
@@ -928,7 +1068,7 @@ public final class Operators {
     /**
      * Get a block by name.
      */
-    public static final IOperator OBJECT_BLOCK_BY_NAME = REGISTRY.register(OperatorBuilders.BLOCK_1_SUFFIX_LONG
+    public static final IOperator OBJECT_BLOCK_BY_NAME = REGISTRY.register(OperatorBuilders.BLOCK_1_SUFFIX_LONG.pure(false)
             .inputType(ValueTypes.STRING).output(ValueTypes.OBJECT_BLOCK).symbolOperator("blockbyname")
             .function(OperatorBuilders.FUNCTION_STRING_TO_RESOURCE_LOCATION
                     .build(input -> {
@@ -1362,7 +1502,7 @@ public final class Operators {
     /**
      * Get an item by name.
      */
-    public static final IOperator OBJECT_ITEMSTACK_BY_NAME = REGISTRY.register(OperatorBuilders.ITEMSTACK_1_SUFFIX_LONG
+    public static final IOperator OBJECT_ITEMSTACK_BY_NAME = REGISTRY.register(OperatorBuilders.ITEMSTACK_1_SUFFIX_LONG.pure(false)
             .inputType(ValueTypes.STRING).output(ValueTypes.OBJECT_ITEMSTACK).symbolOperator("itembyname")
             .function(OperatorBuilders.FUNCTION_STRING_TO_RESOURCE_LOCATION
                     .build(input -> {
@@ -1392,19 +1532,20 @@ public final class Operators {
 
                 ItemStack itemStack = b.getRawValue();
                 int count = 0;
-                for (ValueObjectTypeItemStack.ValueItemStack listValue :
-                        (IValueTypeListProxy<ValueObjectTypeItemStack, ValueObjectTypeItemStack.ValueItemStack>) a.getRawValue()) {
-                    if (!listValue.getRawValue().isEmpty()) {
-                        ItemStack listItem = listValue.getRawValue();
-                        if (!itemStack.isEmpty()) {
-                            if (itemStack.isItemEqual(listItem) && ItemStack.areItemStackTagsEqual(itemStack, listItem)) {
-                                count += listItem.getCount();
-                            }
-
-                        } else {
-                            count += listItem.getCount();
-                        }
+                IValueTypeListProxy<ValueObjectTypeItemStack, ValueObjectTypeItemStack.ValueItemStack> list =
+                        (IValueTypeListProxy<ValueObjectTypeItemStack, ValueObjectTypeItemStack.ValueItemStack>) a.getRawValue();
+                if (list instanceof ValueTypeListProxyMaterialized) {
+                    // Identical stacks only have to be compared once.
+                    ValueTypeListProxyMaterialized<ValueObjectTypeItemStack, ValueObjectTypeItemStack.ValueItemStack> materialized =
+                            (ValueTypeListProxyMaterialized<ValueObjectTypeItemStack, ValueObjectTypeItemStack.ValueItemStack>) list;
+                    for (ValueObjectTypeItemStack.ValueItemStack listValue : materialized.getDistinctValues()) {
+                        count += getItemStackListCount(itemStack, listValue.getRawValue()) * materialized.getCount(listValue);
                     }
+                    return ValueTypeInteger.ValueInteger.of(count);
+                }
+                IValueTypeListCursor<ValueObjectTypeItemStack.ValueItemStack> cursor = list.cursor();
+                while (cursor.hasNext()) {
+                    count += getItemStackListCount(itemStack, cursor.next().getRawValue());
                 }
 
                 return ValueTypeInteger.ValueInteger.of(count);
@@ -2076,6 +2217,10 @@ public final class Operators {
                         final IOperator innerOperator = input.getLeft();
                         OperatorBase.SafeVariablesGetter variables = input.getRight();
                         ValueTypeList.ValueList inputList = variables.getValue(0);
+                        if (ParallelListEvaluator.canEvaluate(innerOperator, inputList.getRawValue())) {
+                            return ValueTypeList.ValueList.ofList(innerOperator.getOutputType(),
+                                    ParallelListEvaluator.map(innerOperator, inputList.getRawValue()));
+                        }
                         return ValueTypeList.ValueList.ofFactory(
                                 new ValueTypeListProxyOperatorMapped(innerOperator, inputList.getRawValue()));
                     })).build());
@@ -2090,25 +2235,48 @@ public final class Operators {
                     new IOperatorValuePropagator<Pair<IOperator, OperatorBase.SafeVariablesGetter>, IValue>() {
                         @Override
                         public IValue getOutput(Pair<IOperator, OperatorBase.SafeVariablesGetter> input) throws EvaluationException {
-                            final IOperator innerOperator = input.getLeft();
                             OperatorBase.SafeVariablesGetter variables = input.getRight();
                             ValueTypeList.ValueList<?, ?> inputList = variables.getValue(0);
                             List<IValue> filtered = Lists.newArrayList();
-                            for (IValue value : inputList.getRawValue()) {
-                                IValue result = ValueHelpers.evaluateOperator(innerOperator, value);
-                                if (result.getType() != ValueTypes.BOOLEAN) {
-                                    L10NHelpers.UnlocalizedString error = new L10NHelpers.UnlocalizedString(
-                                            L10NValues.OPERATOR_ERROR_WRONGPREDICATE,
-                                            OPERATOR_FILTER.getLocalizedNameFull(),
-                                            result.getType(), ValueTypes.BOOLEAN);
-                                    throw new EvaluationException(error.localize());
-                                } else if (((ValueTypeBoolean.ValueBoolean) result).getRawValue()) {
-                                    filtered.add(value);
+                            if (ParallelListEvaluator.canEvaluate(input.getLeft(), inputList.getRawValue())) {
+                                for (List<IValue> chunk : ParallelListEvaluator.evaluateChunks(input.getLeft(), inputList.getRawValue(),
+                                        (invoker, list, from, to) -> {
+                                            List<IValue> filteredChunk = Lists.newArrayList();
+                                            for (int i = from; i < to; i++) {
+                                                IValue value = list.get(i);
+                                                if (test(invoker, value)) {
+                                                    filteredChunk.add(value);
+                                                }
+                                            }
+                                            return filteredChunk;
+                                        })) {
+                                    filtered.addAll(chunk);
+                                }
+                            } else {
+                                final OperatorInvoker innerOperator = new OperatorInvoker(input.getLeft());
+                                IValueTypeListCursor<? extends IValue> cursor = inputList.getRawValue().cursor();
+                                while (cursor.hasNext()) {
+                                    IValue value = cursor.next();
+                                    if (test(innerOperator, value)) {
+                                        filtered.add(value);
+                                    }
                                 }
                             }
                             IValueType valueType = inputList.getRawValue().getValueType();
                             return ValueTypeList.ValueList.ofList(valueType, filtered);
                         }
+
+                        protected boolean test(OperatorInvoker predicate, IValue value) throws EvaluationException {
+                            IValue result = predicate.evaluateOrCurry(value);
+                            if (result.getType() != ValueTypes.BOOLEAN) {
+                                L10NHelpers.UnlocalizedString error = new L10NHelpers.UnlocalizedString(
+                                        L10NValues.OPERATOR_ERROR_WRONGPREDICATE,
+                                        OPERATOR_FILTER.getLocalizedNameFull(),
+                                        result.getType(), ValueTypes.BOOLEAN);
+                                throw new EvaluationException(error.localize());
+                            }
+                            return ((ValueTypeBoolean.ValueBoolean) result).getRawValue();
+                        }
                     })).build());
 
     /**
@@ -2186,13 +2354,16 @@ public final class Operators {
             .conditionalOutputTypeDeriver((operator, input) -> input[2].getType())
             .function(variables -> {
                 IValue accumulator = variables.getValue(2);
-                final IOperator innerOperator = OperatorBuilders.getSafeOperator((ValueTypeOperator.ValueOperator)
-                        variables.getValue(0), accumulator.getType());
+                IOperator operator = OperatorBuilders.getSafeOperator(
+                        (ValueTypeOperator.ValueOperator) variables.getValue(0), accumulator.getType());
                 ValueTypeList.ValueList<IValueType<IValue>, IValue> inputList = variables.getValue(1);
-                for (IValue listValue : inputList.getRawValue()) {
-                    accumulator = innerOperator.evaluate(new IVariable[]{
-                            new Variable<>(accumulator.getType(), accumulator),
-                            new Variable<>(listValue.getType(), listValue)});
+                if (ParallelListEvaluator.canReduce(operator, inputList.getRawValue(), accumulator)) {
+                    return ParallelListEvaluator.reduce(operator, inputList.getRawValue(), accumulator);
+                }
+                final OperatorInvoker innerOperator = new OperatorInvoker(operator);
+                IValueTypeListCursor<IValue> cursor = inputList.getRawValue().cursor();
+                while (cursor.hasNext()) {
+                    accumulator = innerOperator.evaluate(accumulator, cursor.next());
                 }
                 return accumulator;
             }).build());
@@ -2480,7 +2651,9 @@ public final class Operators {
                     ValueTypeList.ValueList<?, ?> value = input.getRight().getValue(0);
                     NBTTagCompound tag = input.getLeft();
                     NBTTagList list = new NBTTagList();
-                    for (IValue valueNbt : value.getRawValue()) {
+                    IValueTypeListCursor<? extends IValue> cursor = value.getRawValue().cursor();
+                    while (cursor.hasNext()) {
+                        IValue valueNbt = cursor.next();
                         if (value.getRawValue().getValueType() != ValueTypes.NBT) {
                             L10NHelpers.UnlocalizedString error = new L10NHelpers.UnlocalizedString(
                                     L10NValues.OPERATOR_ERROR_WRONGTYPE,
@@ -2507,7 +2680,9 @@ public final class Operators {
                     ValueTypeList.ValueList<?, ?> value = input.getRight().getValue(0);
                     NBTTagCompound tag = input.getLeft();
                     NBTTagList list = new NBTTagList();
-                    for (IValue valueNbt : value.getRawValue()) {
+                    IValueTypeListCursor<? extends IValue> cursor = value.getRawValue().cursor();
+                    while (cursor.hasNext()) {
+                        IValue valueNbt = cursor.next();
                         if (value.getRawValue().getValueType() != ValueTypes.INTEGER) {
                             L10NHelpers.UnlocalizedString error = new L10NHelpers.UnlocalizedString(
                                     L10NValues.OPERATOR_ERROR_WRONGTYPE,
@@ -2534,7 +2709,9 @@ public final class Operators {
                     ValueTypeList.ValueList<?, ?> value = input.getRight().getValue(0);
                     NBTTagCompound tag = input.getLeft();
                     NBTTagList list = new NBTTagList();
-                    for (IValue valueNbt : value.getRawValue()) {
+                    IValueTypeListCursor<? extends IValue> cursor = value.getRawValue().cursor();
+                    while (cursor.hasNext()) {
+                        IValue valueNbt = cursor.next();
                         if (value.getRawValue().getValueType() != ValueTypes.INTEGER) {
                             L10NHelpers.UnlocalizedString error = new L10NHelpers.UnlocalizedString(
                                     L10NValues.OPERATOR_ERROR_WRONGTYPE,
@@ -2561,7 +2738,9 @@ public final class Operators {
                     ValueTypeList.ValueList<?, ?> value = input.getRight().getValue(0);
                     NBTTagCompound tag = input.getLeft();
                     NBTTagList list = new NBTTagList();
-                    for (IValue valueNbt : value.getRawValue()) {
+                    IValueTypeListCursor<? extends IValue> cursor = value.getRawValue().cursor();
+                    while (cursor.hasNext()) {
+                        IValue valueNbt = cursor.next();
                         if (value.getRawValue().getValueType() != ValueTypes.LONG) {
                             L10NHelpers.UnlocalizedString error = new L10NHelpers.UnlocalizedString(
                                     L10NValues.OPERATOR_ERROR_WRONGTYPE,
@@ -2590,4 +2769,35 @@ public final class Operators {
      */
     public static final GeneralOperator GENERAL_IDENTITY = REGISTRY.register(new GeneralIdentityOperator("id", "identity"));
 
+    /**
+     * @param value A list value.
+     * @param operatorName The name of the operator that needs all elements of the list.
+     * @return The list.
+     * @throws EvaluationException If the list is infinite.
+     */
+    protected static IValueTypeListProxy<IValueType<IValue>, IValue> getFiniteList(ValueTypeList.ValueList value,
+                                                                                    String operatorName) throws EvaluationException {
+        IValueTypeListProxy<IValueType<IValue>, IValue> list = value.getRawValue();
+        if (list.isInfinite()) {
+            throw new EvaluationException(String.format("The %s operator can not be applied to infinite lists.", operatorName));
+        }
+        return list;
+    }
+
+    /**
+     * @param itemStack The item stack to count, or an empty stack to count all items.
+     * @param listItem An item stack in a list.
+     * @return The number of items in the list stack that match the item stack to count.
+     */
+    protected static int getItemStackListCount(ItemStack itemStack, ItemStack listItem) {
+        if (listItem.isEmpty()) {
+            return 0;
+        }
+        if (!itemStack.isEmpty()
+                && !(itemStack.isItemEqual(listItem) && ItemStack.areItemStackTagsEqual(itemStack, listItem))) {
+            return 0;
+        }
+        return listItem.getCount();
+    }
+
 }
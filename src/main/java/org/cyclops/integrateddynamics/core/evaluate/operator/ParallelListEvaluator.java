@@ -0,0 +1,251 @@
+package org.cyclops.integrateddynamics.core.evaluate.operator;
+
+import com.google.common.collect.Lists;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
+import org.cyclops.integrateddynamics.core.evaluate.ParallelNetworkEvaluation;
+import org.cyclops.integrateddynamics.core.evaluate.expression.EvaluationBudget;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueObjectTypeBase;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeListProxyMaterialized;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluates an operator on the elements of large materialized lists in parallel.
+ *
+ * Lists are split into chunks of a fixed size, independent of the number of available threads,
+ * so that the results are combined in the same order, and are thus the same, as in a sequential evaluation.
+ * Chunks are evaluated in the fork join pool of the current thread,
+ * or in the common pool if the current thread is not part of one.
+ *
+ * Only pure operators are evaluated in parallel, and only on lists of which the elements are plain values.
+ * Pure operators may still read from the world through object values, such as the health of an entity,
+ * so lists of blocks, items, fluids and entities are never evaluated in parallel.
+ * Lists of lists are not evaluated in parallel either, as their elements may be lazy lists
+ * of which the elements would be evaluated on the worker threads.
+ * Each chunk counts its steps in a forked {@link EvaluationBudget}, limited to the remaining steps of the budget
+ * of the current thread, so that a chunk fails as soon as it exceeds them on its own.
+ * The steps of all chunks are added to the budget of the current thread when they are joined,
+ * which fails if they exceed it together.
+ * @author rubensworks
+ */
+public class ParallelListEvaluator {
+
+    /**
+     * The number of list elements that are evaluated by a single task.
+     */
+    public static final int CHUNK_SIZE = 1024;
+
+    /**
+     * Check if the given operator can be applied to the elements of the given list in parallel.
+     * @param operator The operator to apply.
+     * @param list The list.
+     * @return If {@link #evaluateChunks(IOperator, IValueTypeListProxy, IChunkEvaluator)} may be used.
+     * @throws EvaluationException If the list length could not be determined.
+     */
+    public static boolean canEvaluate(IOperator operator, IValueTypeListProxy<?, ?> list) throws EvaluationException {
+        return GeneralConfig.parallelListEvaluationThreshold > 0
+                && operator.isPure()
+                && list instanceof ValueTypeListProxyMaterialized
+                && isPlainValueType(list.getValueType())
+                && list.getLength() >= GeneralConfig.parallelListEvaluationThreshold;
+    }
+
+    /**
+     * Check if values of the given type are fully evaluated and do not refer to the world.
+     * @param valueType The element type of a list.
+     * @return If operators may be applied to values of this type on other threads.
+     */
+    protected static boolean isPlainValueType(IValueType<?> valueType) {
+        return !valueType.isCategory()
+                && valueType != ValueTypes.LIST
+                && !(valueType instanceof ValueObjectTypeBase);
+    }
+
+    /**
+     * Check if the given list can be reduced with the given operator in parallel.
+     * The operator must be associative, and its input and output types must equal the element type of the list.
+     * Reductions of doubles are never done in parallel, as floating point arithmetic is not exactly associative.
+     * @param operator The operator to reduce with.
+     * @param list The list.
+     * @param accumulator The initial value of the reduction.
+     * @return If {@link #reduce(IOperator, IValueTypeListProxy, IValue)} may be used.
+     * @throws EvaluationException If the list length could not be determined.
+     */
+    public static boolean canReduce(IOperator operator, IValueTypeListProxy<?, ?> list, IValue accumulator)
+            throws EvaluationException {
+        return operator.isAssociative()
+                && operator.getRequiredInputLength() == 2
+                && list.getValueType() == accumulator.getType()
+                && accumulator.getType() != ValueTypes.DOUBLE
+                && canEvaluate(operator, list);
+    }
+
+    /**
+     * Evaluate all chunks of the given list in parallel.
+     * @param operator The pure operator that is applied by the chunk evaluator.
+     * @param list The materialized list.
+     * @param chunkEvaluator The evaluator for a single chunk.
+     * @param <R> The result type of a chunk.
+     * @return The results of all chunks, in the order of the list.
+     * @throws EvaluationException If the chunks exceeded the budget of the current thread,
+     *                             or the exception of the first chunk in the list that failed.
+     */
+    public static <R> List<R> evaluateChunks(IOperator operator, IValueTypeListProxy<?, ?> list,
+                                             IChunkEvaluator<R> chunkEvaluator) throws EvaluationException {
+        int length = list.getLength();
+        EvaluationBudget.Owner budgetOwner = EvaluationBudget.getCurrentOwner();
+        long remainingSteps = EvaluationBudget.getRemainingSteps();
+        boolean parallelNetworkEvaluation = ParallelNetworkEvaluation.isActive();
+        List<ChunkTask<R>> tasks = Lists.newArrayListWithCapacity((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        for (int from = 0; from < length; from += CHUNK_SIZE) {
+            tasks.add(new ChunkTask<>(operator, list, from, Math.min(from + CHUNK_SIZE, length),
+                    chunkEvaluator, budgetOwner, remainingSteps, parallelNetworkEvaluation));
+        }
+        if (ForkJoinTask.inForkJoinPool()) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            ForkJoinPool.commonPool().invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+        long steps = 0;
+        for (ChunkTask<R> task : tasks) {
+            steps += task.steps;
+        }
+        EvaluationBudget.steps(steps);
+        List<R> results = Lists.newArrayListWithCapacity(tasks.size());
+        for (ChunkTask<R> task : tasks) {
+            if (task.exception != null) {
+                throw task.exception;
+            }
+            results.add(task.result);
+        }
+        return results;
+    }
+
+    /**
+     * Apply the given operator on all elements of the given list in parallel.
+     * @param operator The pure operator.
+     * @param list The materialized list.
+     * @return The mapped values, in the order of the list.
+     * @throws EvaluationException If the operator failed on one of the elements.
+     */
+    public static List<IValue> map(IOperator operator, IValueTypeListProxy<?, ?> list) throws EvaluationException {
+        List<IValue> values = Lists.newArrayListWithCapacity(list.getLength());
+        for (List<IValue> chunk : evaluateChunks(operator, list, (invoker, chunkList, from, to) -> {
+            List<IValue> mapped = Lists.newArrayListWithCapacity(to - from);
+            for (int i = from; i < to; i++) {
+                mapped.add(invoker.evaluateOrCurry(chunkList.get(i)));
+            }
+            return mapped;
+        })) {
+            values.addAll(chunk);
+        }
+        return values;
+    }
+
+    /**
+     * Reduce the given list with the given associative operator.
+     * Each chunk is reduced in parallel starting from its first element,
+     * after which the accumulator is reduced with the results of the chunks in order.
+     * @param operator The pure and associative operator.
+     * @param list The materialized list.
+     * @param accumulator The initial value of the reduction.
+     * @return The reduced value.
+     * @throws EvaluationException If the operator failed.
+     */
+    public static IValue reduce(IOperator operator, IValueTypeListProxy<?, ?> list, IValue accumulator)
+            throws EvaluationException {
+        OperatorInvoker invoker = new OperatorInvoker(operator);
+        for (IValue chunkResult : evaluateChunks(operator, list, (chunkInvoker, chunkList, from, to) -> {
+            IValue result = chunkList.get(from);
+            for (int i = from + 1; i < to; i++) {
+                result = chunkInvoker.evaluate(result, chunkList.get(i));
+            }
+            return result;
+        })) {
+            accumulator = invoker.evaluate(accumulator, chunkResult);
+        }
+        return accumulator;
+    }
+
+    /**
+     * Evaluates a chunk of a list.
+     * @param <R> The result type.
+     */
+    public static interface IChunkEvaluator<R> {
+
+        /**
+         * Evaluate the given range of the list.
+         * @param invoker An invoker of the operator that is only used for this chunk.
+         * @param list The list.
+         * @param from The first index of the chunk, inclusive.
+         * @param to The last index of the chunk, exclusive.
+         * @return The result of the chunk.
+         * @throws EvaluationException If evaluation failed.
+         */
+        public R evaluate(OperatorInvoker invoker, IValueTypeListProxy<?, ?> list, int from, int to)
+                throws EvaluationException;
+
+    }
+
+    protected static class ChunkTask<R> extends RecursiveAction {
+
+        private final IOperator operator;
+        private final IValueTypeListProxy<?, ?> list;
+        private final int from;
+        private final int to;
+        private final IChunkEvaluator<R> chunkEvaluator;
+        private final EvaluationBudget.Owner budgetOwner;
+        private final long budgetLimit;
+        private final boolean parallelNetworkEvaluation;
+        private R result = null;
+        private EvaluationException exception = null;
+        private long steps = 0;
+
+        public ChunkTask(IOperator operator, IValueTypeListProxy<?, ?> list, int from, int to,
+                         IChunkEvaluator<R> chunkEvaluator, EvaluationBudget.Owner budgetOwner, long budgetLimit,
+                         boolean parallelNetworkEvaluation) {
+            this.operator = operator;
+            this.list = list;
+            this.from = from;
+            this.to = to;
+            this.chunkEvaluator = chunkEvaluator;
+            this.budgetOwner = budgetOwner;
+            this.budgetLimit = budgetLimit;
+            this.parallelNetworkEvaluation = parallelNetworkEvaluation;
+        }
+
+        @Override
+        protected void compute() {
+            // This thread may be evaluating another network, which must not be charged for this chunk.
+            EvaluationBudget suspended = EvaluationBudget.suspend();
+            EvaluationBudget budget = EvaluationBudget.beginForked(budgetOwner, budgetLimit);
+            // The world may not be read by chunks of an evaluation that may not read the world itself.
+            boolean wasParallelNetworkEvaluation = ParallelNetworkEvaluation.setActive(parallelNetworkEvaluation);
+            try {
+                // The invoker is created within the forked budget, so that its invocations are counted there.
+                result = chunkEvaluator.evaluate(new OperatorInvoker(operator), list, from, to);
+            } catch (EvaluationException e) {
+                exception = e;
+            } finally {
+                ParallelNetworkEvaluation.setActive(wasParallelNetworkEvaluation);
+                steps = budget.end();
+                EvaluationBudget.resume(suspended);
+            }
+        }
+    }
+
+}
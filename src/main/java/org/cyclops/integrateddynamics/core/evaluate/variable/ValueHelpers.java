@@ -73,6 +73,78 @@ public class ValueHelpers {
         return v1 == null && v2 == null || (!(v1 == null || v2 == null) && v1.equals(v2));
     }
 
+    /**
+     * Compare two values by their natural order.
+     * Numbers of different types are compared by their numerical value, strings are compared lexicographically
+     * and false comes before true.
+     * @param v1 Value one
+     * @param v2 Value two
+     * @return A negative number, zero or a positive number if value one is smaller than, equal to or greater than value two.
+     * @throws EvaluationException If the values can not be compared to each other.
+     */
+    public static int compare(IValue v1, IValue v2) throws EvaluationException {
+        if (v1 instanceof ValueTypeInteger.ValueInteger && v2 instanceof ValueTypeInteger.ValueInteger) {
+            return Integer.compare(((ValueTypeInteger.ValueInteger) v1).getRawValue(), ((ValueTypeInteger.ValueInteger) v2).getRawValue());
+        }
+        if (isIntegral(v1) && isIntegral(v2)) {
+            return Long.compare(getLong(v1), getLong(v2));
+        }
+        if (v1 instanceof ValueTypeDouble.ValueDouble && v2 instanceof ValueTypeDouble.ValueDouble) {
+            return compareDoubles(((ValueTypeDouble.ValueDouble) v1).getRawValue(), ((ValueTypeDouble.ValueDouble) v2).getRawValue());
+        }
+        if (isIntegral(v1) && v2 instanceof ValueTypeDouble.ValueDouble) {
+            return compareLongDouble(getLong(v1), ((ValueTypeDouble.ValueDouble) v2).getRawValue());
+        }
+        if (v1 instanceof ValueTypeDouble.ValueDouble && isIntegral(v2)) {
+            return -compareLongDouble(getLong(v2), ((ValueTypeDouble.ValueDouble) v1).getRawValue());
+        }
+        if (v1 instanceof ValueTypeString.ValueString && v2 instanceof ValueTypeString.ValueString) {
+            return ((ValueTypeString.ValueString) v1).getRawValue().compareTo(((ValueTypeString.ValueString) v2).getRawValue());
+        }
+        if (v1 instanceof ValueTypeBoolean.ValueBoolean && v2 instanceof ValueTypeBoolean.ValueBoolean) {
+            return Boolean.compare(((ValueTypeBoolean.ValueBoolean) v1).getRawValue(), ((ValueTypeBoolean.ValueBoolean) v2).getRawValue());
+        }
+        throw new EvaluationException(String.format("Values of type %s and %s can not be compared.",
+                v1.getType().getTypeName(), v2.getType().getTypeName()));
+    }
+
+    private static boolean isIntegral(IValue value) {
+        return value instanceof ValueTypeInteger.ValueInteger || value instanceof ValueTypeLong.ValueLong;
+    }
+
+    private static long getLong(IValue value) {
+        return value instanceof ValueTypeInteger.ValueInteger
+                ? ((ValueTypeInteger.ValueInteger) value).getRawValue() : ((ValueTypeLong.ValueLong) value).getRawValue();
+    }
+
+    /**
+     * Compare two doubles, in which negative zero is equal to zero, as it is for longs,
+     * and NaN is greater than all other numbers.
+     */
+    private static int compareDoubles(double d1, double d2) {
+        return Double.compare(d1 + 0.0D, d2 + 0.0D);
+    }
+
+    /**
+     * Compare a long to a double exactly.
+     * Converting the long to a double would round large longs,
+     * so that longs that differ from each other could both be equal to the same double.
+     */
+    private static int compareLongDouble(long l, double d) {
+        if (Double.isNaN(d) || d >= 0x1p63) {
+            return -1;
+        }
+        if (d < -0x1p63) {
+            return 1;
+        }
+        // The double is within the range of longs, so its integral part can be compared as a long.
+        long integral = (long) d;
+        if (l != integral) {
+            return Long.compare(l, integral);
+        }
+        return -Double.compare(d - integral + 0.0D, 0.0D);
+    }
+
     /**
      * Bidirectional checking of correspondence.
      * @param t1 First type.
@@ -110,7 +182,7 @@ public class ValueHelpers {
         if (operator.getRequiredInputLength() == variables.length) {
             return operator.evaluate(variables);
         } else {
-            return ValueTypeOperator.ValueOperator.of(new CurriedOperator(operator, variables));
+            return ValueTypeOperator.ValueOperator.of(CurriedOperator.curry(operator, variables));
         }
     }
 
@@ -17,6 +17,7 @@ import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeNamed;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeNullable;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeUniquelyNamed;
+import org.cyclops.integrateddynamics.core.evaluate.ParallelNetworkEvaluation;
 import org.cyclops.integrateddynamics.core.logicprogrammer.ValueTypeLPElementBase;
 
 import javax.annotation.Nullable;
@@ -146,6 +147,7 @@ public class ValueObjectTypeEntity extends ValueObjectTypeBase<ValueObjectTypeEn
         public Optional<Entity> getRawValue() {
             Optional<UUID> uuid = getUuid();
             if (uuid.isPresent()) {
+                ParallelNetworkEvaluation.checkWorldRead();
                 if (MinecraftHelpers.isClientSide()) {
                     for (Entity entity : FMLClientHandler.instance().getWorldClient().getLoadedEntityList()) {
                         if (entity.getUniqueID().equals(uuid.get())) {
@@ -72,7 +72,49 @@ public class ValueTypeCategoryNumber extends ValueTypeCategoryBase<IValue> {
         return ((IValueTypeNumber) valueType);
     }
 
+    /**
+     * Get the primitive kind of two variables if they both have the same primitive number type,
+     * so that operations on them can be done directly on their raw values,
+     * without determining their lowest type and casting their values.
+     * @param a The first variable.
+     * @param b The second variable.
+     * @return The shared primitive kind.
+     */
+    protected static PrimitiveKind getPrimitiveKind(IVariable a, IVariable b) {
+        IValueType type = a.getType();
+        if (type != b.getType()) {
+            return PrimitiveKind.NONE;
+        } else if (type == ValueTypes.INTEGER) {
+            return PrimitiveKind.INTEGER;
+        } else if (type == ValueTypes.LONG) {
+            return PrimitiveKind.LONG;
+        } else if (type == ValueTypes.DOUBLE) {
+            return PrimitiveKind.DOUBLE;
+        }
+        return PrimitiveKind.NONE;
+    }
+
+    protected static int getInt(IVariable v) throws EvaluationException {
+        return ((ValueTypeInteger.ValueInteger) v.getValue()).getRawValue();
+    }
+
+    protected static long getLong(IVariable v) throws EvaluationException {
+        return ((ValueTypeLong.ValueLong) v.getValue()).getRawValue();
+    }
+
+    protected static double getDouble(IVariable v) throws EvaluationException {
+        return ((ValueTypeDouble.ValueDouble) v.getValue()).getRawValue();
+    }
+
     public IValue add(IVariable a, IVariable b) throws EvaluationException {
+        switch (getPrimitiveKind(a, b)) {
+            case INTEGER:
+                return ValueTypeInteger.ValueInteger.of(getInt(a) + getInt(b));
+            case LONG:
+                return ValueTypeLong.ValueLong.of(getLong(a) + getLong(b));
+            case DOUBLE:
+                return ValueTypeDouble.ValueDouble.of(getDouble(a) + getDouble(b));
+        }
         IValueTypeNumber type = getLowestType(getType(a), getType(b));
         IValue av = castValue(type, a.getValue());
         if (type.isZero(av)) { // If a is neutral element for addition
@@ -88,6 +130,14 @@ public class ValueTypeCategoryNumber extends ValueTypeCategoryBase<IValue> {
     }
 
     public IValue subtract(IVariable a, IVariable b) throws EvaluationException {
+        switch (getPrimitiveKind(a, b)) {
+            case INTEGER:
+                return ValueTypeInteger.ValueInteger.of(getInt(a) - getInt(b));
+            case LONG:
+                return ValueTypeLong.ValueLong.of(getLong(a) - getLong(b));
+            case DOUBLE:
+                return ValueTypeDouble.ValueDouble.of(getDouble(a) - getDouble(b));
+        }
         IValueTypeNumber type = getLowestType(getType(a), getType(b));
         IValue bv = castValue(type, b.getValue());
         if (type.isZero(bv)) { // If b is neutral element for subtraction
@@ -99,6 +149,21 @@ public class ValueTypeCategoryNumber extends ValueTypeCategoryBase<IValue> {
     }
 
     public IValue multiply(IVariable a, IVariable b) throws EvaluationException {
+        // b is not evaluated if a is the absorbtion element for multiplication
+        switch (getPrimitiveKind(a, b)) {
+            case INTEGER: {
+                int av = getInt(a);
+                return av == 0 ? a.getValue() : ValueTypeInteger.ValueInteger.of(av * getInt(b));
+            }
+            case LONG: {
+                long av = getLong(a);
+                return av == 0L ? a.getValue() : ValueTypeLong.ValueLong.of(av * getLong(b));
+            }
+            case DOUBLE: {
+                double av = getDouble(a);
+                return av == 0D ? a.getValue() : ValueTypeDouble.ValueDouble.of(av * getDouble(b));
+            }
+        }
         IValueTypeNumber type = getLowestType(getType(a), getType(b));
         IValue av = castValue(type, a.getValue());
         if (type.isZero(av)) { // If a is absorbtion element for multiplication
@@ -116,6 +181,29 @@ public class ValueTypeCategoryNumber extends ValueTypeCategoryBase<IValue> {
     }
 
     public IValue divide(IVariable a, IVariable b) throws EvaluationException {
+        switch (getPrimitiveKind(a, b)) {
+            case INTEGER: {
+                int bv = getInt(b);
+                if (bv == 0) {
+                    throw new EvaluationException("Division by zero");
+                }
+                return ValueTypeInteger.ValueInteger.of(getInt(a) / bv);
+            }
+            case LONG: {
+                long bv = getLong(b);
+                if (bv == 0L) {
+                    throw new EvaluationException("Division by zero");
+                }
+                return ValueTypeLong.ValueLong.of(getLong(a) / bv);
+            }
+            case DOUBLE: {
+                double bv = getDouble(b);
+                if (bv == 0D) {
+                    throw new EvaluationException("Division by zero");
+                }
+                return ValueTypeDouble.ValueDouble.of(getDouble(a) / bv);
+            }
+        }
         IValueTypeNumber type = getLowestType(getType(a), getType(b));
         IValue bv = castValue(type, b.getValue());
         if (type.isZero(bv)) { // You can not divide by zero
@@ -129,6 +217,14 @@ public class ValueTypeCategoryNumber extends ValueTypeCategoryBase<IValue> {
     }
 
     public IValue max(IVariable a, IVariable b) throws EvaluationException {
+        switch (getPrimitiveKind(a, b)) {
+            case INTEGER:
+                return ValueTypeInteger.ValueInteger.of(Math.max(getInt(a), getInt(b)));
+            case LONG:
+                return ValueTypeLong.ValueLong.of(Math.max(getLong(a), getLong(b)));
+            case DOUBLE:
+                return ValueTypeDouble.ValueDouble.of(Math.max(getDouble(a), getDouble(b)));
+        }
         IValueTypeNumber type = getLowestType(getType(a), getType(b));
         return type.max(
                 castValue(type, a.getValue()),
@@ -137,6 +233,14 @@ public class ValueTypeCategoryNumber extends ValueTypeCategoryBase<IValue> {
     }
 
     public IValue min(IVariable a, IVariable b) throws EvaluationException {
+        switch (getPrimitiveKind(a, b)) {
+            case INTEGER:
+                return ValueTypeInteger.ValueInteger.of(Math.min(getInt(a), getInt(b)));
+            case LONG:
+                return ValueTypeLong.ValueLong.of(Math.min(getLong(a), getLong(b)));
+            case DOUBLE:
+                return ValueTypeDouble.ValueDouble.of(Math.min(getDouble(a), getDouble(b)));
+        }
         IValueTypeNumber type = getLowestType(getType(a), getType(b));
         return type.min(
                 castValue(type, a.getValue()),
@@ -145,6 +249,14 @@ public class ValueTypeCategoryNumber extends ValueTypeCategoryBase<IValue> {
     }
 
     public boolean greaterThan(IVariable a, IVariable b) throws EvaluationException {
+        switch (getPrimitiveKind(a, b)) {
+            case INTEGER:
+                return getInt(a) > getInt(b);
+            case LONG:
+                return getLong(a) > getLong(b);
+            case DOUBLE:
+                return getDouble(a) > getDouble(b);
+        }
         IValueTypeNumber type = getLowestType(getType(a), getType(b));
         return type.greaterThan(
                 castValue(type, a.getValue()),
@@ -153,6 +265,14 @@ public class ValueTypeCategoryNumber extends ValueTypeCategoryBase<IValue> {
     }
 
     public boolean lessThan(IVariable a, IVariable b) throws EvaluationException {
+        switch (getPrimitiveKind(a, b)) {
+            case INTEGER:
+                return getInt(a) < getInt(b);
+            case LONG:
+                return getLong(a) < getLong(b);
+            case DOUBLE:
+                return getDouble(a) < getDouble(b);
+        }
         IValueTypeNumber type = getLowestType(getType(a), getType(b));
         return type.lessThan(
                 castValue(type, a.getValue()),
@@ -175,4 +295,11 @@ public class ValueTypeCategoryNumber extends ValueTypeCategoryBase<IValue> {
         return type.floor(castValue(type, a.getValue()));
     }
 
+    protected static enum PrimitiveKind {
+        NONE,
+        INTEGER,
+        LONG,
+        DOUBLE
+    }
+
 }
@@ -109,6 +109,14 @@ public class ValueTypeInteger extends ValueTypeBase<ValueTypeInteger.ValueIntege
     @ToString
     public static class ValueInteger extends ValueBase {
 
+        /**
+         * Small values are interned, as these are very common, such as for counters and comparisons.
+         * The cache is filled lazily, values are immutable so concurrent filling is harmless.
+         */
+        private static final int CACHE_LOW = -128;
+        private static final int CACHE_HIGH = 1024;
+        private static final ValueInteger[] CACHE = new ValueInteger[CACHE_HIGH - CACHE_LOW + 1];
+
         private final int value;
 
         private ValueInteger(int value) {
@@ -117,6 +125,15 @@ public class ValueTypeInteger extends ValueTypeBase<ValueTypeInteger.ValueIntege
         }
 
         public static ValueInteger of(int value) {
+            if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+                int index = value - CACHE_LOW;
+                ValueInteger cached = CACHE[index];
+                if (cached == null) {
+                    cached = new ValueInteger(value);
+                    CACHE[index] = cached;
+                }
+                return cached;
+            }
             return new ValueInteger(value);
         }
 
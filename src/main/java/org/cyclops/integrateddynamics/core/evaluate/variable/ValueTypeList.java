@@ -13,6 +13,7 @@ import org.cyclops.integrateddynamics.api.advancement.criterion.ValuePredicate;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxyFactoryTypeRegistry;
 import org.cyclops.integrateddynamics.core.logicprogrammer.ValueTypeLPElementBase;
@@ -80,7 +81,17 @@ public class ValueTypeList extends ValueObjectTypeBase<ValueTypeList.ValueList>
         if (list.isInfinite()) {
             return ValueList.ofList(list.getValueType(), Lists.newArrayList(list.get(0)));
         }
-        List<IValue> values = ImmutableList.copyOf(list);
+        List<IValue> values;
+        if (list instanceof ValueTypeListProxyOperatorMapped) {
+            values = ((ValueTypeListProxyOperatorMapped) list).materialize();
+        } else {
+            ImmutableList.Builder<IValue> builder = ImmutableList.builder();
+            IValueTypeListCursor<IValue> cursor = list.cursor();
+            while (cursor.hasNext()) {
+                builder.add(cursor.next());
+            }
+            values = builder.build();
+        }
         return ValueList.ofList(list.getValueType(), values);
     }
 
@@ -140,16 +151,23 @@ public class ValueTypeList extends ValueObjectTypeBase<ValueTypeList.ValueList>
     public static class ListFactoryIterator<T extends IValueType<V>, V extends IValue> implements Iterator<V> {
 
         private final IValueTypeListProxy<T, V> value;
-        private int index = 0;
+        private IValueTypeListCursor<V> cursor = null;
 
         public ListFactoryIterator(IValueTypeListProxy<T, V> value) {
             this.value = value;
         }
 
+        protected IValueTypeListCursor<V> getCursor() throws EvaluationException {
+            if (cursor == null) {
+                cursor = value.cursor();
+            }
+            return cursor;
+        }
+
         @Override
         public boolean hasNext() {
             try {
-                return index < value.getLength();
+                return getCursor().hasNext();
             } catch (EvaluationException e) {
                 return false;
             }
@@ -158,7 +176,7 @@ public class ValueTypeList extends ValueObjectTypeBase<ValueTypeList.ValueList>
         @Override
         public V next() {
             try {
-                return value.get(index++);
+                return getCursor().next();
             } catch (EvaluationException e) {
                 e.printStackTrace();
                 return value.getValueType().getDefault();
@@ -4,11 +4,14 @@ import net.minecraft.nbt.NBTTagCompound;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxyFactoryTypeRegistry;
 
 /**
  * An appended list.
+ * Values are appended with {@link ValueTypeListProxyConcat#append(IValueTypeListProxy, IValue)} instead,
+ * this is kept to read lists that were appended to in older versions.
  * @param <T> The value type type.
  * @param <V> The value type.
  */
@@ -39,6 +42,28 @@ public class ValueTypeListProxyAppend<T extends IValueType<V>, V extends IValue>
         return null;
     }
 
+    @Override
+    public IValueTypeListCursor<V> cursor() throws EvaluationException {
+        IValueTypeListCursor<V> cursor = list.cursor();
+        return new IValueTypeListCursor<V>() {
+            private boolean appended = false;
+
+            @Override
+            public boolean hasNext() {
+                return !appended;
+            }
+
+            @Override
+            public V next() throws EvaluationException {
+                if (cursor.hasNext()) {
+                    return cursor.next();
+                }
+                appended = true;
+                return value;
+            }
+        };
+    }
+
     public static class Factory extends ValueTypeListProxyNBTFactorySimple<IValueType<IValue>, IValue, ValueTypeListProxyAppend<IValueType<IValue>, IValue>> {
 
         @Override
@@ -7,42 +7,182 @@ import org.cyclops.cyclopscore.helper.MinecraftHelpers;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxyFactoryTypeRegistry;
 
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+
 /**
  * A concatenated list.
+ *
+ * Concatenations are stored as a balanced binary tree of the concatenated lists,
+ * so that an element can be found in a logarithmic number of steps
+ * and lists that are built by repeated concatenation or appending do not grow deeper than needed.
+ * Concatenating does not copy any elements, the concatenated lists are shared with the new list.
+ * The lengths of subtrees that only consist of materialized lists are cached,
+ * lists that may change, such as inventories, are always asked for their length.
  * @param <T> The value type type.
  * @param <V> The value type.
  */
 public class ValueTypeListProxyConcat<T extends IValueType<V>, V extends IValue> extends ValueTypeListProxyBase<T, V> {
 
-    private final IValueTypeListProxy<T, V>[] lists;
+    private final IValueTypeListProxy<T, V> left;
+    private final IValueTypeListProxy<T, V> right;
+    private final int depth;
+    private final boolean fixedLength;
+    private int length = -1;
+
+    protected ValueTypeListProxyConcat(IValueTypeListProxy<T, V> left, IValueTypeListProxy<T, V> right) {
+        super(ValueTypeListProxyFactories.CONCAT.getName(), left.getValueType());
+        this.left = left;
+        this.right = right;
+        this.depth = Math.max(getDepth(left), getDepth(right)) + 1;
+        this.fixedLength = hasFixedLength(left) && hasFixedLength(right);
+    }
+
+    /**
+     * Concatenate two lists.
+     * @param left The first list.
+     * @param right The second list.
+     * @param <T> The value type type.
+     * @param <V> The value type.
+     * @return The concatenated list.
+     */
+    public static <T extends IValueType<V>, V extends IValue> ValueTypeListProxyConcat<T, V> concat(
+            IValueTypeListProxy<T, V> left, IValueTypeListProxy<T, V> right) {
+        int leftDepth = getDepth(left);
+        int rightDepth = getDepth(right);
+        if (leftDepth > rightDepth + 1) {
+            ValueTypeListProxyConcat<T, V> leftConcat = (ValueTypeListProxyConcat<T, V>) left;
+            return balance(leftConcat.left, concat(leftConcat.right, right));
+        } else if (rightDepth > leftDepth + 1) {
+            ValueTypeListProxyConcat<T, V> rightConcat = (ValueTypeListProxyConcat<T, V>) right;
+            return balance(concat(left, rightConcat.left), rightConcat.right);
+        }
+        return new ValueTypeListProxyConcat<>(left, right);
+    }
+
+    /**
+     * Append a value to a list.
+     * @param list The list.
+     * @param value The value to append.
+     * @param <T> The value type type.
+     * @param <V> The value type.
+     * @return The list with the value appended.
+     */
+    public static <T extends IValueType<V>, V extends IValue> ValueTypeListProxyConcat<T, V> append(
+            IValueTypeListProxy<T, V> list, V value) {
+        return concat(list, new ValueTypeListProxyMaterialized<>(list.getValueType(), Collections.singletonList(value)));
+    }
 
-    public ValueTypeListProxyConcat(IValueTypeListProxy<T, V>... lists) {
-        super(ValueTypeListProxyFactories.CONCAT.getName(), lists[0].getValueType());
-        this.lists = lists;
+    /**
+     * Combine two lists of which the depths differ by at most two into a balanced tree.
+     */
+    protected static <T extends IValueType<V>, V extends IValue> ValueTypeListProxyConcat<T, V> balance(
+            IValueTypeListProxy<T, V> left, IValueTypeListProxy<T, V> right) {
+        int leftDepth = getDepth(left);
+        int rightDepth = getDepth(right);
+        if (leftDepth > rightDepth + 1) {
+            ValueTypeListProxyConcat<T, V> leftConcat = (ValueTypeListProxyConcat<T, V>) left;
+            if (getDepth(leftConcat.left) >= getDepth(leftConcat.right)) {
+                return new ValueTypeListProxyConcat<>(leftConcat.left,
+                        new ValueTypeListProxyConcat<>(leftConcat.right, right));
+            }
+            ValueTypeListProxyConcat<T, V> middle = (ValueTypeListProxyConcat<T, V>) leftConcat.right;
+            return new ValueTypeListProxyConcat<>(new ValueTypeListProxyConcat<>(leftConcat.left, middle.left),
+                    new ValueTypeListProxyConcat<>(middle.right, right));
+        } else if (rightDepth > leftDepth + 1) {
+            ValueTypeListProxyConcat<T, V> rightConcat = (ValueTypeListProxyConcat<T, V>) right;
+            if (getDepth(rightConcat.right) >= getDepth(rightConcat.left)) {
+                return new ValueTypeListProxyConcat<>(new ValueTypeListProxyConcat<>(left, rightConcat.left),
+                        rightConcat.right);
+            }
+            ValueTypeListProxyConcat<T, V> middle = (ValueTypeListProxyConcat<T, V>) rightConcat.left;
+            return new ValueTypeListProxyConcat<>(new ValueTypeListProxyConcat<>(left, middle.left),
+                    new ValueTypeListProxyConcat<>(middle.right, rightConcat.right));
+        }
+        return new ValueTypeListProxyConcat<>(left, right);
+    }
+
+    protected static int getDepth(IValueTypeListProxy<?, ?> list) {
+        return list instanceof ValueTypeListProxyConcat ? ((ValueTypeListProxyConcat) list).depth : 0;
+    }
+
+    protected static boolean hasFixedLength(IValueTypeListProxy<?, ?> list) {
+        return list instanceof ValueTypeListProxyMaterialized
+                || (list instanceof ValueTypeListProxyConcat && ((ValueTypeListProxyConcat) list).fixedLength);
+    }
+
+    /**
+     * @return The depth of this tree of concatenations.
+     */
+    public int getDepth() {
+        return depth;
     }
 
     @Override
     public int getLength() throws EvaluationException {
-        int length = 0;
-        for (IValueTypeListProxy<T, V> list : lists) {
-            length += list.getLength();
+        if (!fixedLength) {
+            return left.getLength() + right.getLength();
+        }
+        // Lengths are immutable here, so concurrent readers at most calculate them twice.
+        if (length < 0) {
+            length = left.getLength() + right.getLength();
         }
         return length;
     }
 
     @Override
     public V get(int index) throws EvaluationException {
-        for (IValueTypeListProxy<T, V> list : lists) {
-            int currentLength = list.getLength();
-            if (index < currentLength) {
-                return list.get(index);
+        if (index < 0 || index >= getLength()) {
+            return null;
+        }
+        IValueTypeListProxy<T, V> list = this;
+        while (list instanceof ValueTypeListProxyConcat) {
+            ValueTypeListProxyConcat<T, V> concat = (ValueTypeListProxyConcat<T, V>) list;
+            int leftLength = concat.left.getLength();
+            if (index < leftLength) {
+                list = concat.left;
+            } else {
+                index -= leftLength;
+                list = concat.right;
             }
-            index -= currentLength;
         }
-        return null;
+        return list.get(index);
+    }
+
+    @Override
+    public IValueTypeListCursor<V> cursor() {
+        Deque<IValueTypeListProxy<T, V>> pending = new ArrayDeque<>(depth + 1);
+        pending.push(this);
+        return new IValueTypeListCursor<V>() {
+            private IValueTypeListCursor<V> cursor = null;
+
+            @Override
+            public boolean hasNext() throws EvaluationException {
+                while (cursor == null || !cursor.hasNext()) {
+                    if (pending.isEmpty()) {
+                        return false;
+                    }
+                    IValueTypeListProxy<T, V> list = pending.pop();
+                    while (list instanceof ValueTypeListProxyConcat) {
+                        pending.push(((ValueTypeListProxyConcat<T, V>) list).right);
+                        list = ((ValueTypeListProxyConcat<T, V>) list).left;
+                    }
+                    cursor = list.cursor();
+                }
+                return true;
+            }
+
+            @Override
+            public V next() throws EvaluationException {
+                hasNext();
+                return cursor.next();
+            }
+        };
     }
 
     public static class Factory extends ValueTypeListProxyNBTFactorySimple<IValueType<IValue>, IValue, ValueTypeListProxyConcat<IValueType<IValue>, IValue>> {
@@ -54,9 +194,19 @@ public class ValueTypeListProxyConcat<T extends IValueType<V>, V extends IValue>
 
         @Override
         protected void serializeNbt(ValueTypeListProxyConcat<IValueType<IValue>, IValue> value, NBTTagCompound tag) throws IValueTypeListProxyFactoryTypeRegistry.SerializationException {
+            // Only the leaves of the tree are serialized, all at the same level,
+            // as each nested level would escape the serialized sublists again.
             NBTTagList list = new NBTTagList();
-            for (IValueTypeListProxy<IValueType<IValue>, IValue> listProxy : value.lists) {
-                list.appendTag(new NBTTagString(ValueTypeListProxyFactories.REGISTRY.serialize(listProxy)));
+            Deque<IValueTypeListProxy<IValueType<IValue>, IValue>> pending = new ArrayDeque<>(value.depth + 1);
+            pending.push(value);
+            while (!pending.isEmpty()) {
+                IValueTypeListProxy<IValueType<IValue>, IValue> sublist = pending.pop();
+                if (sublist instanceof ValueTypeListProxyConcat) {
+                    pending.push(((ValueTypeListProxyConcat<IValueType<IValue>, IValue>) sublist).right);
+                    pending.push(((ValueTypeListProxyConcat<IValueType<IValue>, IValue>) sublist).left);
+                } else {
+                    list.appendTag(new NBTTagString(ValueTypeListProxyFactories.REGISTRY.serialize(sublist)));
+                }
             }
             tag.setTag("sublists", list);
         }
@@ -64,11 +214,16 @@ public class ValueTypeListProxyConcat<T extends IValueType<V>, V extends IValue>
         @Override
         protected ValueTypeListProxyConcat<IValueType<IValue>, IValue> deserializeNbt(NBTTagCompound tag) throws IValueTypeListProxyFactoryTypeRegistry.SerializationException {
             NBTTagList list = tag.getTagList("sublists", MinecraftHelpers.NBTTag_Types.NBTTagString.ordinal());
-            IValueTypeListProxy<IValueType<IValue>, IValue>[] listProxies = new IValueTypeListProxy[list.tagCount()];
-            for (int i = 0; i < list.tagCount(); i++) {
-                listProxies[i] = ValueTypeListProxyFactories.REGISTRY.deserialize(list.getStringTagAt(i));
+            if (list.tagCount() < 2) {
+                throw new IValueTypeListProxyFactoryTypeRegistry.SerializationException(
+                        String.format("A concatenated list must have at least two sublists, got %s.", list.tagCount()));
+            }
+            // The sublists are concatenated again, which rebuilds a balanced tree.
+            IValueTypeListProxy<IValueType<IValue>, IValue> result = ValueTypeListProxyFactories.REGISTRY.deserialize(list.getStringTagAt(0));
+            for (int i = 1; i < list.tagCount(); i++) {
+                result = concat(result, ValueTypeListProxyFactories.REGISTRY.deserialize(list.getStringTagAt(i)));
             }
-            return new ValueTypeListProxyConcat<>(listProxies);
+            return (ValueTypeListProxyConcat<IValueType<IValue>, IValue>) result;
         }
     }
 }
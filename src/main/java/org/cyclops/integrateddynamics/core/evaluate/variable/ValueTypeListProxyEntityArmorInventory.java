@@ -6,6 +6,7 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.world.World;
 import org.cyclops.cyclopscore.persist.nbt.INBTProvider;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 
 /**
  * A list proxy for the inventory of an entity.
@@ -37,6 +38,24 @@ public class ValueTypeListProxyEntityArmorInventory extends ValueTypeListProxyEn
         return ValueObjectTypeItemStack.ValueItemStack.of(getInventory()[index]);
     }
 
+    @Override
+    public IValueTypeListCursor<ValueObjectTypeItemStack.ValueItemStack> cursor() {
+        ItemStack[] inventory = getInventory();
+        return new IValueTypeListCursor<ValueObjectTypeItemStack.ValueItemStack>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < inventory.length;
+            }
+
+            @Override
+            public ValueObjectTypeItemStack.ValueItemStack next() {
+                return ValueObjectTypeItemStack.ValueItemStack.of(inventory[index++]);
+            }
+        };
+    }
+
     @Override
     public void writeGeneratedFieldsToNBT(NBTTagCompound tag) {
 
@@ -7,6 +7,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.NonNullList;
 import net.minecraft.world.World;
 import org.cyclops.cyclopscore.persist.nbt.INBTProvider;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 
 /**
  * A list proxy for the inventory of an entity.
@@ -35,6 +36,24 @@ public class ValueTypeListProxyEntityInventory extends ValueTypeListProxyEntityB
         return ValueObjectTypeItemStack.ValueItemStack.of(getInventory().get(index));
     }
 
+    @Override
+    public IValueTypeListCursor<ValueObjectTypeItemStack.ValueItemStack> cursor() {
+        NonNullList<ItemStack> inventory = getInventory();
+        return new IValueTypeListCursor<ValueObjectTypeItemStack.ValueItemStack>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < inventory.size();
+            }
+
+            @Override
+            public ValueObjectTypeItemStack.ValueItemStack next() {
+                return ValueObjectTypeItemStack.ValueItemStack.of(inventory.get(index++));
+            }
+        };
+    }
+
     @Override
     public void writeGeneratedFieldsToNBT(NBTTagCompound tag) {
 
@@ -1,34 +1,50 @@
 package org.cyclops.integrateddynamics.core.evaluate.variable;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
 import net.minecraft.nbt.NBTTagCompound;
+import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxyFactoryTypeRegistry;
-import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.core.evaluate.operator.OperatorInvoker;
 import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
 
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 /**
  * A list that is built lazily from a start value and an operator.
+ *
+ * Elements are calculated iteratively from the closest earlier element that is remembered.
+ * Every so many elements are remembered as checkpoints, and the last calculated element is remembered as well,
+ * so that reading the elements in order only applies the operator once per element.
+ * When the maximum number of checkpoints is reached, every other checkpoint is forgotten
+ * and the distance between checkpoints is doubled, which bounds the memory of this list.
  * @param <T> The value type type.
  * @param <V> The value type.
  */
 public class ValueTypeListProxyLazyBuilt<T extends IValueType<V>, V extends IValue> extends ValueTypeListProxyBase<T, V> {
 
-    private Cache<Integer, V> cache_values = CacheBuilder.newBuilder().expireAfterAccess(10, TimeUnit.SECONDS).maximumSize(100).build();
-
     private final V value;
     private final IOperator operator;
+    private final OperatorInvoker operatorInvoker;
+    private final int maxCheckpoints;
+    private final List<V> checkpoints = Lists.newArrayList();
+    private int checkpointInterval;
+    private int lastIndex = 0;
+    private V lastValue;
 
     public ValueTypeListProxyLazyBuilt(V value, IOperator operator) {
         super(ValueTypeListProxyFactories.LAZY_BUILT.getName(), (T) value.getType());
         this.value = value;
         this.operator = operator;
+        this.operatorInvoker = new OperatorInvoker(operator);
+        this.maxCheckpoints = Math.max(2, GeneralConfig.lazyBuiltListMaxCheckpoints);
+        this.checkpointInterval = Math.max(1, GeneralConfig.lazyBuiltListCheckpointInterval);
+        this.checkpoints.add(value);
+        this.lastValue = value;
     }
 
     @Override
@@ -37,20 +53,67 @@ public class ValueTypeListProxyLazyBuilt<T extends IValueType<V>, V extends IVal
     }
 
     @Override
-    public V get(int index) throws EvaluationException {
-        if (index == 0) {
-            return value;
+    public synchronized V get(int index) throws EvaluationException {
+        if (index < 0) {
+            return null;
+        }
+        int checkpoint = Math.min(index / checkpointInterval, checkpoints.size() - 1);
+        int currentIndex = checkpoint * checkpointInterval;
+        V current = checkpoints.get(checkpoint);
+        if (lastIndex <= index && lastIndex > currentIndex) {
+            currentIndex = lastIndex;
+            current = lastValue;
         }
-        V current = cache_values.getIfPresent(index);
-        if (current != null) {
-            return current;
+        while (currentIndex < index) {
+            current = getNext(current);
+            currentIndex++;
+            addCheckpoint(currentIndex, current);
         }
-        V previous = get(index - 1);
-        current = (V) operator.evaluate(new IVariable[]{new Variable(previous.getType(), previous)});
-        cache_values.put(index, current);
+        lastIndex = index;
+        lastValue = current;
         return current;
     }
 
+    protected V getNext(V previous) throws EvaluationException {
+        return (V) operatorInvoker.evaluate(previous);
+    }
+
+    protected synchronized void addCheckpoint(int index, V value) {
+        if (index % checkpointInterval == 0 && index / checkpointInterval == checkpoints.size()) {
+            checkpoints.add(value);
+            if (checkpoints.size() > maxCheckpoints) {
+                List<V> remaining = Lists.newArrayListWithCapacity(maxCheckpoints / 2 + 1);
+                for (int i = 0; i < checkpoints.size(); i += 2) {
+                    remaining.add(checkpoints.get(i));
+                }
+                checkpoints.clear();
+                checkpoints.addAll(remaining);
+                checkpointInterval *= 2;
+            }
+        }
+    }
+
+    @Override
+    public IValueTypeListCursor<V> cursor() {
+        return new IValueTypeListCursor<V>() {
+            private int index = 0;
+            private V current = null;
+
+            @Override
+            public boolean hasNext() {
+                return index < Integer.MAX_VALUE;
+            }
+
+            @Override
+            public V next() throws EvaluationException {
+                current = index == 0 ? value : getNext(current);
+                addCheckpoint(index, current);
+                index++;
+                return current;
+            }
+        };
+    }
+
     @Override
     public boolean isInfinite() {
         return true;
@@ -1,23 +1,33 @@
 package org.cyclops.integrateddynamics.core.evaluate.variable;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * A list proxy for a list that is fully materialized already.
+ *
+ * The given list is copied when this proxy is created, unless it is immutable already,
+ * so that views of lists that may still change, such as the players in a world, are read only once.
+ * This allows an index of the elements to be built when the list is first searched,
+ * after which membership queries on the same list instance only require a hash lookup.
  * @param <T> The value type type.
  * @param <V> The value type.
  */
 public class ValueTypeListProxyMaterialized<T extends IValueType<V>, V extends IValue> extends ValueTypeListProxyBase<T, V> {
 
-    private final List<V> list;
+    private final ImmutableList<V> list;
+    private volatile ElementIndex<V> index = null;
 
     public ValueTypeListProxyMaterialized(T valueType, List<V> list) {
         super(ValueTypeListProxyFactories.MATERIALIZED.getName(), valueType);
-        this.list = list;
+        // This also fails early for null elements, instead of when the list is first read.
+        this.list = ImmutableList.copyOf(list);
     }
 
     @Override
@@ -29,4 +39,77 @@ public class ValueTypeListProxyMaterialized<T extends IValueType<V>, V extends I
     public V get(int index) throws EvaluationException {
         return list.get(index);
     }
+
+    protected ElementIndex<V> getIndex() {
+        ElementIndex<V> index = this.index;
+        if (index == null) {
+            // The list is immutable, so concurrent readers at most build the same index twice.
+            index = new ElementIndex<>(list);
+            this.index = index;
+        }
+        return index;
+    }
+
+    /**
+     * @param value A value.
+     * @return If this list contains the given value.
+     */
+    public boolean contains(IValue value) {
+        return getIndex().occurrences.containsKey(value);
+    }
+
+    /**
+     * @param value A value.
+     * @return How many times the given value occurs in this list.
+     */
+    public int getCount(IValue value) {
+        Occurrences occurrences = getIndex().occurrences.get(value);
+        return occurrences == null ? 0 : occurrences.count;
+    }
+
+    /**
+     * @param value A value.
+     * @return The index of the first occurrence of the given value in this list, or -1 if it does not occur.
+     */
+    public int getFirstIndex(IValue value) {
+        Occurrences occurrences = getIndex().occurrences.get(value);
+        return occurrences == null ? -1 : occurrences.firstIndex;
+    }
+
+    /**
+     * @return The distinct values of this list, in the order of their first occurrence.
+     */
+    public ImmutableList<V> getDistinctValues() {
+        return getIndex().distinctValues;
+    }
+
+    protected static class ElementIndex<V extends IValue> {
+
+        private final Map<V, Occurrences> occurrences;
+        private final ImmutableList<V> distinctValues;
+
+        public ElementIndex(List<V> list) {
+            this.occurrences = Maps.newLinkedHashMap();
+            for (int i = 0; i < list.size(); i++) {
+                V value = list.get(i);
+                Occurrences valueOccurrences = occurrences.get(value);
+                if (valueOccurrences == null) {
+                    occurrences.put(value, new Occurrences(i));
+                } else {
+                    valueOccurrences.count++;
+                }
+            }
+            this.distinctValues = ImmutableList.copyOf(occurrences.keySet());
+        }
+    }
+
+    protected static class Occurrences {
+
+        private final int firstIndex;
+        private int count = 1;
+
+        public Occurrences(int firstIndex) {
+            this.firstIndex = firstIndex;
+        }
+    }
 }
@@ -3,13 +3,16 @@ package org.cyclops.integrateddynamics.core.evaluate.variable;
 import com.google.common.collect.ImmutableList;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxyFactoryTypeRegistry;
 
 /**
  * Factory for {@link ValueTypeListProxyMaterialized}.
+ * Other finite list proxies can also be serialized with this factory by their values,
+ * such as {@link ValueTypeListProxyOperatorMapped}, they will be deserialized as a materialized list.
  * @author rubensworks
  */
-public class ValueTypeListProxyMaterializedFactory implements IValueTypeListProxyFactoryTypeRegistry.IProxyFactory<IValueType<IValue>, IValue, ValueTypeListProxyMaterialized<IValueType<IValue>, IValue>> {
+public class ValueTypeListProxyMaterializedFactory implements IValueTypeListProxyFactoryTypeRegistry.IProxyFactory<IValueType<IValue>, IValue, IValueTypeListProxy<IValueType<IValue>, IValue>> {
 
     private static final String ELEMENT_DELIMITER = ";";
     private static final String ELEMENT_DELIMITER_SPLITREGEX = "(?<!\\\\);";
@@ -21,7 +24,7 @@ public class ValueTypeListProxyMaterializedFactory implements IValueTypeListProx
     }
 
     @Override
-    public String serialize(ValueTypeListProxyMaterialized<IValueType<IValue>, IValue> values) throws IValueTypeListProxyFactoryTypeRegistry.SerializationException {
+    public String serialize(IValueTypeListProxy<IValueType<IValue>, IValue> values) throws IValueTypeListProxyFactoryTypeRegistry.SerializationException {
         StringBuilder sb = new StringBuilder();
         IValueType<IValue> valueType = values.getValueType();
         sb.append(valueType.getUnlocalizedName());
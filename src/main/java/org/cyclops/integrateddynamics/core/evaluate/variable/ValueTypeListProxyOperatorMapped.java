@@ -1,33 +1,137 @@
 package org.cyclops.integrateddynamics.core.evaluate.variable;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
+import org.cyclops.integrateddynamics.core.evaluate.operator.OperatorInvoker;
 
 /**
  * A list proxy for a list that is mapped to another list by an operator.
+ *
+ * The operator is applied at most once per index for each instance of this proxy,
+ * so that repeated iterations, such as for hashing, comparing and displaying the list, do not evaluate it again.
+ * For infinite lists, only the {@link #INFINITE_CACHE_SIZE} most recently read values are remembered.
+ * The length of the original list is determined once when it is first needed.
+ * This proxy is serialized as a materialized list.
  */
 public class ValueTypeListProxyOperatorMapped extends ValueTypeListProxyBase<IValueType<IValue>, IValue> {
 
-    private final IOperator operator;
+    /**
+     * The maximum number of mapped values that are remembered for an infinite list.
+     */
+    public static final int INFINITE_CACHE_SIZE = 1024;
+
+    private final OperatorInvoker operator;
     private final IValueTypeListProxy listProxy;
+    private int length = -1;
+    private IValue[] values = null;
+    private Cache<Integer, IValue> infiniteValues = null;
 
     public ValueTypeListProxyOperatorMapped(IOperator operator, IValueTypeListProxy listProxy) {
         super(ValueTypeListProxyFactories.MATERIALIZED.getName(), operator.getOutputType());
-        this.operator = operator;
+        this.operator = new OperatorInvoker(operator);
         this.listProxy = listProxy;
     }
 
     @Override
     public int getLength() throws EvaluationException {
-        return listProxy.getLength();
+        if (length < 0) {
+            length = listProxy.getLength();
+        }
+        return length;
     }
 
     @Override
     public IValue get(int index) throws EvaluationException {
-        IValue value = listProxy.get(index);
-        return ValueHelpers.evaluateOperator(operator, value);
+        if (isInfinite()) {
+            return getInfinite(index);
+        }
+        IValue[] values = getValues();
+        if (index < 0 || index >= values.length) {
+            return operator.evaluateOrCurry(listProxy.get(index));
+        }
+        IValue value = values[index];
+        if (value == null) {
+            value = operator.evaluateOrCurry(listProxy.get(index));
+            values[index] = value;
+        }
+        return value;
+    }
+
+    protected IValue[] getValues() throws EvaluationException {
+        IValue[] values = this.values;
+        if (values == null) {
+            // Values are immutable, so concurrent readers at most evaluate the same index twice.
+            values = new IValue[getLength()];
+            this.values = values;
+        }
+        return values;
+    }
+
+    @Override
+    public IValueTypeListCursor<IValue> cursor() throws EvaluationException {
+        if (isInfinite()) {
+            return new IValueTypeListCursor.Indexed<>(this);
+        }
+        IValue[] values = getValues();
+        IValueTypeListCursor<IValue> cursor = listProxy.cursor();
+        return new IValueTypeListCursor<IValue>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() throws EvaluationException {
+                return index < values.length && cursor.hasNext();
+            }
+
+            @Override
+            public IValue next() throws EvaluationException {
+                IValue original = cursor.next();
+                IValue value = values[index];
+                if (value == null) {
+                    value = operator.evaluateOrCurry(original);
+                    values[index] = value;
+                }
+                index++;
+                return value;
+            }
+        };
+    }
+
+    protected synchronized IValue getInfinite(int index) throws EvaluationException {
+        if (infiniteValues == null) {
+            // Reads are synchronized, so a single segment keeps the eviction order exact.
+            infiniteValues = CacheBuilder.newBuilder().concurrencyLevel(1).maximumSize(INFINITE_CACHE_SIZE).build();
+        }
+        IValue value = infiniteValues.getIfPresent(index);
+        if (value == null) {
+            value = operator.evaluateOrCurry(listProxy.get(index));
+            infiniteValues.put(index, value);
+        }
+        return value;
+    }
+
+    /**
+     * Apply the operator to all elements that have not been mapped yet.
+     * @return All mapped values.
+     * @throws EvaluationException If the operator failed on one of the elements.
+     */
+    public ImmutableList<IValue> materialize() throws EvaluationException {
+        ImmutableList.Builder<IValue> builder = ImmutableList.builder();
+        IValueTypeListCursor<IValue> cursor = cursor();
+        while (cursor.hasNext()) {
+            builder.add(cursor.next());
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean isInfinite() {
+        return listProxy.isInfinite();
     }
 }
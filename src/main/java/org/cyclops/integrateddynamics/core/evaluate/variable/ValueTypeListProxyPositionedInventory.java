@@ -6,8 +6,7 @@ import net.minecraftforge.items.IItemHandler;
 import org.cyclops.cyclopscore.datastructure.DimPos;
 import org.cyclops.cyclopscore.helper.TileHelpers;
 import org.cyclops.cyclopscore.persist.nbt.INBTProvider;
-
-import java.util.Iterator;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 
 /**
  * A list proxy for an inventory at a certain position.
@@ -37,35 +36,24 @@ public class ValueTypeListProxyPositionedInventory extends ValueTypeListProxyPos
     }
 
     @Override
-    public Iterator<ValueObjectTypeItemStack.ValueItemStack> iterator() {
-        // We use a custom iterator that retrieves the itemhandler capability only once.
+    public IValueTypeListCursor<ValueObjectTypeItemStack.ValueItemStack> cursor() {
+        // The itemhandler capability is retrieved only once.
         // Because for large inventories, the capability would have to be retrieved for every single slot,
         // which could result in a major performance problem.
-        return new ValueTypeListProxyPositionedInventory.ListFactoryIterator(getInventory());
-    }
-
-    public static class ListFactoryIterator implements Iterator<ValueObjectTypeItemStack.ValueItemStack> {
-
-        private final IItemHandler itemHandler;
-        private int index = 0;
-
-        public ListFactoryIterator(IItemHandler itemHandler) {
-            this.itemHandler = itemHandler;
-        }
-
-        @Override
-        public boolean hasNext() {
-            return itemHandler != null && index < itemHandler.getSlots();
-        }
-
-        @Override
-        public ValueObjectTypeItemStack.ValueItemStack next() {
-            return ValueObjectTypeItemStack.ValueItemStack.of(this.itemHandler.getStackInSlot(index++));
-        }
-
-        @Override
-        public void remove() {
-            throw new UnsupportedOperationException("remove");
-        }
+        IItemHandler inventory = getInventory();
+        int slots = inventory == null ? 0 : inventory.getSlots();
+        return new IValueTypeListCursor<ValueObjectTypeItemStack.ValueItemStack>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < slots;
+            }
+
+            @Override
+            public ValueObjectTypeItemStack.ValueItemStack next() {
+                return ValueObjectTypeItemStack.ValueItemStack.of(inventory.getStackInSlot(index++));
+            }
+        };
     }
 }
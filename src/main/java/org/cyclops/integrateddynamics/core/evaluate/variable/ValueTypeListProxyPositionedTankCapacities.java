@@ -7,6 +7,7 @@ import net.minecraftforge.fluids.capability.IFluidTankProperties;
 import org.cyclops.cyclopscore.datastructure.DimPos;
 import org.cyclops.cyclopscore.helper.TileHelpers;
 import org.cyclops.cyclopscore.persist.nbt.INBTProvider;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 
 /**
  * A list proxy for a tank's capacities at a certain position.
@@ -38,4 +39,24 @@ public class ValueTypeListProxyPositionedTankCapacities extends ValueTypeListPro
     public ValueTypeInteger.ValueInteger get(int index) {
         return ValueTypeInteger.ValueInteger.of(getTank().getTankProperties()[index].getCapacity());
     }
+
+    @Override
+    public IValueTypeListCursor<ValueTypeInteger.ValueInteger> cursor() {
+        IFluidHandler tank = getTank();
+        IFluidTankProperties[] tankProperties = tank == null ? null : tank.getTankProperties();
+        IFluidTankProperties[] tanks = tankProperties == null ? new IFluidTankProperties[0] : tankProperties;
+        return new IValueTypeListCursor<ValueTypeInteger.ValueInteger>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < tanks.length;
+            }
+
+            @Override
+            public ValueTypeInteger.ValueInteger next() {
+                return ValueTypeInteger.ValueInteger.of(tanks[index++].getCapacity());
+            }
+        };
+    }
 }
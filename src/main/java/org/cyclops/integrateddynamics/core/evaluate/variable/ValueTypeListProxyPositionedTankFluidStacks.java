@@ -7,6 +7,7 @@ import net.minecraftforge.fluids.capability.IFluidTankProperties;
 import org.cyclops.cyclopscore.datastructure.DimPos;
 import org.cyclops.cyclopscore.helper.TileHelpers;
 import org.cyclops.cyclopscore.persist.nbt.INBTProvider;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 
 /**
  * A list proxy for a tank's fluidstacks at a certain position.
@@ -38,4 +39,24 @@ public class ValueTypeListProxyPositionedTankFluidStacks extends ValueTypeListPr
     public ValueObjectTypeFluidStack.ValueFluidStack get(int index) {
         return ValueObjectTypeFluidStack.ValueFluidStack.of(getTank().getTankProperties()[index].getContents());
     }
+
+    @Override
+    public IValueTypeListCursor<ValueObjectTypeFluidStack.ValueFluidStack> cursor() {
+        IFluidHandler tank = getTank();
+        IFluidTankProperties[] tankProperties = tank == null ? null : tank.getTankProperties();
+        IFluidTankProperties[] tanks = tankProperties == null ? new IFluidTankProperties[0] : tankProperties;
+        return new IValueTypeListCursor<ValueObjectTypeFluidStack.ValueFluidStack>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < tanks.length;
+            }
+
+            @Override
+            public ValueObjectTypeFluidStack.ValueFluidStack next() {
+                return ValueObjectTypeFluidStack.ValueFluidStack.of(tanks[index++].getContents());
+            }
+        };
+    }
 }
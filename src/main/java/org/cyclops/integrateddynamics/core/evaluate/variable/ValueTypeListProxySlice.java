@@ -4,6 +4,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxyFactoryTypeRegistry;
 
@@ -38,6 +39,28 @@ public class ValueTypeListProxySlice<T extends IValueType<V>, V extends IValue>
         return null;
     }
 
+    @Override
+    public IValueTypeListCursor<V> cursor() throws EvaluationException {
+        IValueTypeListCursor<V> cursor = list.cursor();
+        for (int i = 0; i < from && cursor.hasNext(); i++) {
+            cursor.next();
+        }
+        return new IValueTypeListCursor<V>() {
+            private int index = from;
+
+            @Override
+            public boolean hasNext() throws EvaluationException {
+                return index < to && cursor.hasNext();
+            }
+
+            @Override
+            public V next() throws EvaluationException {
+                index++;
+                return cursor.next();
+            }
+        };
+    }
+
     public static class Factory extends ValueTypeListProxyNBTFactorySimple<IValueType<IValue>, IValue, ValueTypeListProxySlice<IValueType<IValue>, IValue>> {
 
         @Override
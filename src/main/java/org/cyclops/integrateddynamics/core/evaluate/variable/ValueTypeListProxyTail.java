@@ -4,6 +4,7 @@ import net.minecraft.nbt.NBTTagCompound;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxyFactoryTypeRegistry;
 
@@ -35,6 +36,15 @@ public class ValueTypeListProxyTail<T extends IValueType<V>, V extends IValue> e
         return null;
     }
 
+    @Override
+    public IValueTypeListCursor<V> cursor() throws EvaluationException {
+        IValueTypeListCursor<V> cursor = list.cursor();
+        if (cursor.hasNext()) {
+            cursor.next();
+        }
+        return cursor;
+    }
+
     public static class Factory extends ValueTypeListProxyNBTFactorySimple<IValueType<IValue>, IValue, ValueTypeListProxyTail<IValueType<IValue>, IValue>> {
 
         @Override
@@ -108,6 +108,14 @@ public class ValueTypeLong extends ValueTypeBase<ValueTypeLong.ValueLong> implem
     @ToString
     public static class ValueLong extends ValueBase {
 
+        /**
+         * Small values are interned, as these are very common, such as for counters and comparisons.
+         * The cache is filled lazily, values are immutable so concurrent filling is harmless.
+         */
+        private static final int CACHE_LOW = -128;
+        private static final int CACHE_HIGH = 1024;
+        private static final ValueLong[] CACHE = new ValueLong[CACHE_HIGH - CACHE_LOW + 1];
+
         private final long value;
 
         private ValueLong(long value) {
@@ -116,6 +124,15 @@ public class ValueTypeLong extends ValueTypeBase<ValueTypeLong.ValueLong> implem
         }
 
         public static ValueLong of(long value) {
+            if (value >= CACHE_LOW && value <= CACHE_HIGH) {
+                int index = (int) (value - CACHE_LOW);
+                ValueLong cached = CACHE[index];
+                if (cached == null) {
+                    cached = new ValueLong(value);
+                    CACHE[index] = cached;
+                }
+                return cached;
+            }
             return new ValueLong(value);
         }
 
@@ -1,15 +1,16 @@
 package org.cyclops.integrateddynamics.core.evaluate.variable;
 
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IObservableVariable;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
-import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariableInvalidateListener;
 
 /**
  * A default variable implementation.
  * @author rubensworks
  */
-public class Variable<V extends IValue> implements IVariable<V> {
+public class Variable<V extends IValue> implements IObservableVariable<V> {
 
     private final IValueType<V> type;
     private final V value;
@@ -32,4 +33,20 @@ public class Variable<V extends IValue> implements IVariable<V> {
     public V getValue() throws EvaluationException {
         return value;
     }
+
+    @Override
+    public boolean isChangeTracked() {
+        // The value of this variable never changes.
+        return true;
+    }
+
+    @Override
+    public void addInvalidateListener(IVariableInvalidateListener listener) {
+
+    }
+
+    @Override
+    public void removeInvalidateListener(IVariableInvalidateListener listener) {
+
+    }
 }
@@ -0,0 +1,54 @@
+package org.cyclops.integrateddynamics.core.evaluate.variable;
+
+import com.google.common.collect.Lists;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariableInvalidateListener;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * A weakly referenced collection of {@link IVariableInvalidateListener}s,
+ * so that discarded dependents do not have to unregister themselves.
+ * @author rubensworks
+ */
+public class VariableInvalidateListeners {
+
+    private Set<IVariableInvalidateListener> listeners = null;
+
+    public synchronized void add(IVariableInvalidateListener listener) {
+        if (listeners == null) {
+            listeners = Collections.newSetFromMap(new WeakHashMap<>());
+        }
+        listeners.add(listener);
+    }
+
+    public synchronized void remove(IVariableInvalidateListener listener) {
+        if (listeners != null) {
+            listeners.remove(listener);
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return listeners == null || listeners.isEmpty();
+    }
+
+    /**
+     * Invalidate all listeners.
+     */
+    public void invalidate() {
+        List<IVariableInvalidateListener> currentListeners;
+        synchronized (this) {
+            if (listeners == null || listeners.isEmpty()) {
+                return;
+            }
+            currentListeners = Lists.newArrayList(listeners);
+        }
+        // Listeners are called outside of the lock, as they may invalidate other variables.
+        for (IVariableInvalidateListener listener : currentListeners) {
+            listener.invalidate();
+        }
+    }
+
+}
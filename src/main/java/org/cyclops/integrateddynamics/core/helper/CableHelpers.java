@@ -181,9 +181,8 @@ public class CableHelpers {
                 sidesToUpdate.add(cableConnectionHit);
                 CableHelpers.updateConnectionsNeighbours(world, pos, sidesToUpdate);
 
-                // Reinit the networks for this block and the disconnected neighbour.
-                NetworkHelpers.initNetwork(world, pos);
-                NetworkHelpers.initNetwork(world, pos.offset(cableConnectionHit));
+                // Split the network if this block and the disconnected neighbour are not connected anymore.
+                NetworkHelpers.splitNetworks(world, Lists.newArrayList(pos, pos.offset(cableConnectionHit)));
                 return true;
             } else if (cableConnectionHit == null) {
                 // Reconnect cable side
@@ -203,9 +202,8 @@ public class CableHelpers {
                     sidesToUpdate.add(side);
                     CableHelpers.updateConnectionsNeighbours(world, pos, sidesToUpdate);
 
-                    // Reinit the networks for this block and the connected neighbour.
-                    NetworkHelpers.initNetwork(world, pos);
-                    NetworkHelpers.initNetwork(world, neighbourPos);
+                    // Join the networks of this block and the connected neighbour.
+                    NetworkHelpers.joinNetworks(world, pos);
                 }
                 return true;
             }
@@ -225,7 +223,7 @@ public class CableHelpers {
     public static void onCableAdded(World world, BlockPos pos, @Nullable EntityLivingBase placer) {
         CableHelpers.updateConnectionsNeighbours(world, pos, CableHelpers.ALL_SIDES);
         if(!world.isRemote) {
-            INetwork network = NetworkHelpers.initNetwork(world, pos);
+            INetwork network = NetworkHelpers.joinNetworks(world, pos);
             MinecraftForge.EVENT_BUS.post(new NetworkInitializedEvent(network, world, pos, placer));
         }
     }
@@ -276,11 +274,12 @@ public class CableHelpers {
     public static boolean onCableRemoved(World world, BlockPos pos, Collection<EnumFacing> sides) {
         updateConnectionsNeighbours(world, pos, sides);
         if (!world.isRemote) {
-            // Reinit neighbouring networks.
+            // Split neighbouring networks if they are not connected anymore.
+            List<BlockPos> sidePositions = Lists.newArrayListWithCapacity(sides.size());
             for(EnumFacing side : sides) {
-                BlockPos sidePos = pos.offset(side);
-                NetworkHelpers.initNetwork(world, sidePos);
+                sidePositions.add(pos.offset(side));
             }
+            NetworkHelpers.splitNetworks(world, sidePositions);
         }
         return true;
     }
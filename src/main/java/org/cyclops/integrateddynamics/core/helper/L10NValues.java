@@ -82,5 +82,7 @@ public class L10NValues {
     public static final String OPERATOR_ERROR_WRONGPREDICATE = "operator." + NS + ".error.wrong_predicate";
     // 0: expected-output, 1:given-output, 2:given-operator
     public static final String OPERATOR_ERROR_ILLEGALPROPERY = "operator." + NS + ".error.illegal_property";
+    // 0: step limit
+    public static final String OPERATOR_ERROR_EVALUATIONBUDGET = "operator." + NS + ".error.evaluation_budget";
 
 }
@@ -1,5 +1,7 @@
 package org.cyclops.integrateddynamics.core.helper;
 
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import net.minecraft.block.Block;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.util.math.BlockPos;
@@ -14,8 +16,13 @@ import org.cyclops.integrateddynamics.capability.network.PartNetworkConfig;
 import org.cyclops.integrateddynamics.capability.networkelementprovider.NetworkElementProviderConfig;
 import org.cyclops.integrateddynamics.capability.path.PathElementConfig;
 import org.cyclops.integrateddynamics.core.network.Network;
+import org.cyclops.integrateddynamics.core.path.Cluster;
+import org.cyclops.integrateddynamics.core.path.PathFinder;
 
 import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Network helper methods.
@@ -97,6 +104,109 @@ public class NetworkHelpers {
         return null;
     }
 
+    /**
+     * Connect the path element at the given position to the networks of its reachable neighbours.
+     * Contrary to {@link #initNetwork(World, BlockPos)}, the largest of these networks is kept as is,
+     * and only the path elements of the other networks are moved into it.
+     * This falls back to {@link #initNetwork(World, BlockPos)} if any of the networks can not be joined incrementally.
+     * @param world The world.
+     * @param pos The position that was connected.
+     * @return The network the position is now part of.
+     * Can be null if the position did not have a {@link IPathElement} capability.
+     */
+    public static @Nullable INetwork joinNetworks(World world, BlockPos pos) {
+        IPathElement pathElement = TileHelpers.getCapability(world, pos, null, PathElementConfig.CAPABILITY);
+        if (pathElement == null) {
+            return null;
+        }
+
+        // Collect the distinct networks that must be joined.
+        Map<Integer, Network> networks = Maps.newLinkedHashMap();
+        INetwork ownNetwork = getNetwork(world, pos);
+        if (ownNetwork != null) {
+            if (!isIncremental(ownNetwork)) {
+                return initNetwork(world, pos);
+            }
+            networks.put(ownNetwork.getId(), (Network) ownNetwork);
+        }
+        for (IPathElement neighbour : pathElement.getReachableElements()) {
+            INetwork network = getNetwork(neighbour.getPosition().getWorld(), neighbour.getPosition().getBlockPos());
+            if (!isIncremental(network)) {
+                return initNetwork(world, pos);
+            }
+            networks.put(network.getId(), (Network) network);
+        }
+        if (networks.isEmpty()) {
+            return initNetwork(world, pos);
+        }
+
+        // Move everything into the largest network.
+        Network target = null;
+        for (Network network : networks.values()) {
+            if (target == null || network.getCablesCount() > target.getCablesCount()) {
+                target = network;
+            }
+        }
+        for (Network network : networks.values()) {
+            if (network != target) {
+                target.merge(network);
+            }
+        }
+        target.addPathElement(pathElement);
+        return target;
+    }
+
+    /**
+     * Split the networks of the path elements at the given positions if they are not connected anymore,
+     * after the connections between them have been removed.
+     * Only the path elements that became disconnected from the largest part of their network
+     * are moved to new networks, all other path elements and their network elements are left untouched.
+     * This falls back to {@link #initNetwork(World, BlockPos)} for positions of which the network
+     * can not be split incrementally.
+     * @param world The world.
+     * @param positions The positions that were possibly connected to each other before.
+     */
+    public static void splitNetworks(World world, Collection<BlockPos> positions) {
+        // Group the path elements by network
+        Map<Integer, List<IPathElement>> networkHeads = Maps.newLinkedHashMap();
+        for (BlockPos pos : positions) {
+            IPathElement pathElement = TileHelpers.getCapability(world, pos, null, PathElementConfig.CAPABILITY);
+            if (pathElement != null) {
+                INetwork network = getNetwork(world, pos);
+                if (isIncremental(network)) {
+                    List<IPathElement> heads = networkHeads.get(network.getId());
+                    if (heads == null) {
+                        heads = Lists.newArrayList();
+                        networkHeads.put(network.getId(), heads);
+                    }
+                    heads.add(pathElement);
+                } else {
+                    initNetwork(world, pos);
+                }
+            }
+        }
+
+        // Move the disconnected parts of each network into new networks
+        for (List<IPathElement> heads : networkHeads.values()) {
+            if (heads.size() > 1) {
+                List<Cluster> clusters = PathFinder.getDisconnectedClusters(heads);
+                if (clusters == null) {
+                    for (IPathElement head : heads) {
+                        initNetwork(head.getPosition().getWorld(), head.getPosition().getBlockPos());
+                    }
+                } else {
+                    for (Cluster cluster : clusters) {
+                        Network.initiateNetworkSetup(cluster).initialize();
+                    }
+                }
+            }
+        }
+    }
+
+    protected static boolean isIncremental(@Nullable INetwork network) {
+        return network instanceof Network && network.isInitialized() && !network.isKilled();
+    }
+
     /**
      * This MUST be called by blocks having the {@link INetworkElementProvider} capability in
      * when a neighbouring block is updated, more specifically when
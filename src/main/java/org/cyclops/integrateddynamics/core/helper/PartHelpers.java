@@ -235,7 +235,7 @@ public class PartHelpers {
             if (CableHelpers.getCable(world, pos.offset(side)) != null) {
                 CableHelpers.updateConnections(world, pos);
                 CableHelpers.updateConnections(world, pos.offset(side));
-                NetworkHelpers.initNetwork(world, pos);
+                NetworkHelpers.joinNetworks(world, pos);
             }
         }
 
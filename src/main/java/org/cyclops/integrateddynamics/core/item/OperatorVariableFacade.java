@@ -9,6 +9,7 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.cyclops.cyclopscore.datastructure.Wrapper;
 import org.cyclops.cyclopscore.helper.L10NHelpers;
+import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.api.client.model.IVariableModelBaked;
 import org.cyclops.integrateddynamics.api.evaluate.expression.IExpression;
 import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
@@ -17,8 +18,10 @@ import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
 import org.cyclops.integrateddynamics.api.item.IOperatorVariableFacade;
 import org.cyclops.integrateddynamics.api.item.IVariableFacade;
+import org.cyclops.integrateddynamics.api.network.INetwork;
 import org.cyclops.integrateddynamics.api.network.IPartNetwork;
 import org.cyclops.integrateddynamics.core.client.model.VariableModelProviders;
+import org.cyclops.integrateddynamics.core.evaluate.expression.CompiledExpression;
 import org.cyclops.integrateddynamics.core.evaluate.expression.LazyExpression;
 import org.cyclops.integrateddynamics.core.evaluate.variable.ValueHelpers;
 import org.cyclops.integrateddynamics.core.helper.L10NValues;
@@ -36,7 +39,8 @@ public class OperatorVariableFacade extends VariableFacadeBase implements IOpera
     private final IOperator operator;
     private final int[] variableIds;
     private IExpression expression = null;
-    private int lastNetworkHash = -1;
+    private int lastNetworkId = -1;
+    private long lastNetworkGeneration = -1;
 
     // Flags to detect infinite recursion
     private final boolean[] validatingVariables;
@@ -58,9 +62,17 @@ public class OperatorVariableFacade extends VariableFacadeBase implements IOpera
     @Override
     public <V extends IValue> IVariable<V> getVariable(IPartNetwork network) {
         if(isValid()) {
-            int newNetworkHash = network != null ? network.hashCode() : -1;
-            if(expression == null || expression.hasErrored() || newNetworkHash != this.lastNetworkHash) {
-                this.lastNetworkHash = newNetworkHash;
+            INetwork baseNetwork = network != null ? network.getNetwork() : null;
+            int newNetworkId = baseNetwork != null ? baseNetwork.getId() : -1;
+            long newNetworkGeneration = baseNetwork != null ? baseNetwork.getChangeGeneration() : -1;
+            if(expression == null || expression.hasErrored() || newNetworkId != this.lastNetworkId
+                    || newNetworkGeneration != this.lastNetworkGeneration) {
+                this.lastNetworkId = newNetworkId;
+                this.lastNetworkGeneration = newNetworkGeneration;
+                if (GeneralConfig.compileOperatorExpressions && network != null) {
+                    expression = CompiledExpression.compile(this, network);
+                    return expression;
+                }
                 IVariable[] variables = new IVariable[variableIds.length];
                 for (int i = 0; i < variableIds.length; i++) {
                     int variableId = variableIds[i];
@@ -11,6 +11,15 @@ import org.cyclops.integrateddynamics.core.helper.EnergyHelpers;
 
 /**
  * A network that can hold energy.
+ *
+ * If {@link GeneralConfig#energyConsumptionLedger} is enabled, the available energy is only read once per tick,
+ * the consumption of updated elements is debited from it in memory,
+ * and the total consumption is extracted from the batteries at the end of the tick.
+ *
+ * The consumption rate, stored energy and capacity of the network are cached for at most one tick,
+ * as the consumption rate of elements may depend on their state and other mods' energy storages can change at any time.
+ * Within a tick, they are recalculated after elements or positions were added or removed,
+ * after energy was moved through this network, or after they have been invalidated by a battery.
  * @author rubensworks
  */
 public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNetwork, IFullNetworkListener {
@@ -19,8 +28,20 @@ public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNet
     @Setter
     private INetwork network;
 
+    private int ledgerAvailable = -1;
+    private int ledgerDebit = 0;
+
+    private int consumptionRate = 0;
+    private boolean consumptionRateDirty = true;
+    private int energyStored = 0;
+    private boolean energyStoredDirty = true;
+    private int maxEnergyStored = 0;
+    private boolean maxEnergyStoredDirty = true;
+
     @Override
-    public boolean addNetworkElement(INetworkElement element, boolean networkPreinit) {
+    public synchronized boolean addNetworkElement(INetworkElement element, boolean networkPreinit) {
+        // The addition can still be cancelled at this point, so the consumption rate is recalculated on the next read.
+        invalidateConsumptionRate();
         return true;
     }
 
@@ -30,8 +51,8 @@ public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNet
     }
 
     @Override
-    public void removeNetworkElementPost(INetworkElement element) {
-
+    public synchronized void removeNetworkElementPost(INetworkElement element) {
+        invalidateConsumptionRate();
     }
 
     @Override
@@ -40,8 +61,10 @@ public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNet
     }
 
     @Override
-    public void update() {
-
+    public synchronized void update() {
+        invalidateConsumptionRate();
+        invalidateEnergyStored();
+        invalidateMaxEnergyStored();
     }
 
     @Override
@@ -65,6 +88,13 @@ public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNet
         int multiplier = GeneralConfig.energyConsumptionMultiplier;
         if(multiplier == 0) return true;
         int consumptionRate = ((IEnergyConsumingNetworkElement) element).getConsumptionRate() * multiplier;
+        if (GeneralConfig.energyConsumptionLedger) {
+            if (!isLedgerOpen()) {
+                openLedger();
+            }
+            return consumptionRate <= GeneralConfig.energyRateLimit
+                    && consumptionRate <= ledgerAvailable - ledgerDebit;
+        }
         return extractEnergy(consumptionRate, true) == consumptionRate;
     }
 
@@ -81,20 +111,81 @@ public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNet
             int multiplier = GeneralConfig.energyConsumptionMultiplier;
             if (multiplier > 0) {
                 int consumptionRate = ((IEnergyConsumingNetworkElement) element).getConsumptionRate() * multiplier;
-                extractEnergy(consumptionRate, false);
+                if (isLedgerOpen()) {
+                    ledgerDebit = addSafe(ledgerDebit, consumptionRate);
+                } else {
+                    extractEnergy(consumptionRate, false);
+                }
             }
             ((IEnergyConsumingNetworkElement) element).postUpdate(getNetwork(), true);
         }
     }
 
+    @Override
+    public void afterUpdate() {
+        settleLedger();
+    }
+
+    protected boolean isLedgerOpen() {
+        return ledgerAvailable >= 0;
+    }
+
+    /**
+     * Read the currently available energy, from which consumption will be debited until the ledger is settled.
+     */
+    protected void openLedger() {
+        ledgerAvailable = extractEnergyUnlimited(Integer.MAX_VALUE, true);
+        ledgerDebit = 0;
+    }
+
+    /**
+     * Extract all debited energy from the batteries, and close the ledger.
+     * This must be called before any direct energy interaction with the batteries,
+     * so that these always see the actual stored energy.
+     */
+    protected void settleLedger() {
+        if (isLedgerOpen()) {
+            int debit = ledgerDebit;
+            ledgerAvailable = -1;
+            ledgerDebit = 0;
+            if (debit > 0) {
+                extractEnergyUnlimited(debit, false);
+            }
+        }
+    }
+
     protected int addSafe(int a, int b) {
         int add = a + b;
         if(add < a || add < b) return Integer.MAX_VALUE;
         return add;
     }
 
+    protected synchronized void invalidateConsumptionRate() {
+        consumptionRateDirty = true;
+    }
+
+    @Override
+    public synchronized void invalidateEnergyStored() {
+        energyStoredDirty = true;
+    }
+
     @Override
-    public int getEnergyStored() {
+    public synchronized void invalidateMaxEnergyStored() {
+        maxEnergyStoredDirty = true;
+    }
+
+    @Override
+    public synchronized int getEnergyStored() {
+        settleLedger();
+        if (energyStoredDirty) {
+            // Reset the flag first, as batteries may change while being read.
+            energyStoredDirty = false;
+            energyStored = calculateEnergyStored();
+        }
+        return energyStored;
+    }
+
+    protected int calculateEnergyStored() {
         int energy = 0;
         for(PrioritizedPartPos partPos : getPositions()) {
             IEnergyStorage energyStorage = getEnergyStorage(partPos);
@@ -108,7 +199,15 @@ public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNet
     }
 
     @Override
-    public int getMaxEnergyStored() {
+    public synchronized int getMaxEnergyStored() {
+        if (maxEnergyStoredDirty) {
+            maxEnergyStoredDirty = false;
+            maxEnergyStored = calculateMaxEnergyStored();
+        }
+        return maxEnergyStored;
+    }
+
+    protected int calculateMaxEnergyStored() {
         int maxEnergy = 0;
         for(PrioritizedPartPos partPos : getPositions()) {
             IEnergyStorage energyStorage = getEnergyStorage(partPos);
@@ -133,6 +232,7 @@ public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNet
 
     @Override
     public int receiveEnergy(int energy, boolean simulate) {
+        settleLedger();
         energy = Math.min(energy, GeneralConfig.energyRateLimit);
         int toAdd = energy;
         for(PrioritizedPartPos partPos : getPositions()) {
@@ -143,12 +243,19 @@ public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNet
                 enablePosition(partPos.getPartPos());
             }
         }
+        if (!simulate && toAdd != energy) {
+            invalidateEnergyStored();
+        }
         return energy - toAdd;
     }
 
     @Override
     public int extractEnergy(int energy, boolean simulate) {
-        energy = Math.min(energy, GeneralConfig.energyRateLimit);
+        settleLedger();
+        return extractEnergyUnlimited(Math.min(energy, GeneralConfig.energyRateLimit), simulate);
+    }
+
+    protected int extractEnergyUnlimited(int energy, boolean simulate) {
         int toConsume = energy;
         for(PrioritizedPartPos partPos : getPositions()) {
             IEnergyStorage energyStorage = getEnergyStorage(partPos);
@@ -158,27 +265,51 @@ public class EnergyNetwork extends PositionedAddonsNetwork implements IEnergyNet
                 enablePosition(partPos.getPartPos());
             }
         }
+        if (!simulate && toConsume != energy) {
+            invalidateEnergyStored();
+        }
         return energy - toConsume;
     }
 
     @Override
     public boolean addPosition(PartPos pos, int priority) {
-        IEnergyStorage energyStorage = EnergyHelpers.getEnergyStorage(pos);
-        return energyStorage != null && super.addPosition(pos, priority);
+        IEnergyStorage energyStorage = getEnergyStorage(pos);
+        if (energyStorage != null && super.addPosition(pos, priority)) {
+            invalidateEnergyStored();
+            invalidateMaxEnergyStored();
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void removePosition(PartPos pos) {
+        super.removePosition(pos);
+        invalidateEnergyStored();
+        invalidateMaxEnergyStored();
     }
 
     @Override
-    public int getConsumptionRate() {
+    public synchronized int getConsumptionRate() {
         int multiplier = GeneralConfig.energyConsumptionMultiplier;
         if(multiplier == 0) return 0;
-        int consumption = 0;
-        for(INetworkElement element : getNetwork().getElements()) {
-            consumption += ((IEnergyConsumingNetworkElement) element).getConsumptionRate() * multiplier;
+        if (consumptionRateDirty) {
+            consumptionRateDirty = false;
+            consumptionRate = 0;
+            for(INetworkElement element : getNetwork().getElements()) {
+                if (element instanceof IEnergyConsumingNetworkElement) {
+                    consumptionRate += ((IEnergyConsumingNetworkElement) element).getConsumptionRate();
+                }
+            }
         }
-        return consumption;
+        return consumptionRate * multiplier;
     }
 
     protected IEnergyStorage getEnergyStorage(PrioritizedPartPos pos) {
-        return isPositionDisabled(pos.getPartPos()) ? null : EnergyHelpers.getEnergyStorage(pos.getPartPos());
+        return isPositionDisabled(pos.getPartPos()) ? null : getEnergyStorage(pos.getPartPos());
+    }
+
+    protected IEnergyStorage getEnergyStorage(PartPos pos) {
+        return EnergyHelpers.getEnergyStorage(pos);
     }
 }
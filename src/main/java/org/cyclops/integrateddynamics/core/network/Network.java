@@ -4,8 +4,6 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import net.minecraft.nbt.NBTTagCompound;
-import net.minecraft.util.math.BlockPos;
-import net.minecraft.world.World;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.common.capabilities.Capability;
 import net.minecraftforge.common.capabilities.CapabilityDispatcher;
@@ -21,11 +19,14 @@ import org.cyclops.integrateddynamics.api.network.INetworkCarrier;
 import org.cyclops.integrateddynamics.api.network.INetworkElement;
 import org.cyclops.integrateddynamics.api.network.INetworkElementProvider;
 import org.cyclops.integrateddynamics.api.network.INetworkEventListener;
+import org.cyclops.integrateddynamics.api.network.IPartNetworkElement;
 import org.cyclops.integrateddynamics.api.network.event.INetworkEvent;
 import org.cyclops.integrateddynamics.api.network.event.INetworkEventBus;
+import org.cyclops.integrateddynamics.api.part.PartPos;
 import org.cyclops.integrateddynamics.api.path.IPathElement;
 import org.cyclops.integrateddynamics.capability.network.NetworkCarrierConfig;
 import org.cyclops.integrateddynamics.capability.networkelementprovider.NetworkElementProviderConfig;
+import org.cyclops.integrateddynamics.core.evaluate.ParallelNetworkEvaluation;
 import org.cyclops.integrateddynamics.core.network.diagnostics.NetworkDiagnostics;
 import org.cyclops.integrateddynamics.core.network.event.NetworkElementAddEvent;
 import org.cyclops.integrateddynamics.core.network.event.NetworkElementRemoveEvent;
@@ -34,12 +35,15 @@ import org.cyclops.integrateddynamics.core.path.Cluster;
 import org.cyclops.integrateddynamics.core.path.PathFinder;
 import org.cyclops.integrateddynamics.core.persist.world.NetworkWorldStorage;
 
+import javax.annotation.Nullable;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * A network instance that can hold a set of {@link INetworkElement}s.
@@ -48,12 +52,16 @@ import java.util.TreeSet;
  */
 public class Network implements INetwork {
 
+    private static final AtomicInteger NETWORK_IDS = new AtomicInteger();
+
+    private final int id = NETWORK_IDS.getAndIncrement();
     private Cluster baseCluster;
 
     private final INetworkEventBus eventBus = new NetworkEventBus();
     private final TreeSet<INetworkElement> elements = Sets.newTreeSet();
-    private TreeSet<INetworkElement> updateableElements = null;
-    private TreeMap<INetworkElement, Integer> updateableElementsTicks = null;
+    // The part elements by position, to find them when their order in the elements set is outdated.
+    private final Map<PartPos, IPartNetworkElement> partElements = Maps.newHashMap();
+    private NetworkElementTimingWheel updateableElements = null;
     private TreeSet<INetworkElement> invalidatedElements = Sets.newTreeSet();
     private Map<INetworkElement, Long> lastSecondDurations = Maps.newHashMap();
 
@@ -62,6 +70,7 @@ public class Network implements INetwork {
 
     private NBTTagCompound toRead = null;
     private volatile boolean changed = false;
+    private volatile long changeGeneration = 0;
     private volatile boolean killed = false;
 
     private boolean crashed = false;
@@ -72,7 +81,16 @@ public class Network implements INetwork {
      * @return The newly formed network.
      */
     public static Network initiateNetworkSetup(IPathElement pathElement) {
-        Network network = new Network(PathFinder.getConnectedCluster(pathElement));
+        return initiateNetworkSetup(PathFinder.getConnectedCluster(pathElement));
+    }
+
+    /**
+     * Initiate a network from the given cluster of connected path elements.
+     * @param pathElements The path elements, these will be removed from the networks they are currently part of.
+     * @return The newly formed network.
+     */
+    public static Network initiateNetworkSetup(Cluster pathElements) {
+        Network network = new Network(pathElements);
         NetworkWorldStorage.getInstance(IntegratedDynamics._instance).addNewNetwork(network);
         return network;
     }
@@ -134,10 +152,7 @@ public class Network implements INetwork {
     private void deriveNetworkElements(Cluster pathElements) {
         if(!killIfEmpty()) {
             for (IPathElement pathElement : pathElements) {
-                World world = pathElement.getPosition().getWorld();
-                BlockPos pos = pathElement.getPosition().getBlockPos();
-                INetworkCarrier networkCarrier = TileHelpers.getCapability(
-                        world, pos, null, NetworkCarrierConfig.CAPABILITY);
+                INetworkCarrier networkCarrier = getNetworkCarrier(pathElement);
                 if (networkCarrier != null) {
                     // Correctly remove any previously saved network in this carrier
                     // and set the new network to this.
@@ -148,18 +163,37 @@ public class Network implements INetwork {
                     networkCarrier.setNetwork(null);
                     networkCarrier.setNetwork(this);
                 }
-                INetworkElementProvider networkElementProvider = TileHelpers.getCapability(
-                        pathElement.getPosition(), null, NetworkElementProviderConfig.CAPABILITY);
-                if (networkElementProvider != null) {
-                    for(INetworkElement element : networkElementProvider.createNetworkElements(world, pos)) {
-                        addNetworkElement(element, true);
-                    }
+                for(INetworkElement element : createNetworkElements(pathElement)) {
+                    addNetworkElement(element, true);
                 }
             }
             onNetworkChanged();
         }
     }
 
+    /**
+     * @param pathElement A path element.
+     * @return The network carrier at the position of the given path element, or null if there is none.
+     */
+    @Nullable
+    protected INetworkCarrier getNetworkCarrier(IPathElement pathElement) {
+        return TileHelpers.getCapability(pathElement.getPosition(), null, NetworkCarrierConfig.CAPABILITY);
+    }
+
+    /**
+     * @param pathElement A path element.
+     * @return The network elements that are provided at the position of the given path element.
+     */
+    protected Collection<INetworkElement> createNetworkElements(IPathElement pathElement) {
+        INetworkElementProvider networkElementProvider = TileHelpers.getCapability(
+                pathElement.getPosition(), null, NetworkElementProviderConfig.CAPABILITY);
+        if (networkElementProvider == null) {
+            return Collections.emptyList();
+        }
+        return networkElementProvider.createNetworkElements(
+                pathElement.getPosition().getWorld(), pathElement.getPosition().getBlockPos());
+    }
+
     @Override
     public boolean isInitialized() {
         return updateableElements != null;
@@ -177,14 +211,24 @@ public class Network implements INetwork {
         initialize(false);
     }
 
+    @Override
+    public int getId() {
+        return this.id;
+    }
+
+    @Override
+    public long getChangeGeneration() {
+        return this.changeGeneration;
+    }
+
     @Override
     public boolean equals(Object object) {
-        return object instanceof Network && elements.equals(((Network)object).elements);
+        return object instanceof Network && getId() == ((Network) object).getId();
     }
 
     @Override
     public int hashCode() {
-        return elements.hashCode();
+        return getId();
     }
 
     @Override
@@ -225,9 +269,9 @@ public class Network implements INetwork {
         }
 
         if(getEventBus().postCancelable(new NetworkElementAddEvent.Pre(this, element))) {
-            elements.add(element);
+            addContainedElement(element);
             if (!element.onNetworkAddition(this)) {
-                elements.remove(element);
+                removeContainedElement(element);
                 return false;
             }
             if (!networkPreinit) {
@@ -252,8 +296,7 @@ public class Network implements INetwork {
     @Override
     public void addNetworkElementUpdateable(INetworkElement element) {
         if(element.isUpdate()) {
-            updateableElements.add(element);
-            updateableElementsTicks.put(element, 0);
+            updateableElements.schedule(element, 0);
         }
     }
 
@@ -269,22 +312,85 @@ public class Network implements INetwork {
 
     @Override
     public synchronized void setPriority(INetworkElement element, int priority) {
-        elements.remove(element);
-        Integer oldTickValue = null;
-        if (element.isUpdate()) {
-            updateableElements.remove(element);
-            oldTickValue = updateableElementsTicks.remove(element);
+        //noinspection deprecation
+        reorderElement(element, containedElement -> containedElement.setPriority(this, priority));
+    }
+
+    /**
+     * Remove the given element from all ordered collections of this network, apply a change that may modify its order,
+     * and insert it again.
+     * @param element The element.
+     * @param change The change to apply to the element that is contained in this network.
+     * @return The element that is contained in this network, or null if the element is not part of this network,
+     *         in which case the change is applied to the given element.
+     */
+    protected synchronized INetworkElement reorderElement(INetworkElement element, Consumer<INetworkElement> change) {
+        INetworkElement containedElement = getContainedElement(element);
+        if (containedElement == null) {
+            change.accept(element);
+            return null;
         }
+        // Elements must be removed with the order they were inserted with.
+        elements.remove(containedElement);
+        boolean invalidated = invalidatedElements.remove(containedElement);
+        Integer remainingTicks = updateableElements != null ? updateableElements.remove(containedElement) : null;
 
-        //noinspection deprecation
-        element.setPriority(this, priority);
-        elements.add(element);
-        if (element.isUpdate()) {
-            updateableElements.add(element);
-            if (oldTickValue != null) {
-                updateableElementsTicks.put(element, oldTickValue);
+        change.accept(containedElement);
+
+        elements.add(containedElement);
+        if (invalidated) {
+            invalidatedElements.add(containedElement);
+        }
+        if (remainingTicks != null) {
+            updateableElements.schedule(containedElement, remainingTicks);
+        }
+        return containedElement;
+    }
+
+    /**
+     * Find the instance of the given element that is contained in this network.
+     * @param element An element.
+     * @return The contained element, or null if it is not part of this network.
+     */
+    @Nullable
+    protected INetworkElement getContainedElement(INetworkElement element) {
+        INetworkElement containedElement = elements.ceiling(element);
+        if (containedElement != null && containedElement.compareTo(element) == 0) {
+            return containedElement;
+        }
+        // The order of the contained part may be outdated, such as when its priority was unknown while it was unloaded.
+        if (element instanceof IPartNetworkElement) {
+            IPartNetworkElement partElement = (IPartNetworkElement) element;
+            IPartNetworkElement candidate = partElements.get(partElement.getTarget().getCenter());
+            if (candidate != null && candidate.getPart() == partElement.getPart()
+                    && candidate.getTarget().equals(partElement.getTarget())) {
+                return candidate;
             }
         }
+        return null;
+    }
+
+    /**
+     * Add the given element to the elements of this network.
+     * @param element The element.
+     */
+    protected void addContainedElement(INetworkElement element) {
+        elements.add(element);
+        if (element instanceof IPartNetworkElement) {
+            IPartNetworkElement partElement = (IPartNetworkElement) element;
+            partElements.put(partElement.getTarget().getCenter(), partElement);
+        }
+    }
+
+    /**
+     * Remove the given element from the elements of this network.
+     * @param element The element, which must be the instance that is contained in this network.
+     */
+    protected void removeContainedElement(INetworkElement element) {
+        elements.remove(element);
+        if (element instanceof IPartNetworkElement) {
+            partElements.remove(((IPartNetworkElement) element).getTarget().getCenter(), element);
+        }
     }
 
     @Override
@@ -301,7 +407,8 @@ public class Network implements INetwork {
         }
         element.beforeNetworkKill(this);
         element.onNetworkRemoval(this);
-        elements.remove(element);
+        INetworkElement containedElement = getContainedElement(element);
+        removeContainedElement(containedElement != null ? containedElement : element);
         removeNetworkElementUpdateable(element);
         getEventBus().post(new NetworkElementRemoveEvent.Post(this, element));
         onNetworkChanged();
@@ -310,7 +417,6 @@ public class Network implements INetwork {
     @Override
     public synchronized void removeNetworkElementUpdateable(INetworkElement element) {
         updateableElements.remove(element);
-        updateableElementsTicks.remove(element);
     }
 
     /**
@@ -318,8 +424,7 @@ public class Network implements INetwork {
      * @param silent If the element should not be notified for the network becoming alive.
      */
     protected void initialize(boolean silent) {
-        updateableElements = Sets.newTreeSet();
-        updateableElementsTicks = Maps.newTreeMap();
+        updateableElements = new NetworkElementTimingWheel();
         for(INetworkElement element : elements) {
             addNetworkElementUpdateable(element);
             if(!silent) {
@@ -376,6 +481,13 @@ public class Network implements INetwork {
 
     @Override
     public final synchronized void update() {
+        if (startUpdate()) {
+            finishUpdate();
+        }
+    }
+
+    @Override
+    public final synchronized boolean startUpdate() {
         if (this.toRead != null) {
             this.fromNBTEffective(this.toRead);
             this.toRead = null;
@@ -384,34 +496,68 @@ public class Network implements INetwork {
         this.changed = false;
         if(killIfEmpty() || killed) {
             NetworkWorldStorage.getInstance(IntegratedDynamics._instance).removeInvalidatedNetwork(this);
-        } else {
-            onUpdate();
+            return false;
+        }
+        onUpdate();
+        // Variables are resolved on the server thread, so that evaluateUpdate does not have to build them.
+        for (INetworkElement element : updateableElements.peekDue()) {
+            if (!invalidatedElements.contains(element)) {
+                try {
+                    element.prepareEvaluateUpdate(this);
+                } catch (PartStateException e) {
+                    // This will be handled when the element is being updated.
+                }
+            }
+        }
+        return true;
+    }
 
-            // Update updateable network elements
-            boolean isBeingDiagnozed = NetworkDiagnostics.getInstance().isBeingDiagnozed();
-            if (!isBeingDiagnozed && !lastSecondDurations.isEmpty()) {
-                // Make sure we aren't using any unnecessary memory.
-                lastSecondDurations.clear();
+    @Override
+    public final synchronized void evaluateUpdate() {
+        boolean wasActive = ParallelNetworkEvaluation.setActive(true);
+        try {
+            for (INetworkElement element : updateableElements.peekDue()) {
+                // Invalidated elements are skipped, because revalidating them requires modifying the world.
+                if (!invalidatedElements.contains(element)) {
+                    try {
+                        element.evaluateUpdate(this);
+                    } catch (PartStateException e) {
+                        // This will be handled when the element is being updated.
+                    } catch (ParallelNetworkEvaluation.WorldReadDeferredException e) {
+                        // The element is evaluated when it is being updated on the server thread.
+                    }
+                }
             }
-            for (INetworkElement element : updateableElements) {
+        } finally {
+            ParallelNetworkEvaluation.setActive(wasActive);
+        }
+    }
+
+    @Override
+    public final synchronized void finishUpdate() {
+        // Update updateable network elements
+        boolean isBeingDiagnozed = NetworkDiagnostics.getInstance().isBeingDiagnozed();
+        if (!isBeingDiagnozed && !lastSecondDurations.isEmpty()) {
+            // Make sure we aren't using any unnecessary memory.
+            lastSecondDurations.clear();
+        }
+        try {
+            // Only the elements that are due at this tick are polled from the timing wheel,
+            // a scheduled delay of 0 means that the element will be polled again in the next tick.
+            for (INetworkElement element : updateableElements.pollDue()) {
+                int nextElementTick = 0;
                 try {
                     if (isValid(element)) {
                         long startTime = 0;
                         if (isBeingDiagnozed) {
                             startTime = System.nanoTime();
                         }
-                        int lastElementTick = updateableElementsTicks.getOrDefault(element, 0);
                         if (canUpdate(element)) {
-                            if (lastElementTick <= 0) {
-                                updateableElementsTicks.put(element, element.getUpdateInterval() - 1);
-                                element.update(this);
-                                postUpdate(element);
-                            } else {
-                                updateableElementsTicks.put(element, lastElementTick - 1);
-                            }
+                            nextElementTick = element.getUpdateInterval() - 1;
+                            element.update(this);
+                            postUpdate(element);
                         } else {
                             onSkipUpdate(element);
-                            updateableElementsTicks.put(element, lastElementTick - 1);
                         }
                         if (isBeingDiagnozed) {
                             long duration = System.nanoTime() - startTime;
@@ -429,7 +575,14 @@ public class Network implements INetwork {
                     e.printStackTrace();
                     element.invalidate(this);
                 }
+                // Elements that were removed during this tick must not be rescheduled.
+                if (updateableElements.contains(element)) {
+                    updateableElements.schedule(element, nextElementTick);
+                }
             }
+        } finally {
+            // Consumed energy is settled even if an element crashed the network.
+            afterUpdate();
         }
     }
 
@@ -439,6 +592,13 @@ public class Network implements INetwork {
         }
     }
 
+    @Override
+    public void afterUpdate() {
+        for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
+            fullNetworkListener.afterUpdate();
+        }
+    }
+
     @Override
     public synchronized boolean removePathElement(IPathElement pathElement) {
         for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
@@ -447,22 +607,19 @@ public class Network implements INetwork {
             }
         }
         if(baseCluster.remove(pathElement)) {
-            INetworkElementProvider networkElementProvider = (INetworkElementProvider) TileHelpers.getCapability(
-                    pathElement.getPosition(), null, NetworkElementProviderConfig.CAPABILITY);
-            if (networkElementProvider != null) {
-                Collection<INetworkElement> networkElements = networkElementProvider.
-                        createNetworkElements(pathElement.getPosition().getWorld(), pathElement.getPosition().getBlockPos());
-                for (INetworkElement networkElement : networkElements) {
-                    if(!removeNetworkElementPre(networkElement)) {
-                        return false;
-                    }
-                }
-                for (INetworkElement networkElement : networkElements) {
-                    removeNetworkElementPost(networkElement);
+            Collection<INetworkElement> networkElements = createNetworkElements(pathElement);
+            for (INetworkElement networkElement : networkElements) {
+                if(!removeNetworkElementPre(networkElement)) {
+                    // The path element stays in this network.
+                    baseCluster.add(pathElement);
+                    return false;
                 }
-                onNetworkChanged();
-                return true;
             }
+            for (INetworkElement networkElement : networkElements) {
+                removeNetworkElementPost(networkElement);
+            }
+            onNetworkChanged();
+            return true;
         } else {
             Thread.dumpStack();
             IntegratedDynamics.clog(Level.WARN, "Tried to remove a path element from a network it was not present in.");
@@ -472,6 +629,52 @@ public class Network implements INetwork {
         return false;
     }
 
+    /**
+     * Add the given path element to this already initialized network, without rebuilding the network.
+     * The path element will be removed from the network it was previously part of,
+     * and all of its network elements will be added to this network.
+     * @param pathElement The path element to add.
+     * @return If the path element was added, false if it already was part of this network,
+     *         or if its previous network refused to remove it, in which case nothing was changed.
+     */
+    public synchronized boolean addPathElement(IPathElement pathElement) {
+        if (baseCluster.contains(pathElement)) {
+            return false;
+        }
+        INetworkCarrier networkCarrier = getNetworkCarrier(pathElement);
+        if (networkCarrier != null) {
+            INetwork network = networkCarrier.getNetwork();
+            if (network != null && !equals(network) && !network.removePathElement(pathElement)) {
+                return false;
+            }
+        }
+        baseCluster.add(pathElement);
+        if (networkCarrier != null) {
+            networkCarrier.setNetwork(null);
+            networkCarrier.setNetwork(this);
+        }
+        for(INetworkElement element : createNetworkElements(pathElement)) {
+            if (addNetworkElement(element, false)) {
+                element.afterNetworkAlive(this);
+                element.afterNetworkReAlive(this);
+            }
+        }
+        onNetworkChanged();
+        return true;
+    }
+
+    /**
+     * Move all path elements of the given network into this network.
+     * The elements of this network are not affected by this,
+     * and the given network will be killed at its next update, as it will be empty.
+     * @param network The network to merge into this network.
+     */
+    public synchronized void merge(Network network) {
+        for (IPathElement pathElement : Lists.newArrayList(network.baseCluster)) {
+            addPathElement(pathElement);
+        }
+    }
+
     @Override
     public void afterServerLoad() {
         for (IFullNetworkListener fullNetworkListener : this.fullNetworkListeners) {
@@ -503,6 +706,7 @@ public class Network implements INetwork {
 
     protected void onNetworkChanged() {
         this.changed = true;
+        this.changeGeneration++;
     }
 
     @Override
@@ -547,13 +751,16 @@ public class Network implements INetwork {
     }
 
     @Override
-    public void invalidateElement(INetworkElement element) {
-        invalidatedElements.add(element);
+    public synchronized void invalidateElement(INetworkElement element) {
+        // The order is refreshed when elements are unloaded or loaded again, as it may depend on loaded data.
+        INetworkElement containedElement = reorderElement(element, INetworkElement::refreshOrder);
+        invalidatedElements.add(containedElement != null ? containedElement : element);
     }
 
     @Override
-    public void revalidateElement(INetworkElement element) {
-        invalidatedElements.remove(element);
+    public synchronized void revalidateElement(INetworkElement element) {
+        INetworkElement containedElement = reorderElement(element, INetworkElement::refreshOrder);
+        invalidatedElements.remove(containedElement != null ? containedElement : element);
     }
 
     protected boolean isValid(INetworkElement element) {
@@ -34,6 +34,16 @@ public abstract class NetworkElementBase implements INetworkElement {
 
     }
 
+    @Override
+    public void prepareEvaluateUpdate(INetwork network) {
+
+    }
+
+    @Override
+    public void evaluateUpdate(INetwork network) {
+
+    }
+
     @Override
     public void beforeNetworkKill(INetwork network) {
 
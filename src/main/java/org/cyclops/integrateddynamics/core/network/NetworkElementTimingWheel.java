@@ -0,0 +1,155 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.cyclops.integrateddynamics.api.network.INetworkElement;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A hashed timing wheel for scheduling the updates of {@link INetworkElement}s.
+ *
+ * Each scheduled element is stored in the bucket of the tick at which it is due,
+ * so that a network tick only has to visit the elements that are due at that tick,
+ * instead of all updateable elements in the network.
+ * Delays that are longer than the number of buckets wrap around the wheel,
+ * these elements are skipped until the tick they are actually due at.
+ *
+ * Buckets are ordered by the natural order of the elements,
+ * so that due elements are always polled in order of priority.
+ * @author rubensworks
+ */
+public class NetworkElementTimingWheel {
+
+    public static final int DEFAULT_BUCKETS = 256;
+
+    private final TreeMap<INetworkElement, Long>[] buckets;
+    private final int mask;
+    private final TreeMap<INetworkElement, Long> dueTicks = Maps.newTreeMap();
+    private long tick = 0;
+
+    public NetworkElementTimingWheel() {
+        this(DEFAULT_BUCKETS);
+    }
+
+    /**
+     * @param buckets The number of buckets, must be a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    public NetworkElementTimingWheel(int buckets) {
+        if (buckets <= 0 || Integer.bitCount(buckets) != 1) {
+            throw new IllegalArgumentException("The number of buckets must be a power of two, got " + buckets);
+        }
+        this.buckets = new TreeMap[buckets];
+        this.mask = buckets - 1;
+    }
+
+    protected TreeMap<INetworkElement, Long> getBucket(long dueTick, boolean create) {
+        int index = (int) (dueTick & mask);
+        TreeMap<INetworkElement, Long> bucket = buckets[index];
+        if (bucket == null && create) {
+            bucket = Maps.newTreeMap();
+            buckets[index] = bucket;
+        }
+        return bucket;
+    }
+
+    /**
+     * Schedule the given element.
+     * If the element was already scheduled, its previous schedule will be overwritten.
+     * @param element The element.
+     * @param delay The number of ticks to wait before the element is due,
+     *              where 0 means the next tick that will be polled.
+     */
+    public void schedule(INetworkElement element, int delay) {
+        long dueTick = tick + Math.max(0, delay);
+        Long oldDueTick = dueTicks.put(element, dueTick);
+        if (oldDueTick != null) {
+            TreeMap<INetworkElement, Long> oldBucket = getBucket(oldDueTick, false);
+            if (oldBucket != null) {
+                oldBucket.remove(element);
+            }
+        }
+        getBucket(dueTick, true).put(element, dueTick);
+    }
+
+    /**
+     * Unschedule the given element.
+     * @param element The element.
+     * @return The remaining delay of the element, or null if it was not scheduled.
+     */
+    public Integer remove(INetworkElement element) {
+        Long dueTick = dueTicks.remove(element);
+        if (dueTick == null) {
+            return null;
+        }
+        TreeMap<INetworkElement, Long> bucket = getBucket(dueTick, false);
+        if (bucket != null) {
+            bucket.remove(element);
+        }
+        return (int) Math.max(0, dueTick - tick);
+    }
+
+    /**
+     * @param element The element.
+     * @return If the given element is scheduled.
+     */
+    public boolean contains(INetworkElement element) {
+        return dueTicks.containsKey(element);
+    }
+
+    /**
+     * @return The number of scheduled elements.
+     */
+    public int size() {
+        return dueTicks.size();
+    }
+
+    /**
+     * Get all elements that are due at the current tick, without polling them.
+     * @return The due elements, in order of priority.
+     */
+    public List<INetworkElement> peekDue() {
+        TreeMap<INetworkElement, Long> bucket = getBucket(tick, false);
+        if (bucket == null || bucket.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<INetworkElement> dueElements = Lists.newArrayListWithCapacity(bucket.size());
+        for (Map.Entry<INetworkElement, Long> entry : bucket.entrySet()) {
+            if (entry.getValue() <= tick) {
+                dueElements.add(entry.getKey());
+            }
+        }
+        return dueElements;
+    }
+
+    /**
+     * Take all elements that are due at the current tick, and move on to the next tick.
+     * Polled elements remain scheduled until they are either rescheduled using {@link #schedule(INetworkElement, int)},
+     * in which case the delay is relative to the tick after the polled tick,
+     * or removed using {@link #remove(INetworkElement)}.
+     * @return The due elements, in order of priority.
+     */
+    public List<INetworkElement> pollDue() {
+        long polledTick = tick++;
+        TreeMap<INetworkElement, Long> bucket = getBucket(polledTick, false);
+        if (bucket == null || bucket.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<INetworkElement> dueElements = Lists.newArrayListWithCapacity(bucket.size());
+        Iterator<Map.Entry<INetworkElement, Long>> it = bucket.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<INetworkElement, Long> entry = it.next();
+            if (entry.getValue() <= polledTick) {
+                dueElements.add(entry.getKey());
+                it.remove();
+            }
+        }
+        return dueElements;
+    }
+
+}
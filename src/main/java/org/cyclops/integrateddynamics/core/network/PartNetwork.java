@@ -1,16 +1,26 @@
 package org.cyclops.integrateddynamics.core.network;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TIntLongMap;
+import gnu.trove.map.hash.TIntLongHashMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.set.TIntSet;
+import gnu.trove.set.hash.TIntHashSet;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.logging.log4j.Level;
-import org.cyclops.cyclopscore.datastructure.CompositeMap;
 import org.cyclops.cyclopscore.datastructure.DimPos;
 import org.cyclops.cyclopscore.helper.TileHelpers;
+import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.IntegratedDynamics;
 import org.cyclops.integrateddynamics.api.block.IVariableContainer;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IBoundOperator;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
 import org.cyclops.integrateddynamics.api.item.IVariableFacade;
@@ -23,11 +33,14 @@ import org.cyclops.integrateddynamics.api.part.read.IPartStateReader;
 import org.cyclops.integrateddynamics.api.part.read.IPartTypeReader;
 import org.cyclops.integrateddynamics.api.path.IPathElement;
 import org.cyclops.integrateddynamics.capability.variablecontainer.VariableContainerConfig;
+import org.cyclops.integrateddynamics.core.evaluate.expression.LazyExpressionValueCache;
+import org.cyclops.integrateddynamics.core.evaluate.expression.OperatorMemoTable;
 import org.cyclops.integrateddynamics.core.helper.PartHelpers;
 
-import java.util.Iterator;
+import javax.annotation.Nullable;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * A network that can hold parts.
@@ -41,9 +54,19 @@ public class PartNetwork extends FullNetworkListenerAdapter implements IPartNetw
     private INetwork network;
     private TIntObjectMap<PartPos> partPositions = new TIntObjectHashMap<>();
     private List<DimPos> variableContainerPositions = Lists.newArrayList();
-    private Map<Integer, IVariableFacade> compositeVariableCache = null;
-    private TIntObjectMap<IValue> lazyExpressionValueCache = new TIntObjectHashMap<>();
+    private Map<DimPos, Map<Integer, IVariableFacade>> variableContainers = Maps.newHashMap();
+    private Set<DimPos> changedVariableContainers = Sets.newLinkedHashSet();
+    private TIntObjectMap<Map<Integer, IVariableFacade>> variableOwners = new TIntObjectHashMap<>();
+    private LazyExpressionValueCache lazyExpressionValueCache = new LazyExpressionValueCache();
+    private final OperatorMemoTable operatorMemoTable = GeneralConfig.operatorMemoTableSize > 0
+            ? new OperatorMemoTable(GeneralConfig.operatorMemoTableSize) : null;
     private TIntObjectMap<DimPos> proxyPositions = new TIntObjectHashMap<>();
+    private TObjectIntHashMap<String> canonicalExpressionIds = new TObjectIntHashMap<>();
+    private TIntSet mergedExpressionIds = new TIntHashSet();
+    private long canonicalExpressionGeneration = -1;
+    private TIntLongMap evaluationCosts = new TIntLongHashMap();
+    private long tickEvaluationSteps = 0;
+    private long reservedEvaluationSteps = 0;
 
     private volatile boolean partsChanged = false;
 
@@ -109,60 +132,125 @@ public class PartNetwork extends FullNetworkListenerAdapter implements IPartNetw
         return ((IPartStateReader) getPartState(partId)).getVariable(aspect);
     }
 
-    protected Map<Integer, IVariableFacade> getVariableCache() {
-        if(compositeVariableCache == null) {
-            // Create a new composite map view on the existing variable containers in this network.
-            CompositeMap<Integer, IVariableFacade> compositeMap = new CompositeMap<>();
-            for(Iterator<DimPos> it = variableContainerPositions.iterator(); it.hasNext();) {
-                DimPos dimPos = it.next();
-                IVariableContainer variableContainer = TileHelpers.getCapability(dimPos, null, VariableContainerConfig.CAPABILITY);
-                if(variableContainer != null) {
-                    compositeMap.addElement(variableContainer.getVariableCache());
+    /**
+     * Read the variables of all variable containers that were added or changed since the last lookup,
+     * and update the containers that hold their ids.
+     */
+    protected void refreshVariableContainers() {
+        if (!changedVariableContainers.isEmpty()) {
+            for (DimPos dimPos : changedVariableContainers) {
+                IVariableContainer variableContainer = getVariableContainer(dimPos);
+                if (variableContainer != null) {
+                    Map<Integer, IVariableFacade> variables = variableContainer.getVariableCache();
+                    Map<Integer, IVariableFacade> oldVariables = variableContainers.put(dimPos, variables);
+                    if (oldVariables != null && oldVariables != variables) {
+                        removeVariableOwner(oldVariables);
+                    }
+                    // Ids are resolved over all containers in the order they were added,
+                    // so that the order in which containers changed does not matter.
+                    for (Integer variableId : variables.keySet()) {
+                        variableOwners.put(variableId, findVariableOwner(variableId));
+                    }
                 } else {
                     IntegratedDynamics.clog(Level.ERROR, "The variable container at " + dimPos + " was invalid, skipping.");
-                    it.remove();
+                    variableContainerPositions.remove(dimPos);
+                    removeVariableOwner(variableContainers.remove(dimPos));
                 }
             }
-            compositeVariableCache = compositeMap;
+            changedVariableContainers.clear();
+        }
+    }
+
+    @Nullable
+    protected IVariableContainer getVariableContainer(DimPos dimPos) {
+        return TileHelpers.getCapability(dimPos, null, VariableContainerConfig.CAPABILITY);
+    }
+
+    /**
+     * @param variableId A variable id.
+     * @return The variables of the first added container that holds the given id, or null if there is none.
+     */
+    @Nullable
+    protected Map<Integer, IVariableFacade> findVariableOwner(int variableId) {
+        for (DimPos dimPos : variableContainerPositions) {
+            Map<Integer, IVariableFacade> variables = variableContainers.get(dimPos);
+            if (variables != null && variables.containsKey(variableId)) {
+                return variables;
+            }
+        }
+        return null;
+    }
+
+    protected void removeVariableOwner(@Nullable Map<Integer, IVariableFacade> variables) {
+        if (variables != null) {
+            variableOwners.retainEntries((variableId, owner) -> owner != variables);
         }
-        return compositeVariableCache;
     }
 
     @Override
     public boolean hasVariableFacade(int variableId) {
-        return getVariableCache().containsKey(variableId);
+        return getVariableFacade(variableId) != null;
     }
 
     @Override
     public IVariableFacade getVariableFacade(int variableId) {
-        return getVariableCache().get(variableId);
+        refreshVariableContainers();
+        Map<Integer, IVariableFacade> owner = variableOwners.get(variableId);
+        IVariableFacade variableFacade = owner != null ? owner.get(variableId) : null;
+        if (variableFacade == null) {
+            // The variables of a container may have changed without notifying this network.
+            owner = findVariableOwner(variableId);
+            if (owner == null) {
+                variableOwners.remove(variableId);
+                return null;
+            }
+            variableOwners.put(variableId, owner);
+            variableFacade = owner.get(variableId);
+        }
+        return variableFacade;
     }
 
     @Override
     public void setValue(int id, IValue value) {
-        lazyExpressionValueCache.put(id, value);
+        lazyExpressionValueCache.setValue(id, value);
     }
 
     @Override
     public boolean hasValue(int id) {
-        return lazyExpressionValueCache.containsKey(id);
+        return lazyExpressionValueCache.hasValue(id);
     }
 
     @Override
     public IValue getValue(int id) {
-        return lazyExpressionValueCache.get(id);
+        return lazyExpressionValueCache.getValue(id);
+    }
+
+    @Override
+    public IValue getOrEvaluate(IOperator operator, IVariable[] input, IBoundOperator evaluator) throws EvaluationException {
+        if (operatorMemoTable != null && operator.isPure()) {
+            return operatorMemoTable.evaluate(operator, input, evaluator);
+        }
+        return evaluator.evaluate(input);
     }
 
     @Override
     public boolean addVariableContainer(DimPos dimPos) {
-        compositeVariableCache = null;
+        changedVariableContainers.add(dimPos);
         return variableContainerPositions.add(dimPos);
     }
 
     @Override
     public void removeVariableContainer(DimPos dimPos) {
-        compositeVariableCache = null;
         variableContainerPositions.remove(dimPos);
+        changedVariableContainers.remove(dimPos);
+        removeVariableOwner(variableContainers.remove(dimPos));
+    }
+
+    @Override
+    public void updateVariableContainer(DimPos dimPos) {
+        if (variableContainerPositions.contains(dimPos)) {
+            changedVariableContainers.add(dimPos);
+        }
     }
 
     @Override
@@ -189,14 +277,98 @@ public class PartNetwork extends FullNetworkListenerAdapter implements IPartNetw
         this.partsChanged = true;
     }
 
+    /**
+     * Forget the expression data of the previous network structure if the structure has changed.
+     */
+    protected void checkExpressionGeneration() {
+        long generation = getNetwork() != null ? getNetwork().getChangeGeneration() : -1;
+        if (generation != canonicalExpressionGeneration) {
+            canonicalExpressionGeneration = generation;
+            canonicalExpressionIds.clear();
+            mergedExpressionIds.clear();
+            evaluationCosts.clear();
+        }
+    }
+
+    @Override
+    public synchronized int getCanonicalExpressionId(int id, String structuralKey) {
+        checkExpressionGeneration();
+        if (!canonicalExpressionIds.containsKey(structuralKey)) {
+            canonicalExpressionIds.put(structuralKey, id);
+            return id;
+        }
+        int canonicalId = canonicalExpressionIds.get(structuralKey);
+        if (canonicalId != id) {
+            mergedExpressionIds.add(id);
+        }
+        return canonicalId;
+    }
+
+    @Override
+    public synchronized int getMergedExpressionCount() {
+        return mergedExpressionIds.size();
+    }
+
+    @Override
+    public synchronized long getRemainingEvaluationSteps() {
+        if (GeneralConfig.networkEvaluationStepBudget <= 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, GeneralConfig.networkEvaluationStepBudget - tickEvaluationSteps - reservedEvaluationSteps);
+    }
+
+    @Override
+    public synchronized long reserveEvaluationSteps(long steps) {
+        if (GeneralConfig.networkEvaluationStepBudget <= 0) {
+            return steps;
+        }
+        long reservedSteps = Math.min(steps, getRemainingEvaluationSteps());
+        reservedEvaluationSteps += reservedSteps;
+        return reservedSteps;
+    }
+
+    @Override
+    public synchronized void addEvaluationCost(int id, long steps, long reservedSteps, boolean deferred) {
+        checkExpressionGeneration();
+        reservedEvaluationSteps = Math.max(0, reservedEvaluationSteps - reservedSteps);
+        tickEvaluationSteps += steps;
+        if (deferred) {
+            evaluationCosts.adjustOrPutValue(id, steps, steps);
+        } else {
+            evaluationCosts.put(id, steps);
+        }
+    }
+
+    @Override
+    public synchronized long getEvaluationCost(int id) {
+        return evaluationCosts.get(id);
+    }
+
+    @Override
+    public synchronized int getCostliestExpressionId() {
+        int costliestId = -1;
+        long costliestSteps = -1;
+        for (int id : evaluationCosts.keys()) {
+            long steps = evaluationCosts.get(id);
+            if (steps > costliestSteps) {
+                costliestId = id;
+                costliestSteps = steps;
+            }
+        }
+        return costliestId;
+    }
+
     private void onPartsChanged() {
 
     }
 
     @Override
     public void update() {
-        // Reset lazy variable cache
-        lazyExpressionValueCache.clear();
+        // Invalidate the lazy variable cache of the previous tick
+        lazyExpressionValueCache.invalidate();
+        synchronized (this) {
+            tickEvaluationSteps = 0;
+        }
 
         // Signal parts of any changes
         if (partsChanged) {
@@ -1,6 +1,8 @@
 package org.cyclops.integrateddynamics.core.network;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import net.minecraft.block.Block;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.EnumFacing;
@@ -14,6 +16,7 @@ import org.cyclops.integrateddynamics.api.part.IPartType;
 import org.cyclops.integrateddynamics.api.part.PartTarget;
 import org.cyclops.integrateddynamics.core.helper.NetworkHelpers;
 import org.cyclops.integrateddynamics.core.helper.PartHelpers;
+import org.cyclops.integrateddynamics.core.part.PartTypeRegistry;
 
 import javax.annotation.Nullable;
 import java.util.List;
@@ -30,6 +33,8 @@ public class PartNetworkElement<P extends IPartType<P, S>, S extends IPartState<
     private final PartTarget target;
 
     private S tempState = null;
+    @Setter(AccessLevel.NONE)
+    private SortKey sortKey = null;
 
     protected static DimPos getCenterPos(PartTarget target) {
         return target.getCenter().getPos();
@@ -56,6 +61,7 @@ public class PartNetworkElement<P extends IPartType<P, S>, S extends IPartState<
     public void setPriority(INetwork network, int priority) {
         //noinspection deprecation
         part.setPriority(network, NetworkHelpers.getPartNetwork(network), getTarget(), getPartState(), priority);
+        refreshSortKey();
     }
 
     @Override
@@ -74,6 +80,30 @@ public class PartNetworkElement<P extends IPartType<P, S>, S extends IPartState<
         revalidatePositioned(network, getCenterPos(getTarget()));
     }
 
+    /**
+     * @return The cached key that is used for ordering this element.
+     */
+    public SortKey getSortKey() {
+        if (sortKey == null) {
+            sortKey = SortKey.of(getPart(), getTarget(), getPriority());
+        }
+        return sortKey;
+    }
+
+    /**
+     * Recalculate the cached sort key.
+     * This may only be called when this element is not contained in any ordered collections,
+     * such as in {@link INetwork#setPriority(INetworkElement, int)}.
+     */
+    public void refreshSortKey() {
+        sortKey = null;
+    }
+
+    @Override
+    public void refreshOrder() {
+        refreshSortKey();
+    }
+
     @Override
     public boolean isLoaded() {
         return getCenterPos(getTarget()).isLoaded();
@@ -122,6 +152,16 @@ public class PartNetworkElement<P extends IPartType<P, S>, S extends IPartState<
         part.update(network, NetworkHelpers.getPartNetwork(network), getTarget(), getPartState());
     }
 
+    @Override
+    public void prepareEvaluateUpdate(INetwork network) {
+        part.prepareEvaluateUpdate(network, NetworkHelpers.getPartNetwork(network), getTarget(), getPartState());
+    }
+
+    @Override
+    public void evaluateUpdate(INetwork network) {
+        part.evaluateUpdate(network, NetworkHelpers.getPartNetwork(network), getTarget(), getPartState());
+    }
+
     @Override
     public void beforeNetworkKill(INetwork network) {
         part.beforeNetworkKill(network, NetworkHelpers.getPartNetwork(network), target, getPartState());
@@ -186,14 +226,14 @@ public class PartNetworkElement<P extends IPartType<P, S>, S extends IPartState<
 
     @Override
     public int hashCode() {
-        int result = part.hashCode();
-        result = 31 * result + target.hashCode();
-        result = 31 * result + getPriority();
-        return result;
+        return getSortKey().hashCode();
     }
 
     @Override
     public int compareTo(INetworkElement o) {
+        if(o instanceof PartNetworkElement) {
+            return getSortKey().compareTo(((PartNetworkElement) o).getSortKey());
+        }
         if(o instanceof IPartNetworkElement) {
             IPartNetworkElement p = (IPartNetworkElement) o;
             int compClass = this.getPart().getClass().getCanonicalName().compareTo(p.getPart().getClass().getCanonicalName());
@@ -220,4 +260,83 @@ public class PartNetworkElement<P extends IPartType<P, S>, S extends IPartState<
         }
         return this.getClass().getCanonicalName().compareTo(o.getClass().getCanonicalName());
     }
+
+    /**
+     * An immutable key for ordering part network elements using integer comparisons only.
+     * Elements are ordered by part class, descending priority, part type, position and side.
+     *
+     * The priority is resolved once when the key is created, so that comparisons never require the part to be loaded.
+     * It is refreshed by the network when the priority is changed and when the part is loaded or unloaded,
+     * as the priority is unknown while the part is unloaded.
+     *
+     * Part types are compared by their ordinals if both keys were created in the same ordinal generation,
+     * and by their names otherwise, which results in the same order.
+     * The hash code does not depend on the priority or the ordinals,
+     * so that a key can always be found in hash-based collections.
+     */
+    public static final class SortKey implements Comparable<SortKey> {
+
+        private final String className;
+        private final String partName;
+        private final int ordinalGeneration;
+        private final int classOrdinal;
+        private final int priority;
+        private final int partOrdinal;
+        private final int dimension;
+        private final long pos;
+        private final int side;
+        private final int hash;
+
+        SortKey(String className, String partName, int[] ordinals, int priority, int dimension, long pos, int side) {
+            this.className = className;
+            this.partName = partName;
+            this.classOrdinal = ordinals[0];
+            this.partOrdinal = ordinals[1];
+            this.ordinalGeneration = ordinals[2];
+            this.priority = priority;
+            this.dimension = dimension;
+            this.pos = pos;
+            this.side = side;
+
+            int hash = className.hashCode();
+            hash = 31 * hash + partName.hashCode();
+            hash = 31 * hash + dimension;
+            hash = 31 * hash + Long.hashCode(pos);
+            hash = 31 * hash + side;
+            this.hash = hash;
+        }
+
+        public static SortKey of(IPartType part, PartTarget target, int priority) {
+            int[] ordinals = PartTypeRegistry.getInstance().getPartTypeOrdinals(part);
+            DimPos centerPos = getCenterPos(target);
+            return new SortKey(part.getClass().getCanonicalName(), part.getUnlocalizedName(), ordinals, priority,
+                    centerPos.getDimensionId(), centerPos.getBlockPos().toLong(), getCenterSide(target).ordinal());
+        }
+
+        @Override
+        public int compareTo(SortKey o) {
+            boolean sameGeneration = this.ordinalGeneration == o.ordinalGeneration;
+            int comp = sameGeneration ? Integer.compare(this.classOrdinal, o.classOrdinal) : this.className.compareTo(o.className);
+            if (comp != 0) return comp;
+            comp = -Integer.compare(this.priority, o.priority);
+            if (comp != 0) return comp;
+            comp = sameGeneration ? Integer.compare(this.partOrdinal, o.partOrdinal) : this.partName.compareTo(o.partName);
+            if (comp != 0) return comp;
+            comp = Integer.compare(this.dimension, o.dimension);
+            if (comp != 0) return comp;
+            comp = Long.compare(this.pos, o.pos);
+            if (comp != 0) return comp;
+            return Integer.compare(this.side, o.side);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SortKey && compareTo((SortKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
 }
@@ -62,7 +62,8 @@ public class GuiNetworkDiagnostics extends JFrame {
                 List<ObservablePartData> parts = Lists.newArrayList();
                 for (RawPartData rawPartData : rawNetworkData.getParts()) {
                     ObservablePartData partData = new ObservablePartData(
-                            rawNetworkData.getId(), rawNetworkData.getCables(),
+                            rawNetworkData.getId(), rawNetworkData.getCables(), rawNetworkData.getMergedExpressions(),
+                            rawNetworkData.getCostliestExpressionId(), rawNetworkData.getCostliestExpressionSteps(),
                             rawPartData.getDimension(), rawPartData.getPos(),
                             rawPartData.getSide(), rawPartData.getName(),
                             rawPartData.getLast20TicksDurationNs());
@@ -122,6 +123,8 @@ public class GuiNetworkDiagnostics extends JFrame {
                         columnNames.clear();
                         columnNames.addElement(L10NHelpers.localize("gui.integrateddynamics.diagnostics.table.network"));
                         columnNames.addElement(L10NHelpers.localize("gui.integrateddynamics.diagnostics.table.cables"));
+                        columnNames.addElement(L10NHelpers.localize("gui.integrateddynamics.diagnostics.table.mergedexpressions"));
+                        columnNames.addElement(L10NHelpers.localize("gui.integrateddynamics.diagnostics.table.costliestexpression"));
                         columnNames.addElement(L10NHelpers.localize("gui.integrateddynamics.diagnostics.table.part"));
                         columnNames.addElement(L10NHelpers.localize("gui.integrateddynamics.diagnostics.table.ticktime"));
                         columnNames.addElement(L10NHelpers.localize("gui.integrateddynamics.diagnostics.table.dimension"));
@@ -135,6 +138,10 @@ public class GuiNetworkDiagnostics extends JFrame {
                             Vector<Object> row = new Vector<>();
                             row.add(observablePartData.getNetworkId());
                             row.add(observablePartData.getNetworkCables());
+                            row.add(observablePartData.getNetworkMergedExpressions());
+                            row.add(observablePartData.getNetworkCostliestExpressionId() >= 0
+                                    ? String.format("%s (%s)", observablePartData.getNetworkCostliestExpressionId(),
+                                            observablePartData.getNetworkCostliestExpressionSteps()) : "");
                             row.add(observablePartData.getName());
                             row.add(String.format("%.6f", ((double) observablePartData.getLast20TicksDurationNs()) / MinecraftHelpers.SECOND_IN_TICKS / 1000000));
                             row.add(observablePartData.getDimension());
@@ -152,10 +159,10 @@ public class GuiNetworkDiagnostics extends JFrame {
                                 public Class<?> getColumnClass(int column) {
                                     // My eyes are bleeding as I write this...
                                     // I'm terribly sorry, I must be going to hell now.
-                                    if (column == 0 || column == 1 || column == 4) {
+                                    if (column == 0 || column == 1 || column == 2 || column == 6) {
                                         return Integer.class;
                                     }
-                                    if (column == 3) {
+                                    if (column == 5) {
                                         return Long.class;
                                     }
                                     return String.class;
@@ -248,6 +255,9 @@ public class GuiNetworkDiagnostics extends JFrame {
     public static class ObservablePartData {
         private final int networkId;
         private final int networkCables;
+        private final int networkMergedExpressions;
+        private final int networkCostliestExpressionId;
+        private final long networkCostliestExpressionSteps;
         private final int dimension;
         private final BlockPos pos;
         private final EnumFacing side;
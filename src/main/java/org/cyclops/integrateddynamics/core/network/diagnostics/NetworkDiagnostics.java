@@ -7,8 +7,10 @@ import org.cyclops.cyclopscore.helper.L10NHelpers;
 import org.cyclops.integrateddynamics.IntegratedDynamics;
 import org.cyclops.integrateddynamics.api.network.INetwork;
 import org.cyclops.integrateddynamics.api.network.INetworkElement;
+import org.cyclops.integrateddynamics.api.network.IPartNetwork;
 import org.cyclops.integrateddynamics.api.network.IPartNetworkElement;
 import org.cyclops.integrateddynamics.api.part.PartPos;
+import org.cyclops.integrateddynamics.core.helper.NetworkHelpers;
 import org.cyclops.integrateddynamics.core.persist.world.NetworkWorldStorage;
 import org.cyclops.integrateddynamics.network.packet.NetworkDiagnosticsNetworkPacket;
 
@@ -66,7 +68,12 @@ public class NetworkDiagnostics {
                 // If needed, we can send the other part types later on as well
             }
         }
-        RawNetworkData rawNetworkData = new RawNetworkData(network.isKilled(), network.hashCode(), network.getCablesCount(), rawParts);
+        IPartNetwork partNetwork = NetworkHelpers.getPartNetwork(network);
+        int mergedExpressions = partNetwork != null ? partNetwork.getMergedExpressionCount() : 0;
+        int costliestExpressionId = partNetwork != null ? partNetwork.getCostliestExpressionId() : -1;
+        long costliestExpressionSteps = costliestExpressionId >= 0 ? partNetwork.getEvaluationCost(costliestExpressionId) : 0;
+        RawNetworkData rawNetworkData = new RawNetworkData(network.isKilled(), network.getId(), network.getCablesCount(),
+                rawParts, mergedExpressions, costliestExpressionId, costliestExpressionSteps);
         IntegratedDynamics._instance.getPacketHandler().sendToPlayer(new NetworkDiagnosticsNetworkPacket(rawNetworkData.toNbt()), player);
     }
 
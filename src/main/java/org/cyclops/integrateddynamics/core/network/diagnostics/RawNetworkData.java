@@ -18,10 +18,14 @@ public class RawNetworkData implements IRawData {
     private final int id;
     private final int cables;
     private final List<RawPartData> parts;
+    private final int mergedExpressions;
+    private final int costliestExpressionId;
+    private final long costliestExpressionSteps;
 
     @Override
     public String toString() {
-        return String.format("Network %s (cables: %s; elements: %s)", id, cables, parts.size());
+        return String.format("Network %s (cables: %s; elements: %s; merged expressions: %s; costliest expression: %s with %s steps)",
+                id, cables, parts.size(), mergedExpressions, costliestExpressionId, costliestExpressionSteps);
     }
 
     public NBTTagCompound toNbt() {
@@ -34,6 +38,9 @@ public class RawNetworkData implements IRawData {
             list.appendTag(part.toNbt());
         }
         tag.setTag("parts", list);
+        tag.setInteger("mergedExpressions", mergedExpressions);
+        tag.setInteger("costliestExpressionId", costliestExpressionId);
+        tag.setLong("costliestExpressionSteps", costliestExpressionSteps);
         return tag;
     }
 
@@ -45,7 +52,8 @@ public class RawNetworkData implements IRawData {
             parts.add(RawPartData.fromNbt(partTag));
         }
         return new RawNetworkData(tag.getBoolean("killed"), tag.getInteger("id"),
-                tag.getInteger("cables"), parts);
+                tag.getInteger("cables"), parts, tag.getInteger("mergedExpressions"),
+                tag.getInteger("costliestExpressionId"), tag.getLong("costliestExpressionSteps"));
     }
 
 }
@@ -18,6 +18,7 @@ import org.cyclops.integrateddynamics.api.part.IPartType;
 import org.cyclops.integrateddynamics.api.part.PartTarget;
 import org.cyclops.integrateddynamics.item.ItemVariable;
 
+import javax.annotation.Nullable;
 import java.util.List;
 
 /**
@@ -29,6 +30,7 @@ public abstract class PartStateActiveVariableBase<P extends IPartType>
 
     private boolean checkedForWriteVariable = false;
     protected IVariableFacade currentVariableFacade = null;
+    private IVariable preparedVariable = null;
     @Getter
     @Setter
     private boolean deactivated = false;
@@ -90,6 +92,40 @@ public abstract class PartStateActiveVariableBase<P extends IPartType>
         return currentVariableFacade.getVariable(network);
     }
 
+    /**
+     * Get the active variable in this state, without validating it if that has not been done yet.
+     * Contrary to {@link #getVariable(IPartNetwork)}, this never modifies this state,
+     * but the variable facade may still have to build its variable.
+     * @param <V> The variable value type.
+     * @param network The network.
+     * @return The variable, or null if it has not been validated yet.
+     */
+    @Nullable
+    public <V extends IValue> IVariable<V> getValidatedVariable(IPartNetwork network) {
+        if(!checkedForWriteVariable || currentVariableFacade == null) {
+            return null;
+        }
+        return currentVariableFacade.getVariable(network);
+    }
+
+    /**
+     * Resolve the active variable on the server thread, so that it can be evaluated off the server thread
+     * using {@link #getPreparedVariable()} without building any variables.
+     * @param network The network.
+     */
+    public void prepareVariable(IPartNetwork network) {
+        this.preparedVariable = getValidatedVariable(network);
+    }
+
+    /**
+     * @param <V> The variable value type.
+     * @return The variable that was resolved in the last {@link #prepareVariable(IPartNetwork)} call, or null.
+     */
+    @Nullable
+    public <V extends IValue> IVariable<V> getPreparedVariable() {
+        return preparedVariable;
+    }
+
     /**
      * Refresh the current variable to have its current info reset and updated.
      * @param partType The corresponding part type.
@@ -100,6 +136,7 @@ public abstract class PartStateActiveVariableBase<P extends IPartType>
         this.checkedForWriteVariable = false;
         addGlobalError(null);
         this.currentVariableFacade = null;
+        this.preparedVariable = null;
         //this.deactivated = false; // This *should* not be required anymore, re-activation is handled in AspectWriteBase#update.
     }
 
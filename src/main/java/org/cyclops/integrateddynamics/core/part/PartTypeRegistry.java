@@ -1,12 +1,17 @@
 package org.cyclops.integrateddynamics.core.part;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.cyclops.integrateddynamics.api.part.IPartState;
 import org.cyclops.integrateddynamics.api.part.IPartType;
 import org.cyclops.integrateddynamics.api.part.IPartTypeRegistry;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Registry for {@link IPartType}.
@@ -17,6 +22,8 @@ public final class PartTypeRegistry implements IPartTypeRegistry {
     private static PartTypeRegistry INSTANCE = new PartTypeRegistry();
 
     private Map<String, IPartType> partTypes = Maps.newHashMap();
+    private Map<IPartType, int[]> partTypeOrdinals = null;
+    private int partTypeOrdinalsGeneration = 0;
 
     private PartTypeRegistry() {
 
@@ -37,9 +44,50 @@ public final class PartTypeRegistry implements IPartTypeRegistry {
                     partTypes.get(partType.getName())));
         }
         partTypes.put(partType.getName(), partType);
+        partTypeOrdinals = null;
         return partType;
     }
 
+    /**
+     * Get the ordinals of the given part type, these are used for cheaply ordering part network elements.
+     * Part types are ordered by their class name first, and by their unlocalized name second.
+     * Ordinals are reassigned when part types are added, which increments the ordinal generation.
+     * Ordinals of different generations can not be compared to each other,
+     * but the order of part types never changes.
+     * @param partType A part type.
+     * @return The class ordinal, the part type ordinal and the ordinal generation.
+     */
+    public synchronized int[] getPartTypeOrdinals(IPartType partType) {
+        if (partTypeOrdinals == null || !partTypeOrdinals.containsKey(partType)) {
+            // Unregistered part types are included as well, so that their ordinals remain consistent.
+            Set<IPartType> orderedPartTypes = Sets.newIdentityHashSet();
+            orderedPartTypes.addAll(getPartTypes());
+            if (partTypeOrdinals != null) {
+                orderedPartTypes.addAll(partTypeOrdinals.keySet());
+            }
+            orderedPartTypes.add(partType);
+            List<IPartType> sortedPartTypes = Lists.newArrayList(orderedPartTypes);
+            sortedPartTypes.sort(Comparator
+                    .comparing((IPartType p) -> p.getClass().getCanonicalName())
+                    .thenComparing(IPartType::getUnlocalizedName));
+            Map<IPartType, int[]> ordinals = Maps.newIdentityHashMap();
+            int classOrdinal = -1;
+            String lastClassName = null;
+            for (int i = 0; i < sortedPartTypes.size(); i++) {
+                IPartType sortedPartType = sortedPartTypes.get(i);
+                String className = sortedPartType.getClass().getCanonicalName();
+                if (!className.equals(lastClassName)) {
+                    classOrdinal++;
+                    lastClassName = className;
+                }
+                ordinals.put(sortedPartType, new int[]{classOrdinal, i, partTypeOrdinalsGeneration + 1});
+            }
+            partTypeOrdinals = ordinals;
+            partTypeOrdinalsGeneration++;
+        }
+        return partTypeOrdinals.get(partType);
+    }
+
     @Override
     public Collection<IPartType> getPartTypes() {
         return partTypes.values();
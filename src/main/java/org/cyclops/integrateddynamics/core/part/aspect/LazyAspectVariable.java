@@ -3,8 +3,11 @@ package org.cyclops.integrateddynamics.core.part.aspect;
 import lombok.Getter;
 import lombok.NonNull;
 import org.apache.commons.lang3.tuple.Pair;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IObservableVariable;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariableInvalidateListener;
 import org.cyclops.integrateddynamics.api.part.IPartState;
 import org.cyclops.integrateddynamics.api.part.IPartType;
 import org.cyclops.integrateddynamics.api.part.PartPos;
@@ -12,19 +15,30 @@ import org.cyclops.integrateddynamics.api.part.PartTarget;
 import org.cyclops.integrateddynamics.api.part.aspect.IAspectRead;
 import org.cyclops.integrateddynamics.api.part.aspect.IAspectVariable;
 import org.cyclops.integrateddynamics.api.part.aspect.property.IAspectProperties;
+import org.cyclops.integrateddynamics.core.evaluate.ParallelNetworkEvaluation;
+import org.cyclops.integrateddynamics.core.evaluate.variable.VariableInvalidateListeners;
 
 /**
  * Variable for a specific aspect from a part that calculates its target value only maximum once per ticking interval.
  * No calculations will be done if the value of this variable is not called.
+ *
+ * If {@link GeneralConfig#reactiveVariableEvaluation} is enabled and other variables depend on this variable,
+ * the value is recalculated at each update, and dependents are only invalidated if the value changed.
+ *
+ * Values are never calculated while evaluating networks in parallel, see {@link ParallelNetworkEvaluation}.
+ * Values of readers that will be updated in the current tick are not used by those evaluations either,
+ * so that they see the same values as they would on the server thread.
  * @author rubensworks
  */
-public abstract class LazyAspectVariable<V extends IValue> implements IAspectVariable<V> {
+public abstract class LazyAspectVariable<V extends IValue> implements IAspectVariable<V>, IObservableVariable<V> {
 
     @Getter private final IValueType<V> type;
     @Getter private final PartTarget target;
     @Getter private final IAspectRead<V, ?> aspect;
     @NonNull private V value;
     private IAspectProperties cachedProperties = null;
+    private boolean updatePending = false;
+    private final VariableInvalidateListeners invalidateListeners = new VariableInvalidateListeners();
 
     public LazyAspectVariable(IValueType<V> type, PartTarget target, IAspectRead<V, ?> aspect) {
         this.type = type;
@@ -39,12 +53,58 @@ public abstract class LazyAspectVariable<V extends IValue> implements IAspectVar
 
     @Override
     public void update() {
-        value = null;
+        updatePending = false;
         cachedProperties = null;
+        if (!GeneralConfig.reactiveVariableEvaluation) {
+            // Dependents do not reuse their values, so they do not have to be invalidated.
+            value = null;
+            return;
+        }
+        if (value != null && !invalidateListeners.isEmpty()) {
+            V oldValue = value;
+            value = null;
+            try {
+                if (oldValue.equals(getValue())) {
+                    return;
+                }
+            } catch (RuntimeException e) {
+                // The error will be thrown again when the dependents read this variable.
+                value = null;
+            }
+        } else {
+            value = null;
+        }
+        invalidateListeners.invalidate();
+    }
+
+    @Override
+    public boolean isChangeTracked() {
+        return true;
+    }
+
+    @Override
+    public void addInvalidateListener(IVariableInvalidateListener listener) {
+        invalidateListeners.add(listener);
+    }
+
+    @Override
+    public void removeInvalidateListener(IVariableInvalidateListener listener) {
+        invalidateListeners.remove(listener);
+    }
+
+    /**
+     * Indicate that this variable will be updated later in the current tick,
+     * so that its current value is not used by evaluations in parallel before that.
+     */
+    public void markUpdatePending() {
+        updatePending = true;
     }
 
     @Override
     public V getValue() {
+        if (value == null || updatePending) {
+            ParallelNetworkEvaluation.checkWorldRead();
+        }
         if(value == null) {
             this.value = getValueLazy();
         }
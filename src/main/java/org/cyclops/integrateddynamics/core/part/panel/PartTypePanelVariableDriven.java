@@ -147,6 +147,27 @@ public abstract class PartTypePanelVariableDriven<P extends PartTypePanelVariabl
         }
     }
 
+    @Override
+    public void prepareEvaluateUpdate(INetwork network, IPartNetwork partNetwork, PartTarget target, S state) {
+        super.prepareEvaluateUpdate(network, partNetwork, target, state);
+        state.prepareVariable(partNetwork);
+    }
+
+    @Override
+    public void evaluateUpdate(INetwork network, IPartNetwork partNetwork, PartTarget target, S state) {
+        super.evaluateUpdate(network, partNetwork, target, state);
+        if(state.hasVariable()) {
+            IVariable variable = state.getPreparedVariable();
+            if(variable != null) {
+                try {
+                    variable.getValue();
+                } catch (EvaluationException e) {
+                    // Errors are reported when this part is being updated.
+                }
+            }
+        }
+    }
+
     protected void onValueChanged(INetwork network, IPartNetwork partNetwork, PartTarget target, S state,
                                   IValue lastValue, IValue newValue) {
         if (newValue == null) {
@@ -17,6 +17,7 @@ import org.cyclops.integrateddynamics.api.part.read.IPartStateReader;
 import org.cyclops.integrateddynamics.api.part.read.IPartTypeReader;
 import org.cyclops.integrateddynamics.client.gui.GuiPartReader;
 import org.cyclops.integrateddynamics.core.part.PartTypeAspects;
+import org.cyclops.integrateddynamics.core.part.aspect.LazyAspectVariable;
 import org.cyclops.integrateddynamics.inventory.container.ContainerPartReader;
 import org.cyclops.integrateddynamics.part.aspect.Aspects;
 
@@ -57,6 +58,18 @@ public abstract class PartTypeReadBase<P extends IPartTypeReader<P, S>, S extend
         }
     }
 
+    @Override
+    public void prepareEvaluateUpdate(INetwork network, IPartNetwork partNetwork, PartTarget target, S state) {
+        super.prepareEvaluateUpdate(network, partNetwork, target, state);
+        // Our values will be updated later in this tick, so they can not be used by parallel evaluations before that.
+        for(IAspectRead aspect : getReadAspects()) {
+            IAspectVariable variable = state.getVariable(aspect);
+            if (variable instanceof LazyAspectVariable && variable.requiresUpdate()) {
+                ((LazyAspectVariable) variable).markUpdatePending();
+            }
+        }
+    }
+
     @Override
     public List<IAspectRead> getReadAspects() {
         if (aspectsRead == null) {
@@ -13,6 +13,7 @@ import net.minecraftforge.fml.relauncher.Side;
 import net.minecraftforge.fml.relauncher.SideOnly;
 import org.cyclops.cyclopscore.config.extendedconfig.BlockConfig;
 import org.cyclops.cyclopscore.helper.L10NHelpers;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
 import org.cyclops.integrateddynamics.api.network.INetwork;
@@ -32,6 +33,7 @@ import org.cyclops.integrateddynamics.core.helper.L10NValues;
 import org.cyclops.integrateddynamics.core.helper.NetworkHelpers;
 import org.cyclops.integrateddynamics.core.network.event.NetworkElementAddEvent;
 import org.cyclops.integrateddynamics.core.network.event.VariableContentsUpdatedEvent;
+import org.cyclops.integrateddynamics.core.part.PartStateActiveVariableBase;
 import org.cyclops.integrateddynamics.core.part.PartTypeAspects;
 import org.cyclops.integrateddynamics.core.part.event.PartWriterAspectEvent;
 import org.cyclops.integrateddynamics.inventory.container.ContainerPartWriter;
@@ -97,6 +99,31 @@ public abstract class PartTypeWriteBase<P extends IPartTypeWriter<P, S>, S exten
         }
     }
 
+    @Override
+    public void prepareEvaluateUpdate(INetwork network, IPartNetwork partNetwork, PartTarget target, S state) {
+        super.prepareEvaluateUpdate(network, partNetwork, target, state);
+        if (state instanceof PartStateActiveVariableBase) {
+            ((PartStateActiveVariableBase) state).prepareVariable(partNetwork);
+        }
+    }
+
+    @Override
+    public void evaluateUpdate(INetwork network, IPartNetwork partNetwork, PartTarget target, S state) {
+        super.evaluateUpdate(network, partNetwork, target, state);
+        IAspectWrite aspect = getActiveAspect(target, state);
+        if (aspect != null && state instanceof PartStateActiveVariableBase && state.getErrors(aspect).isEmpty()) {
+            IVariable variable = ((PartStateActiveVariableBase) state).getPreparedVariable();
+            if (variable != null) {
+                // Variables that depend on the world abandon this evaluation, and are evaluated when the aspect is being written.
+                try {
+                    variable.getValue();
+                } catch (EvaluationException e) {
+                    // Errors are reported when the aspect is being written.
+                }
+            }
+        }
+    }
+
     @Override
     public void addDrops(PartTarget target, S state, List<ItemStack> itemStacks, boolean dropMainElement) {
         for(int i = 0; i < state.getInventory().getSizeInventory(); i++) {
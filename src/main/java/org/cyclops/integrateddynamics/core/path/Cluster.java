@@ -1,6 +1,5 @@
 package org.cyclops.integrateddynamics.core.path;
 
-import com.google.common.collect.Sets;
 import lombok.Data;
 import lombok.experimental.Delegate;
 import net.minecraft.nbt.NBTTagCompound;
@@ -18,10 +17,10 @@ import org.cyclops.integrateddynamics.capability.path.PathElementConfig;
 
 import java.util.Collection;
 import java.util.Set;
-import java.util.TreeSet;
 
 /**
  * A cluster for a collection of path elements.
+ * Path elements are identified by their position.
  * @author rubensworks
  */
 @Data
@@ -34,10 +33,10 @@ public class Cluster implements Collection<IPathElement>, INBTSerializable {
      * This constructor should not be called, except for the process of constructing networks from NBT.
      */
     public Cluster() {
-        this.elements = Sets.newTreeSet();
+        this.elements = new PathElementSet();
     }
 
-    public Cluster(TreeSet<IPathElement> elements) {
+    public Cluster(PathElementSet elements) {
         this.elements = elements;
     }
 
@@ -0,0 +1,52 @@
+package org.cyclops.integrateddynamics.core.path;
+
+import com.google.common.collect.Maps;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.api.path.IPathElement;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A set of path elements in which elements are identified by their position, in the order they were added.
+ *
+ * Unlike a sorted set, elements are added, removed and found in constant time,
+ * so that a cluster can be built in a single linear pass over its elements.
+ * This matches the {@link IPathElement} comparators, which consider elements at the same position equal.
+ * @author rubensworks
+ */
+public class PathElementSet extends AbstractSet<IPathElement> {
+
+    private final Map<DimPos, IPathElement> elements = Maps.newLinkedHashMap();
+
+    @Override
+    public boolean add(IPathElement element) {
+        return elements.putIfAbsent(element.getPosition(), element) == null;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof IPathElement && elements.containsKey(((IPathElement) o).getPosition());
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof IPathElement && elements.remove(((IPathElement) o).getPosition()) != null;
+    }
+
+    @Override
+    public Iterator<IPathElement> iterator() {
+        return elements.values().iterator();
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public void clear() {
+        elements.clear();
+    }
+}
@@ -1,11 +1,17 @@
 package org.cyclops.integrateddynamics.core.path;
 
-import com.google.common.collect.Sets;
+import com.google.common.collect.Lists;
+import gnu.trove.impl.Constants;
+import gnu.trove.map.TIntObjectMap;
+import gnu.trove.map.TLongIntMap;
+import gnu.trove.map.hash.TIntObjectHashMap;
+import gnu.trove.map.hash.TLongIntHashMap;
 import org.cyclops.cyclopscore.datastructure.DimPos;
 import org.cyclops.integrateddynamics.api.path.IPathElement;
 
-import java.util.Set;
-import java.util.TreeSet;
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.List;
 
 /**
  * Algorithm to construct paths/clusters of {@link IPathElement}s.
@@ -13,35 +19,202 @@ import java.util.TreeSet;
  */
 public final class PathFinder {
 
-    protected static TreeSet<IPathElement> getConnectedElements(IPathElement head, Set<DimPos> visitedPositions) {
-        TreeSet<IPathElement> elements = Sets.newTreeSet();
+    /**
+     * Find all path elements that are connected to the given head using a breadth-first traversal.
+     * The cluster is built in the same single pass, so this takes linear time in the number of elements.
+     * @param head The path element to start from.
+     * @return The cluster of connected path elements, including the head.
+     */
+    public static Cluster getConnectedCluster(IPathElement head) {
+        PathElementSet elements = new PathElementSet();
+        ArrayDeque<IPathElement> frontier = new ArrayDeque<>();
+
+        elements.add(head);
+        frontier.add(head);
+        IPathElement element;
+        while ((element = frontier.poll()) != null) {
+            for (IPathElement neighbour : element.getReachableElements()) {
+                if (elements.add(neighbour)) {
+                    frontier.add(neighbour);
+                }
+            }
+        }
 
-        // Make sure to add our head
-        if(!visitedPositions.contains(head.getPosition())) {
-            elements.add(head);
-            visitedPositions.add(head.getPosition());
+        return new Cluster(elements);
+    }
+
+    /**
+     * Find the clusters that became disconnected from each other,
+     * starting from path elements that were part of the same cluster before.
+     *
+     * A search is started from each head, and these searches are advanced in an interleaved manner.
+     * Searches that meet each other are joined, and a group of searches that runs out of elements
+     * forms a disconnected cluster.
+     * The search stops as soon as only one group remains, so that the largest cluster,
+     * which is the one that remains in the original network, never has to be traversed completely.
+     *
+     * This assumes that the reachability of path elements is symmetric.
+     * @param heads The path elements to start from.
+     * @return The disconnected clusters, excluding the remaining largest cluster.
+     *         Null if the path elements were found to be reachable in only one direction,
+     *         in which case the connected clusters must be determined for each head separately.
+     */
+    public static @Nullable List<Cluster> getDisconnectedClusters(List<IPathElement> heads) {
+        int searches = heads.size();
+        int[] groups = new int[searches];
+        boolean[] closed = new boolean[searches];
+        List<ArrayDeque<IPathElement>> frontiers = Lists.newArrayListWithCapacity(searches);
+        // Each position is owned by a single search, so the elements of each search are distinct.
+        List<List<IPathElement>> visitedElements = Lists.newArrayListWithCapacity(searches);
+        PositionMap owners = new PositionMap();
+
+        int activeGroups = 0;
+        for (int i = 0; i < searches; i++) {
+            IPathElement head = heads.get(i);
+            groups[i] = i;
+            frontiers.add(new ArrayDeque<>());
+            visitedElements.add(Lists.newArrayList());
+            int owner = owners.putIfAbsent(head.getPosition(), i);
+            if (owner == PositionMap.NO_VALUE) {
+                frontiers.get(i).add(head);
+                visitedElements.get(i).add(head);
+                activeGroups++;
+            } else {
+                groups[i] = getGroup(groups, owner);
+            }
         }
 
-        // Add neighbours that haven't been checked yet.
-        for(IPathElement neighbour : head.getReachableElements()) {
-            if(!visitedPositions.contains(neighbour.getPosition())) {
-                elements.add(neighbour);
-                visitedPositions.add(neighbour.getPosition());
+        List<Integer> closedGroups = Lists.newArrayList();
+        while (activeGroups > 1) {
+            // Advance each search by one element.
+            for (int i = 0; i < searches; i++) {
+                IPathElement element = frontiers.get(i).poll();
+                if (element == null) {
+                    continue;
+                }
+                for (IPathElement neighbour : element.getReachableElements()) {
+                    int owner = owners.putIfAbsent(neighbour.getPosition(), i);
+                    if (owner == PositionMap.NO_VALUE) {
+                        frontiers.get(i).add(neighbour);
+                        visitedElements.get(i).add(neighbour);
+                    } else {
+                        int ownerGroup = getGroup(groups, owner);
+                        int group = getGroup(groups, i);
+                        if (ownerGroup != group) {
+                            if (closed[ownerGroup]) {
+                                return null;
+                            }
+                            groups[ownerGroup] = group;
+                            activeGroups--;
+                        }
+                    }
+                }
+            }
+
+            // Close the groups of which all searches are exhausted.
+            List<Integer> exhaustedGroups = Lists.newArrayList();
+            for (int i = 0; i < searches; i++) {
+                if (groups[i] == i && !closed[i] && isGroupExhausted(groups, frontiers, i)) {
+                    exhaustedGroups.add(i);
+                }
+            }
+            if (!exhaustedGroups.isEmpty() && exhaustedGroups.size() == activeGroups) {
+                // Everything has been traversed, the largest cluster remains in the original network.
+                Integer largestGroup = null;
+                int largestSize = -1;
+                for (Integer group : exhaustedGroups) {
+                    int size = getGroupSize(groups, visitedElements, group);
+                    if (size > largestSize) {
+                        largestGroup = group;
+                        largestSize = size;
+                    }
+                }
+                exhaustedGroups.remove(largestGroup);
+            }
+            for (Integer group : exhaustedGroups) {
+                closed[group] = true;
+                closedGroups.add(group);
+                activeGroups--;
             }
         }
 
-        // Loop over the added neighbours to recursively check their neighbours.
-        Set<IPathElement> neighbourElements = Sets.newHashSet();
-        for(IPathElement addedElement : elements) {
-            neighbourElements.addAll(getConnectedElements(addedElement, visitedPositions));
+        List<Cluster> clusters = Lists.newArrayListWithCapacity(closedGroups.size());
+        for (Integer group : closedGroups) {
+            PathElementSet elements = new PathElementSet();
+            for (int i = 0; i < searches; i++) {
+                if (getGroup(groups, i) == group) {
+                    elements.addAll(visitedElements.get(i));
+                }
+            }
+            clusters.add(new Cluster(elements));
         }
-        elements.addAll(neighbourElements);
+        return clusters;
+    }
 
-        return elements;
+    protected static int getGroup(int[] groups, int search) {
+        int group = search;
+        while (groups[group] != group) {
+            group = groups[group];
+        }
+        groups[search] = group;
+        return group;
     }
 
-    public static Cluster getConnectedCluster(IPathElement head) {
-        return new Cluster(getConnectedElements(head, Sets.<DimPos>newTreeSet()));
+    protected static boolean isGroupExhausted(int[] groups, List<ArrayDeque<IPathElement>> frontiers, int group) {
+        for (int i = 0; i < groups.length; i++) {
+            if (getGroup(groups, i) == group && !frontiers.get(i).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected static int getGroupSize(int[] groups, List<List<IPathElement>> visitedElements, int group) {
+        int size = 0;
+        for (int i = 0; i < groups.length; i++) {
+            if (getGroup(groups, i) == group) {
+                size += visitedElements.get(i).size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * A map from positions to non-negative integers,
+     * backed by primitive maps per dimension that are keyed by {@link net.minecraft.util.math.BlockPos#toLong()}.
+     */
+    protected static class PositionMap {
+
+        public static final int NO_VALUE = -1;
+
+        private final TIntObjectMap<TLongIntMap> dimensions = new TIntObjectHashMap<>();
+        private int lastDimension;
+        private TLongIntMap lastPositions = null;
+
+        protected TLongIntMap getPositions(int dimension) {
+            if (lastPositions == null || lastDimension != dimension) {
+                TLongIntMap positions = dimensions.get(dimension);
+                if (positions == null) {
+                    positions = new TLongIntHashMap(Constants.DEFAULT_CAPACITY, Constants.DEFAULT_LOAD_FACTOR,
+                            0, NO_VALUE);
+                    dimensions.put(dimension, positions);
+                }
+                lastDimension = dimension;
+                lastPositions = positions;
+            }
+            return lastPositions;
+        }
+
+        /**
+         * Set the value of the given position if it did not have a value yet.
+         * @param pos The position.
+         * @param value The value to set.
+         * @return The previous value, or {@link #NO_VALUE} if the value was set.
+         */
+        public int putIfAbsent(DimPos pos, int value) {
+            return getPositions(pos.getDimensionId()).putIfAbsent(pos.getBlockPos().toLong(), value);
+        }
+
     }
 
 }
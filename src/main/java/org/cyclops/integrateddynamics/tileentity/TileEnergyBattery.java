@@ -6,6 +6,7 @@ import net.minecraft.world.World;
 import net.minecraftforge.energy.CapabilityEnergy;
 import org.cyclops.cyclopscore.datastructure.DimPos;
 import org.cyclops.cyclopscore.persist.nbt.NBTPersist;
+import org.cyclops.integrateddynamics.api.network.IEnergyNetwork;
 import org.cyclops.integrateddynamics.api.network.INetworkElement;
 import org.cyclops.integrateddynamics.block.BlockEnergyBatteryBase;
 import org.cyclops.integrateddynamics.block.BlockEnergyBatteryConfig;
@@ -13,9 +14,12 @@ import org.cyclops.integrateddynamics.capability.energystorage.IEnergyStorageCap
 import org.cyclops.integrateddynamics.capability.networkelementprovider.NetworkElementProviderConfig;
 import org.cyclops.integrateddynamics.capability.networkelementprovider.NetworkElementProviderSingleton;
 import org.cyclops.integrateddynamics.core.helper.EnergyHelpers;
+import org.cyclops.integrateddynamics.core.helper.NetworkHelpers;
 import org.cyclops.integrateddynamics.core.tileentity.TileCableConnectable;
 import org.cyclops.integrateddynamics.network.EnergyBatteryNetworkElement;
 
+import javax.annotation.Nullable;
+
 /**
  * A part entity used to store variables.
  * Internally, this also acts as an expression cache
@@ -71,6 +75,10 @@ public class TileEnergyBattery extends TileCableConnectable implements IEnergySt
             if (lastEnergy != energy) {
                 this.energy = energy;
                 sendUpdate();
+                IEnergyNetwork energyNetwork = getEnergyNetwork();
+                if (energyNetwork != null) {
+                    energyNetwork.invalidateEnergyStored();
+                }
             }
         }
     }
@@ -127,5 +135,17 @@ public class TileEnergyBattery extends TileCableConnectable implements IEnergySt
     @Override
     public void setCapacity(int capacity) {
         this.capacity = capacity;
+        IEnergyNetwork energyNetwork = getEnergyNetwork();
+        if (energyNetwork != null) {
+            energyNetwork.invalidateMaxEnergyStored();
+        }
+    }
+
+    @Nullable
+    protected IEnergyNetwork getEnergyNetwork() {
+        if (getWorld() == null || getWorld().isRemote) {
+            return null;
+        }
+        return NetworkHelpers.getEnergyNetwork(NetworkHelpers.getNetwork(getWorld(), getPos()));
     }
 }
@@ -0,0 +1,38 @@
+package org.cyclops.integrateddynamics;
+
+import org.junit.rules.ExternalResource;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A test rule to override static config options, such as those of {@link GeneralConfig}, during a single test.
+ * All overridden options are restored to their original value after the test, also if it failed.
+ * @author rubensworks
+ */
+public class ConfigOverrides extends ExternalResource {
+
+    private final Deque<Runnable> restores = new ArrayDeque<>();
+
+    /**
+     * Override a config option until the end of the test.
+     * @param getter The getter of the option.
+     * @param setter The setter of the option.
+     * @param value The value to set.
+     * @param <T> The type of the option.
+     */
+    public <T> void set(Supplier<T> getter, Consumer<T> setter, T value) {
+        T originalValue = getter.get();
+        restores.push(() -> setter.accept(originalValue));
+        setter.accept(value);
+    }
+
+    @Override
+    protected void after() {
+        while (!restores.isEmpty()) {
+            restores.pop().run();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.cyclops.integrateddynamics.core.evaluate.expression;
+
+import net.minecraft.util.math.BlockPos;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.api.item.IVariableFacade;
+import org.cyclops.integrateddynamics.core.item.OperatorVariableFacade;
+import org.cyclops.integrateddynamics.core.item.ValueTypeVariableFacade;
+import org.cyclops.integrateddynamics.core.network.DummyPartNetwork;
+
+import java.util.Map;
+
+/**
+ * A part network with a single variable container to which variables can be added directly.
+ * @author rubensworks
+ */
+public class DummyExpressionNetwork extends DummyPartNetwork {
+
+    private final Map<Integer, IVariableFacade> variables;
+
+    public DummyExpressionNetwork() {
+        DimPos dimPos = DimPos.of(0, new BlockPos(0, 0, 0));
+        this.variables = putContainer(dimPos).getVariableCache();
+        addVariableContainer(dimPos);
+    }
+
+    public void addConstant(int id, IValue value) {
+        variables.put(id, new ValueTypeVariableFacade<>(id, value.getType(), value));
+    }
+
+    public void addInput(int id, IVariable variable) {
+        variables.put(id, new DummyVariableFacade(id, variable));
+    }
+
+    public OperatorVariableFacade addOperator(int id, IOperator operator, int... variableIds) {
+        OperatorVariableFacade facade = new OperatorVariableFacade(id, operator, variableIds);
+        variables.put(id, facade);
+        return facade;
+    }
+}
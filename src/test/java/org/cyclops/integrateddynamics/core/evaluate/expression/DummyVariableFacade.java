@@ -0,0 +1,50 @@
+package org.cyclops.integrateddynamics.core.evaluate.expression;
+
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import org.cyclops.integrateddynamics.api.client.model.IVariableModelBaked;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.api.network.IPartNetwork;
+import org.cyclops.integrateddynamics.core.item.VariableFacadeBase;
+
+import java.util.List;
+
+/**
+ * A variable facade for a given variable, of which the value is not known in advance.
+ * @author rubensworks
+ */
+public class DummyVariableFacade extends VariableFacadeBase {
+
+    private final IVariable variable;
+
+    public DummyVariableFacade(int id, IVariable variable) {
+        super(id);
+        this.variable = variable;
+    }
+
+    @Override
+    public <V extends IValue> IVariable<V> getVariable(IPartNetwork network) {
+        return variable;
+    }
+
+    @Override
+    public boolean isValid() {
+        return true;
+    }
+
+    @Override
+    public void validate(IPartNetwork network, IValidator validator, IValueType containingValueType) {
+
+    }
+
+    @Override
+    public IValueType getOutputType() {
+        return variable.getType();
+    }
+
+    @Override
+    public void addModelOverlay(IVariableModelBaked variableModelBaked, List<BakedQuad> quads) {
+
+    }
+}
@@ -0,0 +1,415 @@
+package org.cyclops.integrateddynamics.core.evaluate.expression;
+
+import org.cyclops.integrateddynamics.ConfigOverrides;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.api.item.IOperatorVariableFacade;
+import org.cyclops.integrateddynamics.core.evaluate.OperatorBuilders;
+import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
+import org.cyclops.integrateddynamics.core.evaluate.variable.DummyVariableInteger;
+import org.cyclops.integrateddynamics.core.evaluate.variable.DummyVariableString;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeBoolean;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeInteger;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeString;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
+import org.cyclops.integrateddynamics.core.evaluate.variable.Variable;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.function.Consumer;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the compilation of operator expressions.
+ */
+public class TestCompiledExpression {
+
+    private static final int ROOT = 100;
+
+    @Rule
+    public final ConfigOverrides config = new ConfigOverrides();
+
+    protected static ValueTypeInteger.ValueInteger i(int value) {
+        return ValueTypeInteger.ValueInteger.of(value);
+    }
+
+    @Before
+    public void beforeEach() {
+        // Expressions are only compiled explicitly, so that variables can also be interpreted.
+        config.set(() -> GeneralConfig.compileOperatorExpressions, value -> GeneralConfig.compileOperatorExpressions = value, false);
+    }
+
+    protected static IValue evaluateInterpreted(DummyExpressionNetwork network, int id) throws EvaluationException {
+        IVariable variable = network.getVariableFacade(id).getVariable(network);
+        assertThat(variable instanceof LazyExpression, is(true));
+        return variable.getValue();
+    }
+
+    protected static CompiledExpression compile(DummyExpressionNetwork network, int id) {
+        CompiledExpression expression = CompiledExpression.compile((IOperatorVariableFacade) network.getVariableFacade(id), network);
+        assertThat(expression, notNullValue());
+        return expression;
+    }
+
+    /**
+     * Build the same expression in two separate networks, so that they do not share cached values,
+     * and check that compiling the expression produces the same value as interpreting it.
+     * @param builder The expression builder, which must add the {@link #ROOT} variable.
+     * @param expected The expected value.
+     * @return The compiled expression.
+     */
+    protected static CompiledExpression assertCompiledEqualsInterpreted(Consumer<DummyExpressionNetwork> builder,
+                                                                        IValue expected) throws EvaluationException {
+        DummyExpressionNetwork interpretedNetwork = new DummyExpressionNetwork();
+        builder.accept(interpretedNetwork);
+        DummyExpressionNetwork compiledNetwork = new DummyExpressionNetwork();
+        builder.accept(compiledNetwork);
+
+        assertThat("the interpreted value is correct", evaluateInterpreted(interpretedNetwork, ROOT), is(expected));
+        CompiledExpression expression = compile(compiledNetwork, ROOT);
+        assertThat("the compiled value is correct", expression.getValue(), is(expected));
+        return expression;
+    }
+
+    @Test
+    public void testArithmetic() throws EvaluationException {
+        DummyVariableInteger a = new DummyVariableInteger(i(3));
+        Consumer<DummyExpressionNetwork> builder = network -> {
+            network.addInput(1, a);
+            network.addConstant(2, i(4));
+            network.addOperator(10, Operators.ARITHMETIC_ADDITION, 1, 2);
+            network.addOperator(11, Operators.ARITHMETIC_MULTIPLICATION, 10, 10);
+            network.addOperator(ROOT, Operators.ARITHMETIC_SUBTRACTION, 11, 1);
+        };
+        assertCompiledEqualsInterpreted(builder, i(46));
+
+        a.setValue(i(5));
+        assertCompiledEqualsInterpreted(builder, i(76));
+    }
+
+    @Test
+    public void testReevaluate() throws EvaluationException {
+        DummyVariableInteger a = new DummyVariableInteger(i(3));
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        network.addInput(1, a);
+        network.addOperator(10, Operators.INTEGER_INCREMENT, 1);
+        network.addOperator(ROOT, Operators.ARITHMETIC_MULTIPLICATION, 10, 1);
+        CompiledExpression expression = compile(network, ROOT);
+        assertThat(expression.getValue(), is(i(12)));
+
+        a.setValue(i(5));
+        network.update();
+        assertThat("the compiled expression reads its input again in the next tick", expression.getValue(), is(i(30)));
+    }
+
+    @Test
+    public void testChoice() throws EvaluationException {
+        DummyVariableInteger a = new DummyVariableInteger(i(3));
+        Consumer<DummyExpressionNetwork> builder = network -> {
+            network.addInput(1, a);
+            network.addConstant(2, i(4));
+            network.addConstant(3, ValueTypeString.ValueString.of("small"));
+            network.addConstant(4, ValueTypeString.ValueString.of("big"));
+            network.addOperator(10, Operators.RELATIONAL_GT, 1, 2);
+            network.addOperator(ROOT, Operators.GENERAL_CHOICE, 10, 4, 3);
+        };
+        assertCompiledEqualsInterpreted(builder, ValueTypeString.ValueString.of("small"));
+
+        a.setValue(i(5));
+        assertCompiledEqualsInterpreted(builder, ValueTypeString.ValueString.of("big"));
+    }
+
+    @Test
+    public void testConstantFolding() throws EvaluationException {
+        DummyVariableInteger a = new DummyVariableInteger(i(3));
+        CompiledExpression expression = assertCompiledEqualsInterpreted(network -> {
+            network.addInput(1, a);
+            network.addConstant(2, i(4));
+            network.addConstant(3, i(5));
+            network.addOperator(10, Operators.ARITHMETIC_ADDITION, 2, 3);
+            network.addOperator(11, Operators.ARITHMETIC_MULTIPLICATION, 10, 10);
+            network.addOperator(ROOT, Operators.ARITHMETIC_ADDITION, 11, 1);
+        }, i(84));
+        assertThat("constant nodes are folded", expression.getNodeCount(), is(1));
+    }
+
+    @Test
+    public void testConstantFoldingRoot() throws EvaluationException {
+        CompiledExpression expression = assertCompiledEqualsInterpreted(network -> {
+            network.addConstant(1, ValueTypeString.ValueString.of("a"));
+            network.addConstant(2, ValueTypeString.ValueString.of("b"));
+            network.addOperator(10, Operators.STRING_CONCAT, 1, 2);
+            network.addOperator(ROOT, Operators.STRING_CONCAT, 10, 10);
+        }, ValueTypeString.ValueString.of("abab"));
+        assertThat("constant expressions are folded entirely", expression.getNodeCount(), is(0));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testConstantFoldingInvalid() throws EvaluationException {
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        network.addConstant(1, ValueTypeString.ValueString.of("a"));
+        network.addConstant(2, i(4));
+        network.addOperator(ROOT, Operators.ARITHMETIC_ADDITION, 1, 2);
+        CompiledExpression expression = compile(network, ROOT);
+        assertThat("invalid constant nodes are not folded", expression.getNodeCount(), is(1));
+        expression.getValue();
+    }
+
+    protected static IOperator createCountingOperator(int[] evaluations, boolean pure) {
+        return OperatorBuilders.INTEGER_1_SUFFIX.symbol("count").operatorName("count").pure(pure)
+                .function(variables -> {
+                    ValueTypeInteger.ValueInteger a = variables.getValue(0);
+                    return i(a.getRawValue() + evaluations[0]++);
+                }).build();
+    }
+
+    @Test
+    public void testConstantFoldingImpure() throws EvaluationException {
+        int[] evaluations = new int[1];
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        network.addConstant(1, i(10));
+        network.addOperator(ROOT, createCountingOperator(evaluations, false), 1);
+        CompiledExpression expression = compile(network, ROOT);
+        assertThat("impure operators are not folded", expression.getNodeCount(), is(1));
+        assertThat(evaluations[0], is(0));
+        assertThat(expression.getValue(), is(i(10)));
+
+        network.update();
+        assertThat("impure operators are evaluated again in the next tick", expression.getValue(), is(i(11)));
+        assertThat(evaluations[0], is(2));
+    }
+
+    @Test
+    public void testConstantFoldingPure() throws EvaluationException {
+        int[] evaluations = new int[1];
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        network.addConstant(1, i(10));
+        network.addOperator(ROOT, createCountingOperator(evaluations, true), 1);
+        CompiledExpression expression = compile(network, ROOT);
+        assertThat("pure operators are folded", expression.getNodeCount(), is(0));
+        assertThat(evaluations[0], is(1));
+
+        network.update();
+        assertThat(expression.getValue(), is(i(10)));
+        assertThat("folded operators are not evaluated again", evaluations[0], is(1));
+    }
+
+    protected static void addGreaterThan(DummyExpressionNetwork network, int id, DummyVariableInteger a, int value) {
+        network.addInput(id + 1, a);
+        network.addConstant(id + 2, i(value));
+        network.addOperator(id, Operators.RELATIONAL_GT, id + 1, id + 2);
+    }
+
+    @Test
+    public void testShortCircuitAnd() throws EvaluationException {
+        DummyVariableInteger a = new DummyVariableInteger(i(3));
+        CompiledExpression expression = assertCompiledEqualsInterpreted(network -> {
+            network.addConstant(1, ValueTypeBoolean.ValueBoolean.of(false));
+            addGreaterThan(network, 10, a, 4);
+            network.addOperator(ROOT, Operators.LOGICAL_AND, 1, 10);
+        }, ValueTypeBoolean.ValueBoolean.of(false));
+        assertThat(expression.getNodeCount(), is(1));
+
+        DummyVariableInteger b = new DummyVariableInteger(i(5));
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        network.addConstant(1, ValueTypeBoolean.ValueBoolean.of(false));
+        addGreaterThan(network, 10, b, 4);
+        network.addOperator(ROOT, Operators.LOGICAL_AND, 1, 10);
+        assertThat(compile(network, ROOT).getValue(), is(ValueTypeBoolean.ValueBoolean.of(false)));
+        assertThat("the short-circuited input is not evaluated", b.isFetched(), is(false));
+    }
+
+    @Test
+    public void testShortCircuitAndNeutral() throws EvaluationException {
+        DummyVariableInteger a = new DummyVariableInteger(i(5));
+        Consumer<DummyExpressionNetwork> builder = network -> {
+            network.addConstant(1, ValueTypeBoolean.ValueBoolean.of(true));
+            addGreaterThan(network, 10, a, 4);
+            network.addOperator(ROOT, Operators.LOGICAL_AND, 10, 1);
+        };
+        CompiledExpression expression = assertCompiledEqualsInterpreted(builder, ValueTypeBoolean.ValueBoolean.of(true));
+        assertThat("the neutral input is removed", expression.getNodeCount(), is(1));
+
+        a.setValue(i(3));
+        assertCompiledEqualsInterpreted(builder, ValueTypeBoolean.ValueBoolean.of(false));
+    }
+
+    @Test
+    public void testShortCircuitOr() throws EvaluationException {
+        DummyVariableInteger a = new DummyVariableInteger(i(3));
+        Consumer<DummyExpressionNetwork> builder = network -> {
+            network.addConstant(1, ValueTypeBoolean.ValueBoolean.of(true));
+            addGreaterThan(network, 10, a, 4);
+            network.addOperator(ROOT, Operators.LOGICAL_OR, 1, 10);
+        };
+        assertCompiledEqualsInterpreted(builder, ValueTypeBoolean.ValueBoolean.of(true));
+
+        Consumer<DummyExpressionNetwork> builderAbsorbingLast = network -> {
+            network.addConstant(1, ValueTypeBoolean.ValueBoolean.of(true));
+            addGreaterThan(network, 10, a, 4);
+            network.addOperator(ROOT, Operators.LOGICAL_OR, 10, 1);
+        };
+        CompiledExpression expression = assertCompiledEqualsInterpreted(builderAbsorbingLast, ValueTypeBoolean.ValueBoolean.of(true));
+        assertThat("the first input is still evaluated if the last input is absorbing", expression.getNodeCount(), is(2));
+    }
+
+    protected static void addChoice(DummyExpressionNetwork network, boolean condition,
+                                    DummyVariableInteger a, DummyVariableInteger b) {
+        network.addConstant(1, ValueTypeBoolean.ValueBoolean.of(condition));
+        network.addInput(2, a);
+        network.addInput(3, b);
+        network.addOperator(10, Operators.INTEGER_INCREMENT, 2);
+        network.addOperator(11, Operators.INTEGER_INCREMENT, 3);
+        network.addOperator(ROOT, Operators.GENERAL_CHOICE, 1, 10, 11);
+    }
+
+    @Test
+    public void testShortCircuitChoice() throws EvaluationException {
+        DummyVariableInteger a = new DummyVariableInteger(i(3));
+        DummyVariableInteger b = new DummyVariableInteger(i(10));
+        CompiledExpression expression = assertCompiledEqualsInterpreted(network -> addChoice(network, true, a, b), i(4));
+        assertThat("the choice is replaced by the chosen input", expression.getNodeCount(), is(2));
+        assertCompiledEqualsInterpreted(network -> addChoice(network, false, a, b), i(11));
+
+        DummyVariableInteger c = new DummyVariableInteger(i(3));
+        DummyVariableInteger d = new DummyVariableInteger(i(10));
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        addChoice(network, true, c, d);
+        assertThat(compile(network, ROOT).getValue(), is(i(4)));
+        assertThat("the input that is not chosen is not evaluated", d.isFetched(), is(false));
+    }
+
+    /**
+     * @return A network that does not remember the results of pure operators across evaluations,
+     *         so that the evaluation cost of expressions counts all of their operator applications.
+     */
+    protected DummyExpressionNetwork createUnmemoizedNetwork() {
+        config.set(() -> GeneralConfig.operatorMemoTableSize, value -> GeneralConfig.operatorMemoTableSize = value, 0);
+        return new DummyExpressionNetwork();
+    }
+
+    @Test
+    public void testCommonSubexpressions() throws EvaluationException {
+        DummyExpressionNetwork network = createUnmemoizedNetwork();
+        network.addInput(1, new DummyVariableInteger(i(7)));
+        network.addInput(2, new DummyVariableInteger(i(3)));
+        network.addConstant(3, i(4));
+        network.addConstant(4, i(5));
+        network.addOperator(10, Operators.ARITHMETIC_SUBTRACTION, 1, 2);
+        network.addOperator(11, Operators.ARITHMETIC_SUBTRACTION, 1, 2);
+        network.addOperator(12, Operators.ARITHMETIC_SUBTRACTION, 2, 1);
+        network.addOperator(13, Operators.ARITHMETIC_ADDITION, 1, 3);
+        network.addOperator(14, Operators.ARITHMETIC_ADDITION, 1, 4);
+        network.addOperator(20, Operators.ARITHMETIC_MULTIPLICATION, 10, 11);
+        network.addOperator(21, Operators.ARITHMETIC_MULTIPLICATION, 12, 13);
+        network.addOperator(22, Operators.ARITHMETIC_MULTIPLICATION, 21, 14);
+        network.addOperator(ROOT, Operators.ARITHMETIC_ADDITION, 20, 22);
+
+        CompiledExpression expression = compile(network, ROOT);
+        // (7 - 3) * (7 - 3) + (3 - 7) * (7 + 4) * (7 + 5)
+        assertThat("different input does not collide", expression.getValue(), is(i(16 - 4 * 11 * 12)));
+        assertThat("identical subexpressions share a node", expression.getNodeCount(), is(8));
+        assertThat(network.getMergedExpressionCount(), is(1));
+        assertThat("identical subexpressions are evaluated once", network.getEvaluationCost(ROOT), is(8L));
+    }
+
+    @Test
+    public void testCommonSubexpressionsAcrossExpressions() throws EvaluationException {
+        DummyExpressionNetwork network = createUnmemoizedNetwork();
+        network.addInput(1, new DummyVariableInteger(i(7)));
+        network.addInput(2, new DummyVariableInteger(i(3)));
+        network.addOperator(10, Operators.ARITHMETIC_SUBTRACTION, 1, 2);
+        network.addOperator(11, Operators.ARITHMETIC_SUBTRACTION, 1, 2);
+        network.addOperator(12, Operators.INTEGER_INCREMENT, 10);
+        network.addOperator(13, Operators.INTEGER_INCREMENT, 11);
+        network.addOperator(14, Operators.INTEGER_DECREMENT, 11);
+
+        CompiledExpression expression1 = compile(network, 12);
+        CompiledExpression expression2 = compile(network, 13);
+        CompiledExpression expression3 = compile(network, 14);
+        assertThat(expression1.getValue(), is(i(5)));
+        assertThat(network.getEvaluationCost(12), is(2L));
+        assertThat(expression2.getValue(), is(i(5)));
+        assertThat("equivalent expressions reuse the values of the tick", network.getEvaluationCost(13), is(0L));
+        assertThat(expression3.getValue(), is(i(3)));
+        assertThat("shared subexpressions reuse the values of the tick", network.getEvaluationCost(14), is(1L));
+
+        network.update();
+        assertThat(expression2.getValue(), is(i(5)));
+        assertThat("values are evaluated again in the next tick", network.getEvaluationCost(13), is(2L));
+    }
+
+    protected static DummyExpressionNetwork createInvalidInputNetwork() {
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        network.addInput(1, new DummyVariableString(ValueTypeString.ValueString.of("a")));
+        network.addConstant(2, i(4));
+        network.addOperator(ROOT, Operators.ARITHMETIC_ADDITION, 1, 2);
+        return network;
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputInterpreted() throws EvaluationException {
+        evaluateInterpreted(createInvalidInputNetwork(), ROOT);
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputCompiled() throws EvaluationException {
+        compile(createInvalidInputNetwork(), ROOT).getValue();
+    }
+
+    @Test
+    public void testMissingVariable() {
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        network.addConstant(1, i(4));
+        network.addOperator(ROOT, Operators.ARITHMETIC_ADDITION, 1, 2);
+        assertThat(CompiledExpression.compile((IOperatorVariableFacade) network.getVariableFacade(ROOT), network), nullValue());
+    }
+
+    @Test
+    public void testCyclicReference() {
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        network.addConstant(1, i(4));
+        network.addOperator(10, Operators.ARITHMETIC_ADDITION, 1, ROOT);
+        network.addOperator(ROOT, Operators.ARITHMETIC_ADDITION, 1, 10);
+        assertThat(CompiledExpression.compile((IOperatorVariableFacade) network.getVariableFacade(ROOT), network), nullValue());
+    }
+
+    @Test
+    public void testStaticType() {
+        CompiledExpression expression = new CompiledExpression(new DummyExpressionNetwork(), ROOT);
+        IVariable constant = new Variable<>(ValueTypes.INTEGER, i(1));
+        IVariable dynamic = new DummyVariableInteger(i(1));
+        IVariable integerNode = expression.new Node(10, Operators.INTEGER_INCREMENT, new IVariable[]{constant});
+        IVariable numberNode = expression.new Node(11, Operators.ARITHMETIC_ADDITION, new IVariable[]{constant, constant});
+
+        assertThat(CompiledExpression.getStaticType(constant), is(ValueTypes.INTEGER));
+        assertThat("variables that may change have no static type", CompiledExpression.getStaticType(dynamic), nullValue());
+        assertThat("nodes have the output type of their operator", CompiledExpression.getStaticType(integerNode), is(ValueTypes.INTEGER));
+        assertThat("categories are not static", CompiledExpression.getStaticType(numberNode), nullValue());
+    }
+
+    @Test
+    public void testValidateStatically() {
+        CompiledExpression expression = new CompiledExpression(new DummyExpressionNetwork(), ROOT);
+        IVariable integer = new Variable<>(ValueTypes.INTEGER, i(1));
+        IVariable string = new Variable<>(ValueTypes.STRING, ValueTypeString.ValueString.of("a"));
+        IVariable dynamic = new DummyVariableInteger(i(1));
+        IVariable integerNode = expression.new Node(10, Operators.INTEGER_INCREMENT, new IVariable[]{integer});
+        IVariable numberNode = expression.new Node(11, Operators.ARITHMETIC_ADDITION, new IVariable[]{integer, integer});
+        IOperator operator = Operators.ARITHMETIC_ADDITION;
+
+        assertThat(CompiledExpression.validateStatically(operator, new IVariable[]{integer, integer}), is(true));
+        assertThat(CompiledExpression.validateStatically(operator, new IVariable[]{integer, integerNode}), is(true));
+        assertThat("invalid types are not accepted", CompiledExpression.validateStatically(operator, new IVariable[]{integer, string}), is(false));
+        assertThat("types that may change are not accepted", CompiledExpression.validateStatically(operator, new IVariable[]{integer, dynamic}), is(false));
+        assertThat("categories are not accepted", CompiledExpression.validateStatically(operator, new IVariable[]{integer, numberNode}), is(false));
+    }
+}
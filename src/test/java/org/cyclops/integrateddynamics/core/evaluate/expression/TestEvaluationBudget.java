@@ -0,0 +1,173 @@
+package org.cyclops.integrateddynamics.core.evaluate.expression;
+
+import com.google.common.collect.Lists;
+import org.cyclops.integrateddynamics.ConfigOverrides;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.core.evaluate.operator.CurriedOperator;
+import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
+import org.cyclops.integrateddynamics.core.evaluate.variable.DummyVariableList;
+import org.cyclops.integrateddynamics.core.evaluate.variable.DummyVariableOperator;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeInteger;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeList;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeOperator;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
+import org.cyclops.integrateddynamics.core.evaluate.variable.Variable;
+import org.cyclops.integrateddynamics.core.network.DummyPartNetwork;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Test the accounting of evaluation steps to networks.
+ */
+public class TestEvaluationBudget {
+
+    @Rule
+    public final ConfigOverrides config = new ConfigOverrides();
+
+    @Test
+    public void testReserve() {
+        config.set(() -> GeneralConfig.networkEvaluationStepBudget, value -> GeneralConfig.networkEvaluationStepBudget = value, 10);
+        DummyPartNetwork network = new DummyPartNetwork();
+
+        assertThat(network.reserveEvaluationSteps(6), is(6L));
+        assertThat("only the remaining steps can be reserved", network.reserveEvaluationSteps(6), is(4L));
+        assertThat("reserved steps are not remaining", network.getRemainingEvaluationSteps(), is(0L));
+
+        network.addEvaluationCost(1, 3, 6, false);
+        assertThat("untaken steps are released", network.getRemainingEvaluationSteps(), is(3L));
+        assertThat(network.getEvaluationCost(1), is(3L));
+
+        network.addEvaluationCost(2, 4, 4, false);
+        assertThat(network.getRemainingEvaluationSteps(), is(3L));
+    }
+
+    @Test
+    public void testBudgetLimitedByNetwork() throws EvaluationException {
+        config.set(() -> GeneralConfig.networkEvaluationStepBudget, value -> GeneralConfig.networkEvaluationStepBudget = value, 10);
+        DummyPartNetwork network = new DummyPartNetwork();
+        network.reserveEvaluationSteps(8);
+
+        EvaluationBudget budget = EvaluationBudget.begin(network, 1);
+        try {
+            assertThat("nested budgets are accounted to the outer budget", EvaluationBudget.begin(network, 2), nullValue());
+            assertThat("the budget reserves all remaining steps", network.getRemainingEvaluationSteps(), is(0L));
+            EvaluationBudget.steps(2);
+        } finally {
+            budget.end();
+        }
+        assertThat(network.getEvaluationCost(1), is(2L));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testBudgetExceededByConcurrentReservation() throws EvaluationException {
+        config.set(() -> GeneralConfig.networkEvaluationStepBudget, value -> GeneralConfig.networkEvaluationStepBudget = value, 10);
+        DummyPartNetwork network = new DummyPartNetwork();
+        network.reserveEvaluationSteps(8);
+
+        EvaluationBudget budget = EvaluationBudget.begin(network, 1);
+        try {
+            EvaluationBudget.steps(3);
+        } finally {
+            budget.end();
+        }
+    }
+
+    protected static ValueTypeList.ValueList createIntegerList(int length) {
+        List<ValueTypeInteger.ValueInteger> values = Lists.newArrayListWithCapacity(length);
+        for (int i = 0; i < length; i++) {
+            values.add(ValueTypeInteger.ValueInteger.of(i));
+        }
+        return ValueTypeList.ValueList.ofList(ValueTypes.INTEGER, values);
+    }
+
+    /**
+     * @return An operator that adds the sum of a list of a thousand integers to its input,
+     *         which takes over a thousand steps.
+     */
+    protected static DummyVariableOperator createCostlyOperator() {
+        return new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(new CurriedOperator(Operators.OPERATOR_REDUCE,
+                new Variable<>(ValueTypes.OPERATOR, ValueTypeOperator.ValueOperator.of(Operators.ARITHMETIC_ADDITION)),
+                new Variable<>(ValueTypes.LIST, createIntegerList(1000)))));
+    }
+
+    protected static long evaluateMapSteps(DummyVariableOperator operator, DummyVariableList list) throws EvaluationException {
+        long steps;
+        EvaluationBudget budget = EvaluationBudget.begin(null, 0);
+        try {
+            ValueTypes.LIST.materialize((ValueTypeList.ValueList) Operators.OPERATOR_MAP.evaluate(new IVariable[]{operator, list}));
+        } finally {
+            steps = budget.end();
+        }
+        return steps;
+    }
+
+    @Test
+    public void testParallelMapNestedSteps() throws EvaluationException {
+        DummyVariableOperator operator = createCostlyOperator();
+        DummyVariableList list = new DummyVariableList(createIntegerList(200));
+
+        config.set(() -> GeneralConfig.parallelListEvaluationThreshold, value -> GeneralConfig.parallelListEvaluationThreshold = value, 0);
+        long sequentialSteps = evaluateMapSteps(operator, list);
+        assertThat("the nested reductions are counted", sequentialSteps > 200 * 1000, is(true));
+
+        config.set(() -> GeneralConfig.parallelListEvaluationThreshold, value -> GeneralConfig.parallelListEvaluationThreshold = value, 100);
+        assertThat("a parallel map counts the steps of its operator", evaluateMapSteps(operator, list), is(sequentialSteps));
+    }
+
+    @Test
+    public void testParallelMapExceedsBudget() throws EvaluationException {
+        config.set(() -> GeneralConfig.parallelListEvaluationThreshold, value -> GeneralConfig.parallelListEvaluationThreshold = value, 100);
+        config.set(() -> GeneralConfig.evaluationStepBudget, value -> GeneralConfig.evaluationStepBudget = value, 10000);
+        DummyVariableOperator operator = createCostlyOperator();
+        DummyVariableList list = new DummyVariableList(createIntegerList(200));
+
+        long steps;
+        EvaluationBudget budget = EvaluationBudget.begin(null, 0);
+        try {
+            Operators.OPERATOR_MAP.evaluate(new IVariable[]{operator, list});
+            fail("the nested reductions of a parallel map exceed the budget");
+        } catch (EvaluationException e) {
+            // The budget is exceeded
+        } finally {
+            steps = budget.end();
+        }
+        assertThat("the steps of the chunks are added to the budget", steps > 10000, is(true));
+        assertThat("each chunk stops when it exceeds the budget", steps < 200 * 1000, is(true));
+    }
+
+    @Test
+    public void testDeferred() throws EvaluationException {
+        DummyPartNetwork network = new DummyPartNetwork();
+        DummyVariableOperator increment = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(Operators.INTEGER_INCREMENT));
+        DummyVariableList list = new DummyVariableList(ValueTypeList.ValueList.ofAll(
+                ValueTypeInteger.ValueInteger.of(0), ValueTypeInteger.ValueInteger.of(1),
+                ValueTypeInteger.ValueInteger.of(2), ValueTypeInteger.ValueInteger.of(3)));
+
+        ValueTypeList.ValueList mapped;
+        EvaluationBudget budget = EvaluationBudget.begin(network, 1);
+        try {
+            mapped = (ValueTypeList.ValueList) Operators.OPERATOR_MAP.evaluate(new IVariable[]{increment, list});
+        } finally {
+            budget.end();
+        }
+        assertThat("mapped elements are not evaluated yet", network.getEvaluationCost(1), is(1L));
+
+        IValueTypeListProxy<ValueTypeInteger, ValueTypeInteger.ValueInteger> proxy = mapped.getRawValue();
+        for (int i = 0; i < 4; i++) {
+            assertThat(proxy.get(i).getRawValue(), is(i + 1));
+        }
+        assertThat("elements that are read later are accounted to the expression", network.getEvaluationCost(1), is(5L));
+        assertThat("deferred evaluations leave no budget on the thread", EvaluationBudget.getCurrentOwner(), nullValue());
+    }
+
+}
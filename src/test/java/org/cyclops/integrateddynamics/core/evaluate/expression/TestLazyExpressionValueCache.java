@@ -0,0 +1,80 @@
+package org.cyclops.integrateddynamics.core.evaluate.expression;
+
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeInteger;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the generation-stamped invalidation of lazy expression values.
+ */
+public class TestLazyExpressionValueCache {
+
+    private static final IValue V1 = ValueTypeInteger.ValueInteger.of(1);
+    private static final IValue V2 = ValueTypeInteger.ValueInteger.of(2);
+
+    @Test
+    public void testSetValue() {
+        LazyExpressionValueCache cache = new LazyExpressionValueCache();
+        assertThat(cache.hasValue(0), is(false));
+        assertThat(cache.getValue(0), nullValue());
+
+        cache.setValue(0, V1);
+        assertThat(cache.hasValue(0), is(true));
+        assertThat(cache.getValue(0), sameInstance(V1));
+        assertThat("other ids have no value", cache.hasValue(1), is(false));
+
+        cache.setValue(0, V2);
+        assertThat("values can be overwritten", cache.getValue(0), sameInstance(V2));
+    }
+
+    @Test
+    public void testInvalidate() {
+        LazyExpressionValueCache cache = new LazyExpressionValueCache();
+        cache.setValue(0, V1);
+        cache.invalidate();
+        assertThat("values are invalid in the next generation", cache.hasValue(0), is(false));
+        assertThat(cache.getValue(0), nullValue());
+        assertThat(cache.getGeneration(), is(1L));
+
+        cache.setValue(0, V2);
+        assertThat("values can be set again after invalidation", cache.getValue(0), sameInstance(V2));
+    }
+
+    @Test
+    public void testValidGenerations() {
+        LazyExpressionValueCache cache = new LazyExpressionValueCache(3);
+        cache.setValue(0, V1);
+        cache.invalidate();
+        cache.invalidate();
+        assertThat("values remain valid for the given generations", cache.getValue(0), sameInstance(V1));
+        cache.invalidate();
+        assertThat("values become invalid after the given generations", cache.hasValue(0), is(false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidValidGenerations() {
+        new LazyExpressionValueCache(0);
+    }
+
+    @Test
+    public void testPrune() {
+        LazyExpressionValueCache cache = new LazyExpressionValueCache();
+        cache.setValue(0, V1);
+        cache.setValue(1, V2);
+        for (int i = 1; i < LazyExpressionValueCache.PRUNE_INTERVAL; i++) {
+            cache.invalidate();
+            cache.setValue(1, V2);
+        }
+        assertThat("stale values are kept until pruning", cache.getStoredValues(), is(2));
+        cache.invalidate();
+        assertThat("stale values are pruned", cache.getStoredValues(), is(0));
+
+        cache.setValue(0, V1);
+        assertThat("values can be set after pruning", cache.getValue(0), sameInstance(V1));
+    }
+}
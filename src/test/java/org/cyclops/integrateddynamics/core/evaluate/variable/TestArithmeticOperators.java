@@ -73,6 +73,12 @@ public class TestArithmeticOperators {
         assertThat("10 + -10 = 0", ((ValueTypeInteger.ValueInteger) res5).getRawValue(), is(0));
     }
 
+    @Test
+    public void testArithmeticAddIntegerInterned() throws EvaluationException {
+        IValue res1 = Operators.ARITHMETIC_ADDITION.evaluate(new IVariable[]{i10, i10});
+        assertThat("10 + 10 is interned", res1 == ValueTypeInteger.ValueInteger.of(20), is(true));
+    }
+
     @Test
     public void testArithmeticAddDouble() throws EvaluationException {
         IValue res1 = Operators.ARITHMETIC_ADDITION.evaluate(new IVariable[]{d10, d10});
@@ -362,6 +368,11 @@ public class TestArithmeticOperators {
         Operators.ARITHMETIC_DIVISION.evaluate(new IVariable[]{i10, i0});
     }
 
+    @Test(expected = EvaluationException.class)
+    public void testArithmeticDivideByZeroDouble() throws EvaluationException {
+        Operators.ARITHMETIC_DIVISION.evaluate(new IVariable[]{d10, d0});
+    }
+
     @Test(expected = EvaluationException.class)
     public void testInvalidInputSizeDivideLarge() throws EvaluationException {
         Operators.ARITHMETIC_DIVISION.evaluate(new IVariable[]{i0, i0, i0});
@@ -1,14 +1,22 @@
 package org.cyclops.integrateddynamics.core.evaluate.variable;
 
+import com.google.common.collect.Lists;
+import org.cyclops.integrateddynamics.ConfigOverrides;
+import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListCursor;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.core.evaluate.operator.CurriedOperator;
 import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
@@ -19,6 +27,9 @@ import static org.junit.Assert.assertThat;
  */
 public class TestListOperators {
 
+    @Rule
+    public final ConfigOverrides config = new ConfigOverrides();
+
     private static final DummyValueType DUMMY_TYPE = DummyValueType.TYPE;
     private static final DummyVariable<DummyValueType.DummyValue> DUMMY_VARIABLE =
             new DummyVariable<DummyValueType.DummyValue>(DUMMY_TYPE, DummyValueType.DummyValue.of());
@@ -43,6 +54,7 @@ public class TestListOperators {
 
     private DummyVariableOperator oRelationalEquals;
     private DummyVariableOperator oIntegerIncrement;
+    private DummyVariableOperator oGreaterThanTwo;
 
     @BeforeClass
     public static void beforeClass() {
@@ -63,6 +75,8 @@ public class TestListOperators {
 
         oRelationalEquals = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(Operators.RELATIONAL_EQUALS));
         oIntegerIncrement = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(Operators.INTEGER_INCREMENT));
+        oGreaterThanTwo = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(
+                new CurriedOperator(Operators.RELATIONAL_LT, new Variable<>(ValueTypes.INTEGER, i2.getValue()))));
 
         labc = new DummyVariableList(ValueTypeList.ValueList.ofAll(
                 ValueTypeString.ValueString.of("a"),
@@ -361,6 +375,46 @@ public class TestListOperators {
         assertThat("count([0, 1, 2, 3, 1, 2, 3, 2, 3, 3], 4) = 0", ((ValueTypeInteger.ValueInteger) res5).getRawValue(), is(0));
     }
 
+    @Test
+    public void testListCountIndexed() throws EvaluationException {
+        ValueTypeListProxyMaterialized<ValueTypeInteger, ValueTypeInteger.ValueInteger> materialized =
+                (ValueTypeListProxyMaterialized<ValueTypeInteger, ValueTypeInteger.ValueInteger>) lintegers_dup.getValue().getRawValue();
+        assertThat("indexOf([0, 1, 2, 3, 1, 2, 3, 2, 3, 3], 3) = 3", materialized.getFirstIndex(i3.getValue()), is(3));
+        assertThat("indexOf([0, 1, 2, 3, 1, 2, 3, 2, 3, 3], 4) = -1", materialized.getFirstIndex(i4.getValue()), is(-1));
+
+        DummyVariableList concat = new DummyVariableList((ValueTypeList.ValueList)
+                Operators.LIST_CONCAT.evaluate(new IVariable[]{lintegers_dup, lintegers}));
+        for (DummyVariableInteger value : new DummyVariableInteger[]{i0, i1, i2, i3, i4}) {
+            IValue count = Operators.LIST_COUNT.evaluate(new IVariable[]{lintegers_dup, value});
+            IValue countConcat = Operators.LIST_COUNT.evaluate(new IVariable[]{concat, value});
+            assertThat("count(concat(l, [0, 1, 2, 3]), " + value.getValue().getRawValue() + ") = count(l) + 1 when present",
+                    ((ValueTypeInteger.ValueInteger) countConcat).getRawValue(),
+                    is(((ValueTypeInteger.ValueInteger) count).getRawValue() + (value == i4 ? 0 : 1)));
+        }
+
+        IValue uniq = Operators.LIST_UNIQ.evaluate(new IVariable[]{lintegers});
+        assertThat("uniq of a list without duplicates is the same list", uniq, is(lintegers.getValue()));
+    }
+
+    @Test
+    public void testListMaterializedSnapshot() throws EvaluationException {
+        // A list that may still change, such as a view of the players in a world.
+        List<ValueTypeInteger.ValueInteger> live = Lists.newArrayList(i0.getValue(), i1.getValue());
+        ValueTypeListProxyMaterialized<ValueTypeInteger, ValueTypeInteger.ValueInteger> materialized =
+                new ValueTypeListProxyMaterialized<>(ValueTypes.INTEGER, live);
+        assertThat(materialized.contains(i0.getValue()), is(true));
+
+        live.set(0, i2.getValue());
+        assertThat("changes after creation are not seen by get", materialized.get(0).getRawValue(), is(0));
+        assertThat("changes after creation are not seen by contains", materialized.contains(i0.getValue()), is(true));
+        assertThat(materialized.contains(i2.getValue()), is(false));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testListMaterializedNull() {
+        new ValueTypeListProxyMaterialized<>(ValueTypes.INTEGER, Lists.newArrayList(i0.getValue(), null));
+    }
+
     @Test(expected = EvaluationException.class)
     public void testInvalidInputSizeCountLarge() throws EvaluationException {
         Operators.LIST_COUNT.evaluate(new IVariable[]{lintegers, i2, i0});
@@ -482,6 +536,35 @@ public class TestListOperators {
         assertThat("concat([0, 1, 2], [0, 1, 2, 3]).size = 7", list.getLength(), is(7));
     }
 
+    @Test
+    public void testListConcatRepeatedAppend() throws EvaluationException {
+        DummyVariableList list = lempty;
+        for (int i = 0; i < 1000; i++) {
+            list = new DummyVariableList((ValueTypeList.ValueList) Operators.LIST_APPEND.evaluate(new IVariable[]{
+                    list, new DummyVariableInteger(ValueTypeInteger.ValueInteger.of(i))}));
+        }
+        IValueTypeListProxy<ValueTypeInteger, ValueTypeInteger.ValueInteger> proxy = list.getValue().getRawValue();
+        assertThat("1000 appends have length 1000", proxy.getLength(), is(1000));
+        for (int i = 0; i < 1000; i++) {
+            assertThat("append(...)[" + i + "] = " + i, proxy.get(i).getRawValue(), is(i));
+        }
+        assertThat("1000 appends are balanced", ((ValueTypeListProxyConcat) proxy).getDepth() <= 15, is(true));
+
+        IValueTypeListProxy<ValueTypeInteger, ValueTypeInteger.ValueInteger> doubled = ((ValueTypeList.ValueList)
+                Operators.LIST_CONCAT.evaluate(new IVariable[]{list, list})).getRawValue();
+        assertThat("concat(l, l)[1500] = 500", doubled.get(1500).getRawValue(), is(500));
+        assertThat("concat(l, l) is balanced", ((ValueTypeListProxyConcat) doubled).getDepth() <= 16, is(true));
+
+        String serialized = ValueTypes.LIST.serialize(list.getValue());
+        ValueTypeList.ValueList deserialized = ValueTypes.LIST.deserialize(serialized);
+        assertThat("append(...) survives serialization", deserialized, is(list.getValue()));
+        assertThat("deserialized appends are balanced",
+                ((ValueTypeListProxyConcat) deserialized.getRawValue()).getDepth() <= 15, is(true));
+        int elementLength = ValueTypes.LIST.serialize(ValueTypeList.ValueList.ofAll(ValueTypeInteger.ValueInteger.of(999))).length();
+        assertThat("the serialized size grows linearly with the number of appends",
+                serialized.length() < 1000 * elementLength * 4, is(true));
+    }
+
     @Test(expected = EvaluationException.class)
     public void testInvalidInputSizeConcatInvalidType() throws EvaluationException {
         Operators.LIST_CONCAT.evaluate(new IVariable[]{lintegers_012, oRelationalEquals});
@@ -522,6 +605,25 @@ public class TestListOperators {
         assertThat("lazybuilt([0, 1, 2], 3).size = 3", list.getLength(), is(Integer.MAX_VALUE));
     }
 
+    @Test
+    public void testListLazyBuiltDeep() throws EvaluationException {
+        config.set(() -> GeneralConfig.lazyBuiltListCheckpointInterval, value -> GeneralConfig.lazyBuiltListCheckpointInterval = value, 1);
+        config.set(() -> GeneralConfig.lazyBuiltListMaxCheckpoints, value -> GeneralConfig.lazyBuiltListMaxCheckpoints = value, 4);
+        IValue res1 = Operators.LIST_LAZYBUILT.evaluate(new IVariable[]{i3, oIntegerIncrement});
+        IValueTypeListProxy<ValueTypeInteger, ValueTypeInteger.ValueInteger> list = ((ValueTypeList.ValueList) res1).getRawValue();
+
+        assertThat("lazybuilt(3, ++)[50000] = 50003", list.get(50000).getRawValue(), is(50003));
+        assertThat("lazybuilt(3, ++)[50001] = 50004", list.get(50001).getRawValue(), is(50004));
+        assertThat("lazybuilt(3, ++)[10] = 13", list.get(10).getRawValue(), is(13));
+        assertThat("lazybuilt(3, ++)[40000] = 40003", list.get(40000).getRawValue(), is(40003));
+
+        IValueTypeListCursor<ValueTypeInteger.ValueInteger> cursor = list.cursor();
+        for (int i = 0; i < 1000; i++) {
+            assertThat("lazybuilt(3, ++) cursor has a next element", cursor.hasNext(), is(true));
+            assertThat("lazybuilt(3, ++) cursor element " + i + " = " + (i + 3), cursor.next().getRawValue(), is(i + 3));
+        }
+    }
+
     @Test(expected = EvaluationException.class)
     public void testInvalidInputSizeLazyBuiltInvalidType() throws EvaluationException {
         Operators.LIST_LAZYBUILT.evaluate(new IVariable[]{i3, oRelationalEquals});
@@ -707,6 +809,160 @@ public class TestListOperators {
         Operators.LIST_UNIQ.evaluate(new IVariable[]{DUMMY_VARIABLE});
     }
 
+    /**
+     * ----------------------------------- UNIQ_BY -----------------------------------
+     */
+
+    @Test
+    public void testListUniqBy() throws EvaluationException {
+        IValue res1 = Operators.LIST_UNIQ_BY.evaluate(new IVariable[]{lintegers_dup, oGreaterThanTwo});
+        assertThat("result is a list", res1, instanceOf(ValueTypeList.ValueList.class));
+        IValueTypeListProxy<ValueTypeInteger, ValueTypeInteger.ValueInteger> list = ((ValueTypeList.ValueList) res1).getRawValue();
+        assertThat("uniq_by([0, 1, 2, 3, 1, 2, 3, 2, 3, 3], >2)[0] = 0", list.get(0).getRawValue(), is(0));
+        assertThat("uniq_by([0, 1, 2, 3, 1, 2, 3, 2, 3, 3], >2)[1] = 3", list.get(1).getRawValue(), is(3));
+        assertThat("uniq_by([0, 1, 2, 3, 1, 2, 3, 2, 3, 3], >2).size = 2", list.getLength(), is(2));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputSizeUniqByLarge() throws EvaluationException {
+        Operators.LIST_UNIQ_BY.evaluate(new IVariable[]{lintegers, oIntegerIncrement, i2});
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputSizeUniqBySmall() throws EvaluationException {
+        Operators.LIST_UNIQ_BY.evaluate(new IVariable[]{lintegers});
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputTypeUniqBy() throws EvaluationException {
+        Operators.LIST_UNIQ_BY.evaluate(new IVariable[]{DUMMY_VARIABLE, DUMMY_VARIABLE});
+    }
+
+    /**
+     * ----------------------------------- GROUP_BY -----------------------------------
+     */
+
+    @Test
+    public void testListGroupBy() throws EvaluationException {
+        IValue res1 = Operators.LIST_GROUP_BY.evaluate(new IVariable[]{lintegers_dup, oGreaterThanTwo});
+        assertThat("result is a list", res1, instanceOf(ValueTypeList.ValueList.class));
+        IValueTypeListProxy<ValueTypeList, ValueTypeList.ValueList> list = ((ValueTypeList.ValueList) res1).getRawValue();
+        assertThat("group_by([0, 1, 2, 3, 1, 2, 3, 2, 3, 3], >2).size = 2", list.getLength(), is(2));
+        assertThat("group_by([0, 1, 2, 3, 1, 2, 3, 2, 3, 3], >2)[0] = [0, 1, 2, 1, 2, 2]", list.get(0),
+                is(ValueTypeList.ValueList.ofAll(i0.getValue(), i1.getValue(), i2.getValue(), i1.getValue(), i2.getValue(), i2.getValue())));
+        assertThat("group_by([0, 1, 2, 3, 1, 2, 3, 2, 3, 3], >2)[1] = [3, 3, 3, 3]", list.get(1),
+                is(ValueTypeList.ValueList.ofAll(i3.getValue(), i3.getValue(), i3.getValue(), i3.getValue())));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputSizeGroupByLarge() throws EvaluationException {
+        Operators.LIST_GROUP_BY.evaluate(new IVariable[]{lintegers, oIntegerIncrement, i2});
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputSizeGroupBySmall() throws EvaluationException {
+        Operators.LIST_GROUP_BY.evaluate(new IVariable[]{lintegers});
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputTypeGroupBy() throws EvaluationException {
+        Operators.LIST_GROUP_BY.evaluate(new IVariable[]{DUMMY_VARIABLE, DUMMY_VARIABLE});
+    }
+
+    /**
+     * ----------------------------------- SORT -----------------------------------
+     */
+
+    @Test
+    public void testListSort() throws EvaluationException {
+        IValue res1 = Operators.LIST_SORT.evaluate(new IVariable[]{lintegers_rev_dup});
+        assertThat("result is a list", res1, instanceOf(ValueTypeList.ValueList.class));
+        assertThat("sort([3, 2, 1, 0, 2, 1, 0, 1, 0, 0]) = [0, 0, 0, 0, 1, 1, 1, 2, 2, 3]", res1,
+                is(ValueTypeList.ValueList.ofAll(i0.getValue(), i0.getValue(), i0.getValue(), i0.getValue(),
+                        i1.getValue(), i1.getValue(), i1.getValue(), i2.getValue(), i2.getValue(), i3.getValue())));
+
+        DummyVariableList lcab = new DummyVariableList(ValueTypeList.ValueList.ofAll(
+                ValueTypeString.ValueString.of("c"),
+                ValueTypeString.ValueString.of("a"),
+                ValueTypeString.ValueString.of("b")
+        ));
+        IValue res2 = Operators.LIST_SORT.evaluate(new IVariable[]{lcab});
+        assertThat("sort([c, a, b]) = [a, b, c]", res2, is(labc.getValue()));
+    }
+
+    @Test
+    public void testListSortMixedNumbers() throws EvaluationException {
+        // These longs can not be told apart when converted to a double.
+        ValueTypeLong.ValueLong large = ValueTypeLong.ValueLong.of((1L << 53) + 1);
+        ValueTypeLong.ValueLong small = ValueTypeLong.ValueLong.of(1L << 53);
+        ValueTypeDouble.ValueDouble equal = ValueTypeDouble.ValueDouble.of(1L << 53);
+        assertThat(ValueHelpers.compare(large, equal) > 0, is(true));
+        assertThat(ValueHelpers.compare(equal, large) < 0, is(true));
+        assertThat(ValueHelpers.compare(small, equal), is(0));
+        assertThat(ValueHelpers.compare(ValueTypeLong.ValueLong.of(Long.MAX_VALUE), ValueTypeDouble.ValueDouble.of(0x1p63)) < 0, is(true));
+        assertThat(ValueHelpers.compare(ValueTypeInteger.ValueInteger.of(0), ValueTypeDouble.ValueDouble.of(-0.5D)) > 0, is(true));
+        assertThat(ValueHelpers.compare(ValueTypeDouble.ValueDouble.of(-0.0D), ValueTypeDouble.ValueDouble.of(0.0D)), is(0));
+
+        IValue res1 = Operators.LIST_SORT.evaluate(new IVariable[]{new DummyVariableList(
+                ValueTypeList.ValueList.ofList(ValueTypes.CATEGORY_ANY, Lists.newArrayList(large, equal, small)))});
+        assertThat("sort([2^53 + 1, 2^53 (double), 2^53]) = [2^53 (double), 2^53, 2^53 + 1]",
+                ((ValueTypeList.ValueList) res1).getRawValue().get(2), is(large));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testListSortIncomparable() throws EvaluationException {
+        Operators.LIST_SORT.evaluate(new IVariable[]{new DummyVariableList(ValueTypeList.ValueList.ofAll(
+                ValueTypeString.ValueString.of("a"), i0.getValue()))});
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputSizeSortLarge() throws EvaluationException {
+        Operators.LIST_SORT.evaluate(new IVariable[]{lintegers, i2});
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputSizeSortSmall() throws EvaluationException {
+        Operators.LIST_SORT.evaluate(new IVariable[]{});
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputTypeSort() throws EvaluationException {
+        Operators.LIST_SORT.evaluate(new IVariable[]{DUMMY_VARIABLE});
+    }
+
+    /**
+     * ----------------------------------- SORT_BY -----------------------------------
+     */
+
+    @Test
+    public void testListSortBy() throws EvaluationException {
+        IValue res1 = Operators.LIST_SORT_BY.evaluate(new IVariable[]{lintegers_rev_dup, oIntegerIncrement});
+        assertThat("result is a list", res1, instanceOf(ValueTypeList.ValueList.class));
+        assertThat("sort_by([3, 2, 1, 0, 2, 1, 0, 1, 0, 0], ++) = [0, 0, 0, 0, 1, 1, 1, 2, 2, 3]", res1,
+                is(ValueTypeList.ValueList.ofAll(i0.getValue(), i0.getValue(), i0.getValue(), i0.getValue(),
+                        i1.getValue(), i1.getValue(), i1.getValue(), i2.getValue(), i2.getValue(), i3.getValue())));
+
+        IValue res2 = Operators.LIST_SORT_BY.evaluate(new IVariable[]{lintegers_rev_dup, oGreaterThanTwo});
+        assertThat("sort_by([3, 2, 1, 0, 2, 1, 0, 1, 0, 0], >2) = [2, 1, 0, 2, 1, 0, 1, 0, 0, 3]", res2,
+                is(ValueTypeList.ValueList.ofAll(i2.getValue(), i1.getValue(), i0.getValue(), i2.getValue(),
+                        i1.getValue(), i0.getValue(), i1.getValue(), i0.getValue(), i0.getValue(), i3.getValue())));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputSizeSortByLarge() throws EvaluationException {
+        Operators.LIST_SORT_BY.evaluate(new IVariable[]{lintegers, oIntegerIncrement, i2});
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputSizeSortBySmall() throws EvaluationException {
+        Operators.LIST_SORT_BY.evaluate(new IVariable[]{lintegers});
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputTypeSortBy() throws EvaluationException {
+        Operators.LIST_SORT_BY.evaluate(new IVariable[]{DUMMY_VARIABLE, DUMMY_VARIABLE});
+    }
+
     /**
      * ----------------------------------- SLICE -----------------------------------
      */
@@ -768,4 +1024,45 @@ public class TestListOperators {
         Operators.LIST_SLICE.evaluate(new IVariable[]{DUMMY_VARIABLE, DUMMY_VARIABLE, DUMMY_VARIABLE});
     }
 
+    /**
+     * ----------------------------------- CURSOR -----------------------------------
+     */
+
+    protected void assertCursorMatchesGet(String message, IValueTypeListProxy list) throws EvaluationException {
+        IValueTypeListCursor cursor = list.cursor();
+        int length = list.getLength();
+        for (int i = 0; i < length; i++) {
+            assertThat(message + ": cursor has element " + i, cursor.hasNext(), is(true));
+            assertThat(message + ": cursor element " + i, cursor.next(), is(list.get(i)));
+        }
+        assertThat(message + ": cursor has no more elements", cursor.hasNext(), is(false));
+    }
+
+    @Test
+    public void testListCursor() throws EvaluationException {
+        DummyVariableList concat = new DummyVariableList((ValueTypeList.ValueList)
+                Operators.LIST_CONCAT.evaluate(new IVariable[]{lintegers, lintegers_012}));
+        assertCursorMatchesGet("concat", concat.getValue().getRawValue());
+        assertCursorMatchesGet("concat empty", ((ValueTypeList.ValueList)
+                Operators.LIST_CONCAT.evaluate(new IVariable[]{lempty, lintegers})).getRawValue());
+
+        DummyVariableList append = new DummyVariableList((ValueTypeList.ValueList)
+                Operators.LIST_APPEND.evaluate(new IVariable[]{concat, i5}));
+        assertCursorMatchesGet("append", append.getValue().getRawValue());
+
+        DummyVariableList tail = new DummyVariableList((ValueTypeList.ValueList)
+                Operators.LIST_TAIL.evaluate(new IVariable[]{append}));
+        assertCursorMatchesGet("tail", tail.getValue().getRawValue());
+        assertCursorMatchesGet("tail empty", ((ValueTypeList.ValueList)
+                Operators.LIST_TAIL.evaluate(new IVariable[]{lempty})).getRawValue());
+
+        assertCursorMatchesGet("slice", ((ValueTypeList.ValueList)
+                Operators.LIST_SLICE.evaluate(new IVariable[]{tail, i1, i4})).getRawValue());
+        assertCursorMatchesGet("slice beyond end", ((ValueTypeList.ValueList)
+                Operators.LIST_SLICE.evaluate(new IVariable[]{lintegers, i2, i5})).getRawValue());
+
+        assertCursorMatchesGet("map", ((ValueTypeList.ValueList)
+                Operators.OPERATOR_MAP.evaluate(new IVariable[]{oIntegerIncrement, tail})).getRawValue());
+    }
+
 }
@@ -1,18 +1,30 @@
 package org.cyclops.integrateddynamics.core.evaluate.variable;
 
+import com.google.common.collect.Lists;
+import org.cyclops.integrateddynamics.ConfigOverrides;
+import org.cyclops.integrateddynamics.GeneralConfig;
 import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IBoundOperator;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValue;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueType;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IValueTypeListProxy;
 import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.core.evaluate.expression.EvaluationBudget;
+import org.cyclops.integrateddynamics.core.evaluate.expression.OperatorMemoTable;
 import org.cyclops.integrateddynamics.core.evaluate.operator.CurriedOperator;
 import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
+import org.cyclops.integrateddynamics.core.evaluate.operator.ParallelListEvaluator;
 import org.hamcrest.CoreMatchers;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
 
+import java.util.List;
+
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
 
 /**
  * Test the different integer operators.
@@ -48,6 +60,9 @@ public class TestOperatorOperators {
 
     private DummyVariableString sAnd;
 
+    @Rule
+    public final ConfigOverrides config = new ConfigOverrides();
+
     @Before
     public void before() {
         ValueTypeListProxyFactories.load();
@@ -121,6 +136,21 @@ public class TestOperatorOperators {
         assertThat("and(false)(false) == false", ((ValueTypeBoolean.ValueBoolean) res4_2).getRawValue(), is(false));
     }
 
+    @Test
+    public void testApplyCurringNested() throws EvaluationException {
+        DummyVariableOperator oGeneralChoice = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(Operators.GENERAL_CHOICE));
+        IValue res1 = Operators.OPERATOR_APPLY.evaluate(new IVariable[]{oGeneralChoice, bTrue});
+        DummyVariableOperator oChoiceTrue = new DummyVariableOperator((ValueTypeOperator.ValueOperator) res1);
+        IValue res2 = Operators.OPERATOR_APPLY.evaluate(new IVariable[]{oChoiceTrue, i1});
+        assertThat("result is a curriedoperator", ((ValueTypeOperator.ValueOperator) res2).getRawValue(), instanceOf(CurriedOperator.class));
+        assertThat("curried choice requires one more input", ((ValueTypeOperator.ValueOperator) res2).getRawValue().getRequiredInputLength(), is(1));
+
+        DummyVariableOperator oChoiceTrueOne = new DummyVariableOperator((ValueTypeOperator.ValueOperator) res2);
+        IValue res3 = Operators.OPERATOR_APPLY.evaluate(new IVariable[]{oChoiceTrueOne, i2});
+        assertThat("result is an integer", res3, instanceOf(ValueTypeInteger.ValueInteger.class));
+        assertThat("choice(true)(1)(2) == 1", ((ValueTypeInteger.ValueInteger) res3).getRawValue(), is(1));
+    }
+
     @Test(expected = EvaluationException.class)
     public void testInvalidInputSizeApplyLarge() throws EvaluationException {
         Operators.OPERATOR_APPLY.evaluate(new IVariable[]{oGeneralIdentity, bFalse, bFalse});
@@ -290,6 +320,47 @@ public class TestOperatorOperators {
         assertThat(list3.getValueType(), CoreMatchers.<IValueType>is(ValueTypes.BOOLEAN));
     }
 
+    @Test
+    public void testMapMemoized() throws EvaluationException {
+        // Values outside of the range of interned integers, so that each evaluation creates a new instance.
+        DummyVariableList lLargeIntegers = new DummyVariableList(ValueTypeList.ValueList.ofAll(
+                ValueTypeInteger.ValueInteger.of(2000), ValueTypeInteger.ValueInteger.of(2001),
+                ValueTypeInteger.ValueInteger.of(2002), ValueTypeInteger.ValueInteger.of(2003)));
+        assertThat("integers are not interned", ValueTypeInteger.ValueInteger.of(2003),
+                not(sameInstance(ValueTypeInteger.ValueInteger.of(2003))));
+
+        ValueTypeList.ValueList res1 = (ValueTypeList.ValueList) Operators.OPERATOR_MAP.evaluate(new IVariable[]{oIntegerIncrement, lLargeIntegers});
+        IValueTypeListProxy list1 = res1.getRawValue();
+        assertThat("mapped values are only evaluated once", list1.get(2), sameInstance(list1.get(2)));
+
+        ValueTypeList.ValueList materialized = ValueTypes.LIST.materialize(res1);
+        assertThat("materialize(map([2000, 2001, 2002, 2003], ++)) == [2001, 2002, 2003, 2004]", materialized,
+                is(ValueTypeList.ValueList.ofAll(ValueTypeInteger.ValueInteger.of(2001), ValueTypeInteger.ValueInteger.of(2002),
+                        ValueTypeInteger.ValueInteger.of(2003), ValueTypeInteger.ValueInteger.of(2004))));
+        assertThat("materialize reuses mapped values", materialized.getRawValue().get(2), sameInstance(list1.get(2)));
+
+        assertThat("map([2000, 2001, 2002, 2003], ++) is serialized as a materialized list",
+                ValueTypes.LIST.deserialize(ValueTypes.LIST.serialize(res1)), is(materialized));
+    }
+
+    @Test
+    public void testMapInfiniteMemoized() throws EvaluationException {
+        DummyVariableInteger start = new DummyVariableInteger(ValueTypeInteger.ValueInteger.of(2000));
+        DummyVariableList infinite = new DummyVariableList((ValueTypeList.ValueList)
+                Operators.LIST_LAZYBUILT.evaluate(new IVariable[]{start, oIntegerIncrement}));
+        ValueTypeList.ValueList res1 = (ValueTypeList.ValueList) Operators.OPERATOR_MAP.evaluate(new IVariable[]{oIntegerIncrement, infinite});
+        IValueTypeListProxy list1 = res1.getRawValue();
+        IValue first = list1.get(0);
+        assertThat("map(lazybuilt(2000, ++), ++)[0] == 2001", ((ValueTypeInteger.ValueInteger) first).getRawValue(), is(2001));
+        assertThat("mapped values of infinite lists are remembered", list1.get(0), sameInstance(first));
+
+        for (int i = 1; i <= ValueTypeListProxyOperatorMapped.INFINITE_CACHE_SIZE; i++) {
+            list1.get(i);
+        }
+        assertThat("only recently read values of infinite lists are remembered", list1.get(0), not(sameInstance(first)));
+        assertThat(list1.get(0), is(first));
+    }
+
     @Test(expected = EvaluationException.class)
     public void testInvalidInputSizeMapLarge() throws EvaluationException {
         Operators.OPERATOR_MAP.evaluate(new IVariable[]{oIntegerIncrement, lintegers, lintegers});
@@ -539,6 +610,18 @@ public class TestOperatorOperators {
         assertThat("++ ++(1) == 3", ((ValueTypeInteger.ValueInteger) res2).getRawValue(), is(3));
     }
 
+    @Test
+    public void testPredicatePipeNested() throws EvaluationException {
+        DummyVariableOperator increment2 = new DummyVariableOperator((ValueTypeOperator.ValueOperator)
+                Operators.OPERATOR_PIPE.evaluate(new IVariable[]{oIntegerIncrement, oIntegerIncrement}));
+        DummyVariableOperator increment4 = new DummyVariableOperator((ValueTypeOperator.ValueOperator)
+                Operators.OPERATOR_PIPE.evaluate(new IVariable[]{increment2, increment2}));
+
+        IValue res1 = Operators.OPERATOR_APPLY.evaluate(new IVariable[]{increment4, i0});
+        assertThat("result is an integer", res1, instanceOf(ValueTypeInteger.ValueInteger.class));
+        assertThat("++ ++ ++ ++(0) == 4", ((ValueTypeInteger.ValueInteger) res1).getRawValue(), is(4));
+    }
+
     @Test(expected = EvaluationException.class)
     public void testInvalidInputSizePredicatePipeLarge() throws EvaluationException {
         Operators.OPERATOR_PIPE.evaluate(new IVariable[]{oIntegerIncrement, oIntegerIncrement, oIntegerIncrement});
@@ -732,6 +815,31 @@ public class TestOperatorOperators {
         assertThat("reduce([0, 1, 2, 3], +, 0) == 6", ((ValueTypeInteger.ValueInteger) res1).getRawValue(), is(6));
     }
 
+    @Test
+    public void testReduceBudget() throws EvaluationException {
+        config.set(() -> GeneralConfig.evaluationStepBudget, value -> GeneralConfig.evaluationStepBudget = value, 6);
+        long steps;
+        EvaluationBudget budget = EvaluationBudget.begin(null, 0);
+        try {
+            Operators.OPERATOR_REDUCE.evaluate(new IVariable[]{oArithmeticAddition, lintegers, i0});
+        } finally {
+            steps = budget.end();
+        }
+        assertThat("reduce over 4 elements takes 5 steps", steps, is(5L));
+
+        budget = EvaluationBudget.begin(null, 0);
+        try {
+            Operators.OPERATOR_REDUCE.evaluate(new IVariable[]{oArithmeticAddition, lintegers, i0});
+            Operators.OPERATOR_REDUCE.evaluate(new IVariable[]{oArithmeticAddition, lintegers, i0});
+            fail("a second reduce exceeds the budget");
+        } catch (EvaluationException e) {
+            // The budget is exceeded
+        } finally {
+            steps = budget.end();
+        }
+        assertThat("the budget is exceeded at the seventh step", steps, is(7L));
+    }
+
     @Test(expected = EvaluationException.class)
     public void testInvalidInputSizeReduceLarge() throws EvaluationException {
         Operators.OPERATOR_REDUCE.evaluate(new IVariable[]{oArithmeticAddition, lintegers, i0, i0});
@@ -772,6 +880,232 @@ public class TestOperatorOperators {
                 CoreMatchers.<IValueType>is(ValueTypes.INTEGER));
     }
 
+    /**
+     * ----------------------------------- BIND -----------------------------------
+     */
+
+    @Test
+    public void testBind() throws EvaluationException {
+        IBoundOperator bound = Operators.ARITHMETIC_ADDITION.bind(ValueTypes.INTEGER, ValueTypes.INTEGER);
+        IValue res1 = bound.evaluate(i1, i2);
+        assertThat("result is an integer", res1, instanceOf(ValueTypeInteger.ValueInteger.class));
+        assertThat("bind(+)(1, 2) == 3", ((ValueTypeInteger.ValueInteger) res1).getRawValue(), is(3));
+        IValue res2 = bound.evaluate(i3, i4);
+        assertThat("bind(+)(3, 4) == 7", ((ValueTypeInteger.ValueInteger) res2).getRawValue(), is(7));
+    }
+
+    @Test
+    public void testBindCurried() throws EvaluationException {
+        IOperator curried = new CurriedOperator(Operators.ARITHMETIC_ADDITION, new Variable<>(ValueTypes.INTEGER, i1.getValue()));
+        IValue res1 = curried.bind(ValueTypes.INTEGER).evaluate(i2);
+        assertThat("result is an integer", res1, instanceOf(ValueTypeInteger.ValueInteger.class));
+        assertThat("bind(+(1))(2) == 3", ((ValueTypeInteger.ValueInteger) res1).getRawValue(), is(3));
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputTypeBind() throws EvaluationException {
+        Operators.ARITHMETIC_ADDITION.bind(ValueTypes.INTEGER, ValueTypes.BOOLEAN);
+    }
+
+    @Test(expected = EvaluationException.class)
+    public void testInvalidInputSizeBind() throws EvaluationException {
+        Operators.ARITHMETIC_ADDITION.bind(ValueTypes.INTEGER);
+    }
+
+    /**
+     * ----------------------------------- PURITY -----------------------------------
+     */
+
+    @Test
+    public void testPure() throws EvaluationException {
+        assertThat("+ is pure", Operators.ARITHMETIC_ADDITION.isPure(), is(true));
+        assertThat("&& is not pure", Operators.LOGICAL_AND.isPure(), is(false));
+        assertThat("entity health is not pure", Operators.OBJECT_ENTITY_HEALTH.isPure(), is(false));
+        assertThat("+(1) is pure", new CurriedOperator(Operators.ARITHMETIC_ADDITION,
+                new Variable<>(ValueTypes.INTEGER, i1.getValue())).isPure(), is(true));
+        assertThat("+(var) is not pure", new CurriedOperator(Operators.ARITHMETIC_ADDITION, i1).isPure(), is(false));
+    }
+
+    @Test
+    public void testMemoTable() throws EvaluationException {
+        OperatorMemoTable memoTable = new OperatorMemoTable(16);
+        int[] evaluations = new int[1];
+        IBoundOperator evaluator = input -> {
+            evaluations[0]++;
+            return Operators.ARITHMETIC_ADDITION.evaluate(input);
+        };
+
+        IValue res1 = memoTable.evaluate(Operators.ARITHMETIC_ADDITION, new IVariable[]{i1, i2}, evaluator);
+        assertThat("memo(+)(1, 2) == 3", ((ValueTypeInteger.ValueInteger) res1).getRawValue(), is(3));
+        IValue res2 = memoTable.evaluate(Operators.ARITHMETIC_ADDITION, new IVariable[]{
+                new DummyVariableInteger(ValueTypeInteger.ValueInteger.of(1)), i2}, evaluator);
+        assertThat("memo(+)(1, 2) == 3", ((ValueTypeInteger.ValueInteger) res2).getRawValue(), is(3));
+        assertThat("equal input is evaluated once", evaluations[0], is(1));
+
+        IValue res3 = memoTable.evaluate(Operators.ARITHMETIC_ADDITION, new IVariable[]{i2, i2}, evaluator);
+        assertThat("memo(+)(2, 2) == 4", ((ValueTypeInteger.ValueInteger) res3).getRawValue(), is(4));
+        assertThat("other input is evaluated again", evaluations[0], is(2));
+    }
+
+    @Test
+    public void testCurriedEquals() throws EvaluationException {
+        IOperator curried1 = new CurriedOperator(Operators.ARITHMETIC_ADDITION, new Variable<>(ValueTypes.INTEGER, i1.getValue()));
+        IOperator curried1Other = new CurriedOperator(Operators.ARITHMETIC_ADDITION, new Variable<>(ValueTypes.INTEGER, i1.getValue()));
+        IOperator curried2 = new CurriedOperator(Operators.ARITHMETIC_ADDITION, new Variable<>(ValueTypes.INTEGER, i2.getValue()));
+        IOperator curriedVariable = new CurriedOperator(Operators.ARITHMETIC_ADDITION, i1);
+        IOperator curriedVariableOther = new CurriedOperator(Operators.ARITHMETIC_ADDITION, new DummyVariableInteger(i1.getValue()));
+        assertThat("+(1) == +(1)", curried1.equals(curried1Other), is(true));
+        assertThat("+(1) and +(1) have the same hash", curried1.hashCode(), is(curried1Other.hashCode()));
+        assertThat("+(1) != +(2)", curried1.equals(curried2), is(false));
+        assertThat("+(1) != -(1)", curried1.equals(new CurriedOperator(Operators.ARITHMETIC_SUBTRACTION,
+                new Variable<>(ValueTypes.INTEGER, i1.getValue()))), is(false));
+        assertThat("+(var) == +(var)", curriedVariable.equals(new CurriedOperator(Operators.ARITHMETIC_ADDITION, i1)), is(true));
+        assertThat("+(var) != +(other var)", curriedVariable.equals(curriedVariableOther), is(false));
+    }
+
+    @Test
+    public void testMemoTableCurried() throws EvaluationException {
+        OperatorMemoTable memoTable = new OperatorMemoTable(16);
+        int[] evaluations = new int[1];
+        IBoundOperator evaluator = input -> {
+            evaluations[0]++;
+            return Operators.OPERATOR_APPLY.evaluate(input);
+        };
+        DummyVariableOperator curried1 = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(
+                new CurriedOperator(Operators.ARITHMETIC_ADDITION, new Variable<>(ValueTypes.INTEGER, i1.getValue()))));
+        DummyVariableOperator curried1Other = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(
+                new CurriedOperator(Operators.ARITHMETIC_ADDITION, new Variable<>(ValueTypes.INTEGER, i1.getValue()))));
+        DummyVariableOperator curriedVariable = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(
+                new CurriedOperator(Operators.ARITHMETIC_ADDITION, i1)));
+
+        IValue res1 = memoTable.evaluate(Operators.OPERATOR_APPLY, new IVariable[]{curried1, i2}, evaluator);
+        assertThat("memo(apply)(+(1), 2) == 3", ((ValueTypeInteger.ValueInteger) res1).getRawValue(), is(3));
+        IValue res2 = memoTable.evaluate(Operators.OPERATOR_APPLY, new IVariable[]{curried1Other, i2}, evaluator);
+        assertThat("memo(apply)(+(1), 2) == 3", ((ValueTypeInteger.ValueInteger) res2).getRawValue(), is(3));
+        assertThat("equal curried operators are evaluated once", evaluations[0], is(1));
+
+        memoTable.evaluate(Operators.OPERATOR_APPLY, new IVariable[]{curriedVariable, i2}, evaluator);
+        memoTable.evaluate(Operators.OPERATOR_APPLY, new IVariable[]{curriedVariable, i2}, evaluator);
+        assertThat("impure curried operators are always evaluated", evaluations[0], is(3));
+        assertThat(memoTable.size(), is(1L));
+    }
+
+    @Test
+    public void testMemoTableLists() throws EvaluationException {
+        OperatorMemoTable memoTable = new OperatorMemoTable(1000);
+        int[] evaluations = new int[1];
+        IBoundOperator evaluator = input -> {
+            evaluations[0]++;
+            return Operators.LIST_LENGTH.evaluate(input);
+        };
+        DummyVariableList list = createLargeIntegerList(20);
+
+        memoTable.evaluate(Operators.LIST_LENGTH, new IVariable[]{list}, evaluator);
+        IValue res = memoTable.evaluate(Operators.LIST_LENGTH, new IVariable[]{new DummyVariableList(list.getValue())}, evaluator);
+        assertThat("memo(length)(list) == 20", ((ValueTypeInteger.ValueInteger) res).getRawValue(), is(20));
+        assertThat("the same list is evaluated once", evaluations[0], is(1));
+
+        memoTable.evaluate(Operators.LIST_LENGTH, new IVariable[]{createLargeIntegerList(20)}, evaluator);
+        assertThat("other list instances are not compared by their elements", evaluations[0], is(2));
+
+        DummyVariableList largeList = createLargeIntegerList(2000);
+        memoTable.evaluate(Operators.LIST_LENGTH, new IVariable[]{largeList}, evaluator);
+        memoTable.evaluate(Operators.LIST_LENGTH, new IVariable[]{largeList}, evaluator);
+        assertThat("lists that weigh more than the table are not kept", evaluations[0], is(4));
+    }
+
+    /**
+     * ----------------------------------- PARALLEL -----------------------------------
+     */
+
+    protected void setParallelListEvaluationThreshold(int threshold) {
+        config.set(() -> GeneralConfig.parallelListEvaluationThreshold,
+                value -> GeneralConfig.parallelListEvaluationThreshold = value, threshold);
+    }
+
+    protected DummyVariableList createLargeIntegerList(int length) {
+        List<ValueTypeInteger.ValueInteger> values = Lists.newArrayListWithCapacity(length);
+        for (int i = 0; i < length; i++) {
+            values.add(ValueTypeInteger.ValueInteger.of(i));
+        }
+        return new DummyVariableList(ValueTypeList.ValueList.ofList(ValueTypes.INTEGER, values));
+    }
+
+    @Test
+    public void testParallelMapFilterReduce() throws EvaluationException {
+        DummyVariableList lLarge = createLargeIntegerList(10000);
+        DummyVariableOperator increment = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(
+                new CurriedOperator(Operators.ARITHMETIC_ADDITION, new Variable<>(ValueTypes.INTEGER, i1.getValue()))));
+        DummyVariableOperator largerThanHalf = new DummyVariableOperator(ValueTypeOperator.ValueOperator.of(
+                new CurriedOperator(Operators.RELATIONAL_LT, new Variable<>(ValueTypes.INTEGER, ValueTypeInteger.ValueInteger.of(5000)))));
+
+        setParallelListEvaluationThreshold(0);
+        IValue mapSequential = Operators.OPERATOR_MAP.evaluate(new IVariable[]{increment, lLarge});
+        IValue filterSequential = Operators.OPERATOR_FILTER.evaluate(new IVariable[]{largerThanHalf, lLarge});
+        IValue reduceSequential = Operators.OPERATOR_REDUCE.evaluate(new IVariable[]{oArithmeticAddition, lLarge, i0});
+
+        setParallelListEvaluationThreshold(100);
+        IValue mapParallel = Operators.OPERATOR_MAP.evaluate(new IVariable[]{increment, lLarge});
+        assertThat("parallel map is materialized", ((ValueTypeList.ValueList) mapParallel).getRawValue(),
+                instanceOf(ValueTypeListProxyMaterialized.class));
+        assertThat("parallel map equals sequential map", mapParallel, is(mapSequential));
+        assertThat("map(+1)[9999] == 10000", ((ValueTypeInteger.ValueInteger)
+                ((ValueTypeList.ValueList) mapParallel).getRawValue().get(9999)).getRawValue(), is(10000));
+
+        IValue filterParallel = Operators.OPERATOR_FILTER.evaluate(new IVariable[]{largerThanHalf, lLarge});
+        assertThat("parallel filter equals sequential filter", filterParallel, is(filterSequential));
+        assertThat("length(filter(>5000)) == 4999",
+                ((ValueTypeList.ValueList) filterParallel).getRawValue().getLength(), is(4999));
+
+        IValue reduceParallel = Operators.OPERATOR_REDUCE.evaluate(new IVariable[]{oArithmeticAddition, lLarge, i1});
+        assertThat("reduce(+, 1) == 1 + sum(0..9999)",
+                ((ValueTypeInteger.ValueInteger) reduceParallel).getRawValue(),
+                is(((ValueTypeInteger.ValueInteger) reduceSequential).getRawValue() + 1));
+    }
+
+    @Test
+    public void testParallelReduceNonAssociative() throws EvaluationException {
+        DummyVariableList lLarge = createLargeIntegerList(10000);
+        DummyVariableOperator oArithmeticSubtraction = new DummyVariableOperator(
+                ValueTypeOperator.ValueOperator.of(Operators.ARITHMETIC_SUBTRACTION));
+
+        setParallelListEvaluationThreshold(100);
+        assertThat("+ is associative", Operators.ARITHMETIC_ADDITION.isAssociative(), is(true));
+        assertThat("- is not associative", Operators.ARITHMETIC_SUBTRACTION.isAssociative(), is(false));
+        IValue res = Operators.OPERATOR_REDUCE.evaluate(new IVariable[]{oArithmeticSubtraction, lLarge, i0});
+        assertThat("reduce(-, 0) == -sum(0..9999)", ((ValueTypeInteger.ValueInteger) res).getRawValue(), is(-49995000));
+    }
+
+    @Test
+    public void testParallelMapBudget() throws EvaluationException {
+        DummyVariableList lLarge = createLargeIntegerList(10000);
+        setParallelListEvaluationThreshold(100);
+        long steps;
+        EvaluationBudget budget = EvaluationBudget.begin(null, 0);
+        try {
+            Operators.OPERATOR_MAP.evaluate(new IVariable[]{oIntegerIncrement, lLarge});
+        } finally {
+            steps = budget.end();
+        }
+        assertThat("the elements of a parallel map are only accounted once", steps, is(10001L));
+    }
+
+    @Test
+    public void testParallelListOfLists() throws EvaluationException {
+        List<ValueTypeList.ValueList> lists = Lists.newArrayListWithCapacity(200);
+        for (int i = 0; i < 200; i++) {
+            lists.add(ValueTypeList.ValueList.ofAll(ValueTypeInteger.ValueInteger.of(i)));
+        }
+        IValueTypeListProxy<?, ?> listOfLists =
+                ValueTypeList.ValueList.ofList(ValueTypes.LIST, lists).getRawValue();
+
+        setParallelListEvaluationThreshold(100);
+        assertThat("lists of integers are evaluated in parallel", ParallelListEvaluator.canEvaluate(
+                Operators.INTEGER_INCREMENT, createLargeIntegerList(200).getValue().getRawValue()), is(true));
+        assertThat("lists of lists are not evaluated in parallel",
+                ParallelListEvaluator.canEvaluate(Operators.LIST_LENGTH, listOfLists), is(false));
+    }
+
     /**
      * ----------------------------------- BY_NAME -----------------------------------
      */
@@ -0,0 +1,31 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import org.cyclops.integrateddynamics.api.network.IEnergyConsumingNetworkElement;
+import org.cyclops.integrateddynamics.api.network.INetwork;
+
+/**
+ * A dummy network element of which the consumption rate can be changed.
+ */
+public class DummyEnergyConsumingNetworkElement extends DummyNetworkElement implements IEnergyConsumingNetworkElement {
+
+    private int consumptionRate;
+
+    public DummyEnergyConsumingNetworkElement(int id, int consumptionRate) {
+        super(id, 0);
+        this.consumptionRate = consumptionRate;
+    }
+
+    public void setConsumptionRate(int consumptionRate) {
+        this.consumptionRate = consumptionRate;
+    }
+
+    @Override
+    public int getConsumptionRate() {
+        return consumptionRate;
+    }
+
+    @Override
+    public void postUpdate(INetwork network, boolean updated) {
+
+    }
+}
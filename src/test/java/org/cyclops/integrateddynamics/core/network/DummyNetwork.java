@@ -0,0 +1,38 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import org.cyclops.integrateddynamics.api.network.INetworkCarrier;
+import org.cyclops.integrateddynamics.api.network.INetworkElement;
+import org.cyclops.integrateddynamics.api.path.IPathElement;
+
+import java.util.Collection;
+
+/**
+ * A network of {@link DummyPathElement}s, which may refuse path elements to be removed from it.
+ */
+public class DummyNetwork extends Network {
+
+    private boolean vetoRemovals = false;
+
+    public DummyNetwork() {
+        initialize();
+    }
+
+    public void setVetoRemovals(boolean vetoRemovals) {
+        this.vetoRemovals = vetoRemovals;
+    }
+
+    @Override
+    protected INetworkCarrier getNetworkCarrier(IPathElement pathElement) {
+        return (DummyPathElement) pathElement;
+    }
+
+    @Override
+    protected Collection<INetworkElement> createNetworkElements(IPathElement pathElement) {
+        return ((DummyPathElement) pathElement).getNetworkElements();
+    }
+
+    @Override
+    public synchronized boolean removePathElement(IPathElement pathElement) {
+        return !vetoRemovals && super.removePathElement(pathElement);
+    }
+}
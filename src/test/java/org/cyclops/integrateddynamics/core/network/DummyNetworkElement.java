@@ -0,0 +1,81 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import org.cyclops.integrateddynamics.api.network.INetwork;
+import org.cyclops.integrateddynamics.api.network.INetworkElement;
+
+/**
+ * A dummy network element that is ordered by its priority, which is only known while it is loaded.
+ */
+public class DummyNetworkElement extends NetworkElementBase {
+
+    private final int id;
+    private int priority;
+    private boolean loaded = true;
+    private Integer orderPriority = null;
+
+    public DummyNetworkElement(int id, int priority) {
+        this.id = id;
+        this.priority = priority;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setLoaded(boolean loaded) {
+        this.loaded = loaded;
+    }
+
+    @Override
+    public void setPriority(INetwork network, int priority) {
+        this.priority = priority;
+        refreshOrder();
+    }
+
+    @Override
+    public int getPriority() {
+        return loaded ? priority : 0;
+    }
+
+    @Override
+    public void refreshOrder() {
+        orderPriority = null;
+    }
+
+    protected int getOrderPriority() {
+        if (orderPriority == null) {
+            orderPriority = getPriority();
+        }
+        return orderPriority;
+    }
+
+    @Override
+    public boolean canRevalidate(INetwork network) {
+        return loaded;
+    }
+
+    @Override
+    public int compareTo(INetworkElement o) {
+        if (o instanceof DummyNetworkElement) {
+            DummyNetworkElement other = (DummyNetworkElement) o;
+            int comp = -Integer.compare(getOrderPriority(), other.getOrderPriority());
+            return comp != 0 ? comp : Integer.compare(id, other.id);
+        }
+        return getClass().getCanonicalName().compareTo(o.getClass().getCanonicalName());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DummyNetworkElement && compareTo((DummyNetworkElement) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "DummyNetworkElement{id=" + id + ", priority=" + priority + "}";
+    }
+}
@@ -0,0 +1,27 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Maps;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.api.block.IVariableContainer;
+import org.cyclops.integrateddynamics.capability.variablecontainer.VariableContainerDefault;
+
+import java.util.Map;
+
+/**
+ * A part network of which the variable containers are not read from the world.
+ */
+public class DummyPartNetwork extends PartNetwork {
+
+    private final Map<DimPos, IVariableContainer> containers = Maps.newHashMap();
+
+    public IVariableContainer putContainer(DimPos dimPos) {
+        IVariableContainer container = new VariableContainerDefault();
+        containers.put(dimPos, container);
+        return container;
+    }
+
+    @Override
+    protected IVariableContainer getVariableContainer(DimPos dimPos) {
+        return containers.get(dimPos);
+    }
+}
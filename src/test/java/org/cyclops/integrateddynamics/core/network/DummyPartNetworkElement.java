@@ -0,0 +1,54 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.api.network.IPartNetworkElement;
+import org.cyclops.integrateddynamics.api.part.IPartContainer;
+import org.cyclops.integrateddynamics.api.part.IPartState;
+import org.cyclops.integrateddynamics.api.part.IPartType;
+import org.cyclops.integrateddynamics.api.part.PartTarget;
+
+/**
+ * A dummy part network element without a part type, of which the position is determined by its id.
+ */
+public class DummyPartNetworkElement<P extends IPartType<P, S>, S extends IPartState<P>> extends DummyNetworkElement
+        implements IPartNetworkElement<P, S> {
+
+    private final PartTarget target;
+
+    public DummyPartNetworkElement(int id, int priority) {
+        super(id, priority);
+        this.target = PartTarget.fromCenter(DimPos.of(0, new BlockPos(id, 0, 0)), EnumFacing.NORTH);
+    }
+
+    @Override
+    public P getPart() {
+        return null;
+    }
+
+    @Override
+    public S getPartState() {
+        return null;
+    }
+
+    @Override
+    public IPartContainer getPartContainer() {
+        return null;
+    }
+
+    @Override
+    public PartTarget getTarget() {
+        return target;
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return true;
+    }
+
+    @Override
+    public P getNetworkEventListener() {
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import net.minecraft.util.math.BlockPos;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.api.network.INetwork;
+import org.cyclops.integrateddynamics.api.network.INetworkCarrier;
+import org.cyclops.integrateddynamics.api.network.INetworkElement;
+import org.cyclops.integrateddynamics.api.path.IPathElement;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A dummy path element that carries its own network and network elements, without requiring a world.
+ */
+public class DummyPathElement implements IPathElement, INetworkCarrier {
+
+    private final DimPos position;
+    private final Set<IPathElement> reachableElements = Sets.newHashSet();
+    private final List<INetworkElement> networkElements = Lists.newArrayList();
+    private INetwork network = null;
+
+    public DummyPathElement(int x) {
+        this.position = DimPos.of(0, new BlockPos(x, 0, 0));
+    }
+
+    public DummyPathElement addNetworkElement(INetworkElement networkElement) {
+        this.networkElements.add(networkElement);
+        return this;
+    }
+
+    public List<INetworkElement> getNetworkElements() {
+        return networkElements;
+    }
+
+    /**
+     * Connect this and the given path element to each other.
+     * @param pathElement The other path element.
+     */
+    public void connect(DummyPathElement pathElement) {
+        this.reachableElements.add(pathElement);
+        pathElement.reachableElements.add(this);
+    }
+
+    @Override
+    public DimPos getPosition() {
+        return position;
+    }
+
+    @Override
+    public Set<IPathElement> getReachableElements() {
+        return reachableElements;
+    }
+
+    @Override
+    public void setNetwork(@Nullable INetwork network) {
+        this.network = network;
+    }
+
+    @Nullable
+    @Override
+    public INetwork getNetwork() {
+        return network;
+    }
+
+    @Override
+    public int compareTo(IPathElement o) {
+        return getPosition().compareTo(o.getPosition());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof IPathElement && compareTo((IPathElement) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return position.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "DummyPathElement{" + position.getBlockPos() + "}";
+    }
+}
@@ -0,0 +1,117 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Maps;
+import net.minecraft.util.EnumFacing;
+import net.minecraft.util.math.BlockPos;
+import net.minecraftforge.energy.EnergyStorage;
+import net.minecraftforge.energy.IEnergyStorage;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.ConfigOverrides;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.part.PartPos;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the cached aggregates of energy networks.
+ */
+public class TestEnergyNetwork {
+
+    @Rule
+    public final ConfigOverrides config = new ConfigOverrides();
+
+    private DummyNetwork network;
+    private StorageEnergyNetwork energyNetwork;
+
+    @Before
+    public void beforeEach() {
+        network = new DummyNetwork();
+        energyNetwork = new StorageEnergyNetwork();
+        energyNetwork.setNetwork(network);
+    }
+
+    protected static PartPos createPartPos(int x) {
+        return PartPos.of(DimPos.of(0, new BlockPos(x, 0, 0)), EnumFacing.NORTH);
+    }
+
+    @Test
+    public void testEnergyStoredOtherStorage() {
+        // An energy storage of another mod, which does not invalidate the network when it changes.
+        EnergyStorage storage = new EnergyStorage(100, 100, 100, 10);
+        energyNetwork.addStorage(createPartPos(0), storage);
+        assertThat(energyNetwork.getEnergyStored(), is(10));
+
+        storage.receiveEnergy(20, false);
+        energyNetwork.update();
+        assertThat("changed storages are read again in the next tick", energyNetwork.getEnergyStored(), is(30));
+
+        energyNetwork.receiveEnergy(5, false);
+        assertThat("energy received by the network is seen immediately", energyNetwork.getEnergyStored(), is(35));
+        energyNetwork.extractEnergy(15, false);
+        assertThat("energy extracted by the network is seen immediately", energyNetwork.getEnergyStored(), is(20));
+        energyNetwork.extractEnergy(15, true);
+        assertThat("simulated extraction has no effect", energyNetwork.getEnergyStored(), is(20));
+    }
+
+    @Test
+    public void testMaxEnergyStoredPositions() {
+        energyNetwork.addStorage(createPartPos(0), new EnergyStorage(100));
+        assertThat(energyNetwork.getMaxEnergyStored(), is(100));
+
+        energyNetwork.addStorage(createPartPos(1), new EnergyStorage(50));
+        assertThat("added positions are seen immediately", energyNetwork.getMaxEnergyStored(), is(150));
+
+        energyNetwork.removePosition(createPartPos(0));
+        assertThat("removed positions are seen immediately", energyNetwork.getMaxEnergyStored(), is(50));
+    }
+
+    @Test
+    public void testConsumptionRate() {
+        config.set(() -> GeneralConfig.energyConsumptionMultiplier, value -> GeneralConfig.energyConsumptionMultiplier = value, 2);
+        DummyEnergyConsumingNetworkElement element1 = new DummyEnergyConsumingNetworkElement(1, 3);
+        DummyEnergyConsumingNetworkElement element2 = new DummyEnergyConsumingNetworkElement(2, 5);
+        addElement(element1);
+        assertThat(energyNetwork.getConsumptionRate(), is(6));
+
+        addElement(element2);
+        assertThat("added elements are seen immediately", energyNetwork.getConsumptionRate(), is(16));
+
+        // Elements that are not updated may change their consumption rate as well.
+        element1.setConsumptionRate(4);
+        energyNetwork.update();
+        assertThat("changed consumption rates are read again in the next tick", energyNetwork.getConsumptionRate(), is(18));
+
+        network.removeNetworkElementPost(element2);
+        energyNetwork.removeNetworkElementPost(element2);
+        assertThat("removed elements are seen immediately", energyNetwork.getConsumptionRate(), is(8));
+    }
+
+    protected void addElement(DummyEnergyConsumingNetworkElement element) {
+        network.addNetworkElement(element, false);
+        energyNetwork.addNetworkElement(element, false);
+    }
+
+    /**
+     * An energy network of which the energy storages are not read from the world.
+     */
+    public static class StorageEnergyNetwork extends EnergyNetwork {
+
+        private final Map<PartPos, IEnergyStorage> storages = Maps.newHashMap();
+
+        public void addStorage(PartPos pos, IEnergyStorage storage) {
+            storages.put(pos, storage);
+            addPosition(pos, 0);
+        }
+
+        @Override
+        protected IEnergyStorage getEnergyStorage(PartPos pos) {
+            return storages.get(pos);
+        }
+    }
+}
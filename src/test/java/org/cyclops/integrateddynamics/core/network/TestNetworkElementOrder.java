@@ -0,0 +1,106 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import com.google.common.collect.Iterables;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the order of network elements when their priority changes or becomes known.
+ */
+public class TestNetworkElementOrder {
+
+    @Test
+    public void testSetPriority() {
+        Network network = new Network();
+        network.initialize();
+        DummyNetworkElement e1 = new DummyNetworkElement(1, 1);
+        DummyNetworkElement e2 = new DummyNetworkElement(2, 2);
+        network.addNetworkElement(e1, false);
+        network.addNetworkElement(e2, false);
+        assertThat("the highest priority comes first", Iterables.getFirst(network.getElements(), null), sameInstance(e2));
+
+        network.setPriority(e1, 3);
+        assertThat("a changed priority is reordered", Iterables.getFirst(network.getElements(), null), sameInstance(e1));
+        assertThat("the element can still be found", network.getElements().contains(e1), is(true));
+        assertThat("the network still has two elements", network.getElements().size(), is(2));
+    }
+
+    @Test
+    public void testPriorityRefreshedOnLoad() {
+        Network network = new Network();
+        network.initialize();
+        DummyNetworkElement e1 = new DummyNetworkElement(1, 5);
+        DummyNetworkElement e2 = new DummyNetworkElement(2, 1);
+        e1.setLoaded(false);
+        network.addNetworkElement(e1, false);
+        network.addNetworkElement(e2, false);
+        assertThat("the priority of unloaded elements is unknown", Iterables.getFirst(network.getElements(), null), sameInstance(e2));
+
+        network.invalidateElement(e1);
+        e1.setLoaded(true);
+        network.revalidateElement(e1);
+        assertThat("the priority of loaded elements is used", Iterables.getFirst(network.getElements(), null), sameInstance(e1));
+        assertThat("the loaded element can be found", network.getElements().contains(e1), is(true));
+        assertThat("the loaded element is valid", network.isValid(e1), is(true));
+        assertThat("the network still has two elements", network.getElements().size(), is(2));
+
+        network.invalidateElement(e1);
+        e1.setLoaded(false);
+        assertThat("the unloaded element is invalid", network.isValid(e1), is(false));
+        assertThat("the unloaded element can be found", network.getElements().contains(e1), is(true));
+        network.removeNetworkElementPost(e1);
+        assertThat("the unloaded element can be removed", network.getElements().contains(e1), is(false));
+        assertThat("the other element remains", Iterables.getOnlyElement(network.getElements()), sameInstance(e2));
+    }
+
+    @Test
+    public void testOutdatedOrderFoundByPosition() {
+        Network network = new Network();
+        network.initialize();
+        DummyPartNetworkElement e1 = new DummyPartNetworkElement(1, 1);
+        DummyPartNetworkElement e2 = new DummyPartNetworkElement(2, 2);
+        network.addNetworkElement(e1, false);
+        network.addNetworkElement(e2, false);
+
+        // Another instance of the first part, of which the order differs from the contained instance.
+        DummyPartNetworkElement e1Changed = new DummyPartNetworkElement(1, 5);
+        assertThat(network.getContainedElement(e1Changed), sameInstance(e1));
+        network.setPriority(e1Changed, 3);
+        assertThat("the contained instance is reordered", Iterables.getFirst(network.getElements(), null), sameInstance(e1));
+
+        network.removeNetworkElementPost(new DummyPartNetworkElement(2, 0));
+        assertThat("the contained instance is removed", Iterables.getOnlyElement(network.getElements()), sameInstance(e1));
+        assertThat("removed parts are not found by position", network.getContainedElement(e2), nullValue());
+    }
+
+    @Test
+    public void testSortKeyOrdinalGenerations() {
+        // Ordinals of the same part types in a later generation, after another part type was registered in between.
+        PartNetworkElement.SortKey a1 = new PartNetworkElement.SortKey("a.PartA", "part.a", new int[]{0, 0, 1}, 0, 0, 0L, 0);
+        PartNetworkElement.SortKey b1 = new PartNetworkElement.SortKey("b.PartB", "part.b", new int[]{1, 1, 1}, 0, 0, 0L, 0);
+        PartNetworkElement.SortKey a2 = new PartNetworkElement.SortKey("a.PartA", "part.a", new int[]{0, 0, 2}, 0, 0, 0L, 0);
+        PartNetworkElement.SortKey b2 = new PartNetworkElement.SortKey("b.PartB", "part.b", new int[]{2, 2, 2}, 0, 0, 0L, 0);
+
+        assertThat("a < b in generation 1", a1.compareTo(b1) < 0, is(true));
+        assertThat("a < b in generation 2", a2.compareTo(b2) < 0, is(true));
+        assertThat("a1 < b2", a1.compareTo(b2) < 0, is(true));
+        assertThat("b1 > a2", b1.compareTo(a2) > 0, is(true));
+        assertThat("a1 = a2", a1.compareTo(a2), is(0));
+        assertThat("a1 = a2", a1, is(a2));
+        assertThat("b1 = b2", b1.hashCode(), is(b2.hashCode()));
+    }
+
+    @Test
+    public void testSortKeyHashIgnoresPriority() {
+        PartNetworkElement.SortKey low = new PartNetworkElement.SortKey("a.PartA", "part.a", new int[]{0, 0, 1}, 0, 0, 10L, 1);
+        PartNetworkElement.SortKey high = new PartNetworkElement.SortKey("a.PartA", "part.a", new int[]{0, 0, 1}, 5, 0, 10L, 1);
+        assertThat("higher priorities come first", high.compareTo(low) < 0, is(true));
+        assertThat("keys with different priorities are different", low, not(high));
+        assertThat("keys with different priorities have the same hash", low.hashCode(), is(high.hashCode()));
+    }
+}
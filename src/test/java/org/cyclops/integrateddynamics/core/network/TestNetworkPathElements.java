@@ -0,0 +1,87 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test adding path elements to networks and moving them between networks.
+ */
+public class TestNetworkPathElements {
+
+    @Test
+    public void testAddPathElement() {
+        DummyNetwork network = new DummyNetwork();
+        DummyNetworkElement element = new DummyNetworkElement(1, 0);
+        DummyPathElement pathElement = new DummyPathElement(0).addNetworkElement(element);
+
+        assertThat("a new path element is added", network.addPathElement(pathElement), is(true));
+        assertThat("the network has one cable", network.getCablesCount(), is(1));
+        assertThat("the carrier refers to the network", pathElement.getNetwork(), sameInstance(network));
+        assertThat("the network element is added", network.getElements().contains(element), is(true));
+
+        assertThat("a present path element is not added again", network.addPathElement(pathElement), is(false));
+        assertThat("the network still has one cable", network.getCablesCount(), is(1));
+    }
+
+    @Test
+    public void testMovePathElement() {
+        DummyNetwork network1 = new DummyNetwork();
+        DummyNetwork network2 = new DummyNetwork();
+        DummyNetworkElement element = new DummyNetworkElement(1, 0);
+        DummyPathElement pathElement = new DummyPathElement(0).addNetworkElement(element);
+        network1.addPathElement(pathElement);
+
+        assertThat("the path element is moved", network2.addPathElement(pathElement), is(true));
+        assertThat("the previous network has no cables", network1.getCablesCount(), is(0));
+        assertThat("the previous network has no elements", network1.getElements().isEmpty(), is(true));
+        assertThat("the new network has one cable", network2.getCablesCount(), is(1));
+        assertThat("the new network has the element", network2.getElements().contains(element), is(true));
+        assertThat("the carrier refers to the new network", pathElement.getNetwork(), sameInstance(network2));
+    }
+
+    @Test
+    public void testMovePathElementVetoed() {
+        DummyNetwork network1 = new DummyNetwork();
+        DummyNetwork network2 = new DummyNetwork();
+        DummyNetworkElement element = new DummyNetworkElement(1, 0);
+        DummyPathElement pathElement = new DummyPathElement(0).addNetworkElement(element);
+        network1.addPathElement(pathElement);
+        long generation = network2.getChangeGeneration();
+        network1.setVetoRemovals(true);
+
+        assertThat("a vetoed path element is not moved", network2.addPathElement(pathElement), is(false));
+        assertThat("the previous network keeps its cable", network1.getCablesCount(), is(1));
+        assertThat("the previous network keeps its element", network1.getElements().contains(element), is(true));
+        assertThat("the new network has no cables", network2.getCablesCount(), is(0));
+        assertThat("the new network has no elements", network2.getElements().isEmpty(), is(true));
+        assertThat("the new network is unchanged", network2.getChangeGeneration(), is(generation));
+        assertThat("the carrier refers to the previous network", pathElement.getNetwork(), sameInstance(network1));
+
+        network1.setVetoRemovals(false);
+        assertThat("the path element is moved when allowed", network2.addPathElement(pathElement), is(true));
+        assertThat("the carrier refers to the new network", pathElement.getNetwork(), sameInstance(network2));
+    }
+
+    @Test
+    public void testMerge() {
+        DummyNetwork network1 = new DummyNetwork();
+        DummyNetwork network2 = new DummyNetwork();
+        DummyPathElement pathElement1 = new DummyPathElement(0).addNetworkElement(new DummyNetworkElement(1, 0));
+        DummyPathElement pathElement2 = new DummyPathElement(1).addNetworkElement(new DummyNetworkElement(2, 0));
+        DummyPathElement pathElement3 = new DummyPathElement(2).addNetworkElement(new DummyNetworkElement(3, 0));
+        pathElement1.connect(pathElement2);
+        pathElement2.connect(pathElement3);
+        network1.addPathElement(pathElement1);
+        network2.addPathElement(pathElement2);
+        network2.addPathElement(pathElement3);
+
+        network1.merge(network2);
+        assertThat("the merged network has all cables", network1.getCablesCount(), is(3));
+        assertThat("the merged network has all elements", network1.getElements().size(), is(3));
+        assertThat("the other network is empty", network2.getCablesCount(), is(0));
+        assertThat("all carriers refer to the merged network", pathElement3.getNetwork(), sameInstance(network1));
+    }
+}
@@ -0,0 +1,112 @@
+package org.cyclops.integrateddynamics.core.network;
+
+import net.minecraft.util.math.BlockPos;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.api.block.IVariableContainer;
+import org.cyclops.integrateddynamics.api.item.IVariableFacade;
+import org.cyclops.integrateddynamics.core.item.OperatorVariableFacade;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the lookup of variables in the variable containers of a part network.
+ */
+public class TestPartNetworkVariables {
+
+    private static final DimPos POS_A = DimPos.of(0, new BlockPos(0, 0, 0));
+    private static final DimPos POS_B = DimPos.of(0, new BlockPos(1, 0, 0));
+
+    private DummyPartNetwork network;
+    private IVariableContainer containerA;
+    private IVariableContainer containerB;
+
+    @Before
+    public void beforeEach() {
+        network = new DummyPartNetwork();
+        containerA = network.putContainer(POS_A);
+        containerB = network.putContainer(POS_B);
+    }
+
+    protected static IVariableFacade createFacade(int id) {
+        return new OperatorVariableFacade(id, null, null);
+    }
+
+    @Test
+    public void testNotifiedChanges() {
+        IVariableFacade facade1 = createFacade(1);
+        containerA.getVariableCache().put(1, facade1);
+        network.addVariableContainer(POS_A);
+        assertThat(network.getVariableFacade(1), sameInstance(facade1));
+        assertThat(network.hasVariableFacade(2), is(false));
+
+        IVariableFacade facade2 = createFacade(2);
+        containerA.getVariableCache().put(2, facade2);
+        network.updateVariableContainer(POS_A);
+        assertThat(network.getVariableFacade(2), sameInstance(facade2));
+
+        network.removeVariableContainer(POS_A);
+        assertThat(network.hasVariableFacade(1), is(false));
+        assertThat(network.hasVariableFacade(2), is(false));
+    }
+
+    @Test
+    public void testUnnotifiedChanges() {
+        IVariableFacade facade1 = createFacade(1);
+        containerA.getVariableCache().put(1, facade1);
+        network.addVariableContainer(POS_A);
+        assertThat(network.getVariableFacade(1), sameInstance(facade1));
+
+        // Containers that do not notify the network are still read
+        IVariableFacade facade2 = createFacade(2);
+        containerA.getVariableCache().put(2, facade2);
+        assertThat("added variables are found", network.getVariableFacade(2), sameInstance(facade2));
+
+        IVariableFacade facade1New = createFacade(1);
+        containerA.getVariableCache().put(1, facade1New);
+        assertThat("replaced variables are found", network.getVariableFacade(1), sameInstance(facade1New));
+
+        containerA.getVariableCache().remove(1);
+        assertThat("removed variables are not found", network.getVariableFacade(1), nullValue());
+    }
+
+    @Test
+    public void testFirstAddedContainerWins() {
+        IVariableFacade facadeA = createFacade(1);
+        IVariableFacade facadeB = createFacade(1);
+        containerA.getVariableCache().put(1, facadeA);
+        containerB.getVariableCache().put(1, facadeB);
+        network.addVariableContainer(POS_A);
+        network.addVariableContainer(POS_B);
+        assertThat(network.getVariableFacade(1), sameInstance(facadeA));
+
+        // The order in which containers change does not matter
+        network.updateVariableContainer(POS_B);
+        network.updateVariableContainer(POS_A);
+        assertThat(network.getVariableFacade(1), sameInstance(facadeA));
+
+        network.removeVariableContainer(POS_A);
+        assertThat("the other container is used after removal", network.getVariableFacade(1), sameInstance(facadeB));
+    }
+
+    @Test
+    public void testFirstAddedContainerWinsAfterChange() {
+        IVariableFacade facadeA = createFacade(1);
+        IVariableFacade facadeB = createFacade(1);
+        containerB.getVariableCache().put(1, facadeB);
+        network.addVariableContainer(POS_A);
+        network.addVariableContainer(POS_B);
+        assertThat(network.getVariableFacade(1), sameInstance(facadeB));
+
+        containerA.getVariableCache().put(1, facadeA);
+        network.updateVariableContainer(POS_A);
+        assertThat("the first added container takes precedence", network.getVariableFacade(1), sameInstance(facadeA));
+
+        containerA.getVariableCache().remove(1);
+        assertThat("the other container is used after an unnotified removal", network.getVariableFacade(1), sameInstance(facadeB));
+    }
+}
@@ -0,0 +1,251 @@
+package org.cyclops.integrateddynamics.core.part.aspect;
+
+import org.cyclops.integrateddynamics.ConfigOverrides;
+import org.cyclops.integrateddynamics.GeneralConfig;
+import org.cyclops.integrateddynamics.api.evaluate.EvaluationException;
+import org.cyclops.integrateddynamics.api.evaluate.operator.IOperator;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariable;
+import org.cyclops.integrateddynamics.api.evaluate.variable.IVariableInvalidateListener;
+import org.cyclops.integrateddynamics.api.item.IOperatorVariableFacade;
+import org.cyclops.integrateddynamics.core.evaluate.OperatorBuilders;
+import org.cyclops.integrateddynamics.core.evaluate.ParallelNetworkEvaluation;
+import org.cyclops.integrateddynamics.core.evaluate.expression.CompiledExpression;
+import org.cyclops.integrateddynamics.core.evaluate.expression.DummyExpressionNetwork;
+import org.cyclops.integrateddynamics.core.evaluate.expression.LazyExpression;
+import org.cyclops.integrateddynamics.core.evaluate.expression.LazyExpressionValueCache;
+import org.cyclops.integrateddynamics.core.evaluate.operator.Operators;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypeInteger;
+import org.cyclops.integrateddynamics.core.evaluate.variable.ValueTypes;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the invalidation of the dependents of aspect variables.
+ */
+public class TestLazyAspectVariable {
+
+    @Rule
+    public final ConfigOverrides config = new ConfigOverrides();
+
+    private CountingAspectVariable variable;
+    private CountingListener listener;
+
+    @Before
+    public void beforeEach() {
+        variable = new CountingAspectVariable();
+        listener = new CountingListener();
+    }
+
+    protected void setReactiveVariableEvaluation(boolean reactiveVariableEvaluation) {
+        config.set(() -> GeneralConfig.reactiveVariableEvaluation, value -> GeneralConfig.reactiveVariableEvaluation = value, reactiveVariableEvaluation);
+    }
+
+    @Test
+    public void testUpdateNotReactive() throws EvaluationException {
+        setReactiveVariableEvaluation(false);
+        variable.addInvalidateListener(listener);
+        assertThat(variable.getValue().getRawValue(), is(0));
+
+        variable.rawValue = 1;
+        variable.update();
+        assertThat("listeners are not invalidated", listener.invalidations, is(0));
+        assertThat("the value is calculated again", variable.getValue().getRawValue(), is(1));
+        assertThat(variable.calculations, is(2));
+    }
+
+    @Test
+    public void testUpdateReactive() throws EvaluationException {
+        setReactiveVariableEvaluation(true);
+        variable.addInvalidateListener(listener);
+        assertThat(variable.getValue().getRawValue(), is(0));
+
+        variable.update();
+        assertThat("listeners are not invalidated if the value did not change", listener.invalidations, is(0));
+
+        variable.rawValue = 1;
+        variable.update();
+        assertThat("listeners are invalidated if the value changed", listener.invalidations, is(1));
+        assertThat(variable.getValue().getRawValue(), is(1));
+    }
+
+    @Test
+    public void testExpressionNotReactive() throws EvaluationException {
+        setReactiveVariableEvaluation(false);
+        LazyExpression expression = createExpression(new LazyExpressionValueCache());
+        assertThat("dependencies are not tracked", expression.isChangeTracked(), is(false));
+    }
+
+    @Test
+    public void testExpressionReactive() throws EvaluationException {
+        setReactiveVariableEvaluation(true);
+        LazyExpressionValueCache cache = new LazyExpressionValueCache();
+        LazyExpression expression = createExpression(cache);
+        assertThat("dependencies are tracked", expression.isChangeTracked(), is(true));
+        assertThat(getRawValue(expression), is(1));
+
+        variable.update();
+        cache.invalidate();
+        assertThat("unchanged values are reused", getRawValue(expression), is(1));
+        assertThat(variable.calculations, is(2));
+
+        variable.rawValue = 1;
+        variable.update();
+        assertThat("changed values are evaluated again", getRawValue(expression), is(2));
+    }
+
+    @Test
+    public void testExpressionReactiveToggled() throws EvaluationException {
+        setReactiveVariableEvaluation(true);
+        LazyExpressionValueCache cache = new LazyExpressionValueCache();
+        LazyExpression expression = createExpression(cache);
+        assertThat(getRawValue(expression), is(1));
+
+        setReactiveVariableEvaluation(false);
+        assertThat(getRawValue(expression), is(1));
+        variable.rawValue = 1;
+        variable.update();
+        cache.invalidate();
+        assertThat(getRawValue(expression), is(2));
+
+        setReactiveVariableEvaluation(true);
+        assertThat("values from before reactive evaluation was disabled are not reused",
+                getRawValue(expression), is(2));
+    }
+
+    @Test
+    public void testExpressionReactiveImpure() throws EvaluationException {
+        setReactiveVariableEvaluation(true);
+        int[] evaluations = new int[1];
+        LazyExpressionValueCache cache = new LazyExpressionValueCache();
+        LazyExpression expression = new LazyExpression(0, createCountingOperator(evaluations, false),
+                new IVariable[]{variable}, cache);
+        assertThat("dependencies of impure operators are not tracked", expression.isChangeTracked(), is(false));
+        assertThat(getRawValue(expression), is(0));
+
+        variable.update();
+        cache.invalidate();
+        assertThat("impure operators are evaluated again for unchanged input", getRawValue(expression), is(1));
+    }
+
+    @Test
+    public void testCompiledReactiveImpure() {
+        setReactiveVariableEvaluation(true);
+        DummyExpressionNetwork pureNetwork = createNetwork(Operators.INTEGER_INCREMENT);
+        assertThat("dependencies of pure expressions are tracked",
+                compile(pureNetwork).isChangeTracked(), is(true));
+
+        DummyExpressionNetwork impureNetwork = createNetwork(createCountingOperator(new int[1], false));
+        assertThat("dependencies of expressions with an impure operator are not tracked",
+                compile(impureNetwork).isChangeTracked(), is(false));
+    }
+
+    @Test
+    public void testParallelEvaluation() throws EvaluationException {
+        setReactiveVariableEvaluation(false);
+        assertThat("values that were not read yet are deferred", isDeferredInParallel(variable), is(true));
+        assertThat(variable.calculations, is(0));
+
+        assertThat(variable.getValue().getRawValue(), is(0));
+        assertThat("values that were read already are used", isDeferredInParallel(variable), is(false));
+
+        variable.markUpdatePending();
+        assertThat("values that will still be updated in this tick are deferred", isDeferredInParallel(variable), is(true));
+        assertThat("values are read as usual on the server thread", variable.getValue().getRawValue(), is(0));
+
+        variable.rawValue = 1;
+        variable.update();
+        assertThat(variable.getValue().getRawValue(), is(1));
+        assertThat("updated values are used", isDeferredInParallel(variable), is(false));
+        assertThat(variable.calculations, is(2));
+    }
+
+    @Test
+    public void testParallelEvaluationExpression() throws EvaluationException {
+        setReactiveVariableEvaluation(true);
+        LazyExpression expression = createExpression(new LazyExpressionValueCache());
+        assertThat("expressions of values that were not read yet are deferred", isDeferredInParallel(expression), is(true));
+        assertThat("deferred expressions are evaluated again on the server thread", getRawValue(expression), is(1));
+    }
+
+    /**
+     * @return If reading the value of the given variable was deferred while evaluating networks in parallel.
+     */
+    protected static boolean isDeferredInParallel(IVariable variable) throws EvaluationException {
+        boolean wasActive = ParallelNetworkEvaluation.setActive(true);
+        try {
+            variable.getValue();
+            return false;
+        } catch (ParallelNetworkEvaluation.WorldReadDeferredException e) {
+            return true;
+        } finally {
+            ParallelNetworkEvaluation.setActive(wasActive);
+        }
+    }
+
+    /**
+     * @return An operator that adds the number of times it was evaluated to its input.
+     */
+    protected static IOperator createCountingOperator(int[] evaluations, boolean pure) {
+        return OperatorBuilders.INTEGER_1_SUFFIX.symbol("count").operatorName("count").pure(pure)
+                .function(variables -> {
+                    ValueTypeInteger.ValueInteger a = variables.getValue(0);
+                    return ValueTypeInteger.ValueInteger.of(a.getRawValue() + evaluations[0]++);
+                }).build();
+    }
+
+    /**
+     * @return A network in which variable 3 increments the result of the given operator on the aspect variable.
+     */
+    protected DummyExpressionNetwork createNetwork(IOperator operator) {
+        DummyExpressionNetwork network = new DummyExpressionNetwork();
+        network.addInput(1, variable);
+        network.addOperator(2, operator, 1);
+        network.addOperator(3, Operators.INTEGER_INCREMENT, 2);
+        return network;
+    }
+
+    protected static CompiledExpression compile(DummyExpressionNetwork network) {
+        return CompiledExpression.compile((IOperatorVariableFacade) network.getVariableFacade(3), network);
+    }
+
+    protected LazyExpression createExpression(LazyExpressionValueCache cache) {
+        return new LazyExpression(0, Operators.INTEGER_INCREMENT, new IVariable[]{variable}, cache);
+    }
+
+    protected static int getRawValue(LazyExpression expression) throws EvaluationException {
+        return ((ValueTypeInteger.ValueInteger) expression.getValue()).getRawValue();
+    }
+
+    /**
+     * An aspect variable that counts how often its value was calculated.
+     */
+    protected static class CountingAspectVariable extends LazyAspectVariable<ValueTypeInteger.ValueInteger> {
+
+        private int rawValue = 0;
+        private int calculations = 0;
+
+        public CountingAspectVariable() {
+            super(ValueTypes.INTEGER, null, null);
+        }
+
+        @Override
+        public ValueTypeInteger.ValueInteger getValueLazy() {
+            calculations++;
+            return ValueTypeInteger.ValueInteger.of(rawValue);
+        }
+    }
+
+    protected static class CountingListener implements IVariableInvalidateListener {
+
+        private int invalidations = 0;
+
+        @Override
+        public void invalidate() {
+            invalidations++;
+        }
+    }
+}
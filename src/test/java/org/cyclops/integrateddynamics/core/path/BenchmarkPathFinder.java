@@ -0,0 +1,109 @@
+package org.cyclops.integrateddynamics.core.path;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.cyclops.cyclopscore.datastructure.DimPos;
+import org.cyclops.integrateddynamics.api.path.IPathElement;
+import org.cyclops.integrateddynamics.core.network.DummyPathElement;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Compare the construction of connected clusters against the previous recursive traversal.
+ *
+ * This is not part of the unit tests, it is only run by the benchmark task of the build,
+ * which sets the directory to which the results are written.
+ */
+public class BenchmarkPathFinder {
+
+    /**
+     * The system property with the directory to write the results to.
+     */
+    public static final String RESULTS_DIR_PROPERTY = "integrateddynamics.benchmark.dir";
+    private static final int[] LENGTHS = {1000, 10000, 100000};
+    private static final int RUNS = 5;
+
+    private static File resultsDir;
+
+    @BeforeClass
+    public static void beforeClass() {
+        String dir = System.getProperty(RESULTS_DIR_PROPERTY);
+        assumeTrue("benchmarks are only run by the benchmark task", dir != null);
+        resultsDir = new File(dir);
+        resultsDir.mkdirs();
+    }
+
+    /**
+     * The recursive traversal that was used before, which recursed once per path element.
+     */
+    protected static TreeSet<IPathElement> getConnectedElementsRecursive(IPathElement head, Set<DimPos> visitedPositions) {
+        TreeSet<IPathElement> elements = Sets.newTreeSet();
+
+        if(!visitedPositions.contains(head.getPosition())) {
+            elements.add(head);
+            visitedPositions.add(head.getPosition());
+        }
+
+        for(IPathElement neighbour : head.getReachableElements()) {
+            if(!visitedPositions.contains(neighbour.getPosition())) {
+                elements.add(neighbour);
+                visitedPositions.add(neighbour.getPosition());
+            }
+        }
+
+        Set<IPathElement> neighbourElements = Sets.newHashSet();
+        for(IPathElement addedElement : elements) {
+            neighbourElements.addAll(getConnectedElementsRecursive(addedElement, visitedPositions));
+        }
+        elements.addAll(neighbourElements);
+
+        return elements;
+    }
+
+    /**
+     * @return The fastest duration in nanoseconds of the given traversal, or -1 if it overflowed the stack.
+     */
+    protected static long measure(Runnable traversal) {
+        long fastest = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            long startTime = System.nanoTime();
+            try {
+                traversal.run();
+            } catch (StackOverflowError e) {
+                return -1;
+            }
+            fastest = Math.min(fastest, System.nanoTime() - startTime);
+        }
+        return fastest;
+    }
+
+    @Test
+    public void benchmarkConnectedClusterLine() throws IOException {
+        List<String> lines = Lists.newArrayList("length,recursive_ms,iterative_ms");
+        for (int length : LENGTHS) {
+            List<DummyPathElement> line = TestPathFinder.createLine(0, length);
+            assertThat(PathFinder.getConnectedCluster(line.get(0)).size(), is(length));
+
+            long recursive = measure(() -> getConnectedElementsRecursive(line.get(0), Sets.newTreeSet()));
+            long iterative = measure(() -> PathFinder.getConnectedCluster(line.get(0)));
+            lines.add(String.format("%s,%s,%s", length,
+                    recursive < 0 ? "overflow" : recursive / 1000000.0, iterative / 1000000.0));
+        }
+        try (PrintWriter writer = new PrintWriter(new File(resultsDir, "connected-cluster-line.csv"), "UTF-8")) {
+            for (String line : lines) {
+                writer.println(line);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.cyclops.integrateddynamics.core.path;
+
+import com.google.common.collect.Lists;
+import org.cyclops.integrateddynamics.api.path.IPathElement;
+import org.cyclops.integrateddynamics.core.network.DummyPathElement;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test the construction of clusters of connected path elements.
+ */
+public class TestPathFinder {
+
+    /**
+     * Create a line of connected path elements.
+     * @param start The x coordinate of the first element.
+     * @param length The number of elements.
+     * @return The path elements in order.
+     */
+    protected static List<DummyPathElement> createLine(int start, int length) {
+        List<DummyPathElement> elements = Lists.newArrayListWithCapacity(length);
+        for (int i = 0; i < length; i++) {
+            DummyPathElement element = new DummyPathElement(start + i);
+            if (i > 0) {
+                element.connect(elements.get(i - 1));
+            }
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    @Test
+    public void testConnectedClusterSingle() {
+        DummyPathElement element = new DummyPathElement(0);
+        Cluster cluster = PathFinder.getConnectedCluster(element);
+        assertThat(cluster.size(), is(1));
+        assertThat(cluster.contains(element), is(true));
+    }
+
+    @Test
+    public void testConnectedClusterLine() {
+        List<DummyPathElement> line = createLine(0, 10);
+        Cluster cluster = PathFinder.getConnectedCluster(line.get(5));
+        assertThat(cluster.size(), is(10));
+        for (DummyPathElement element : line) {
+            assertThat(cluster.contains(element), is(true));
+        }
+    }
+
+    @Test
+    public void testConnectedClusterCycle() {
+        List<DummyPathElement> line = createLine(0, 10);
+        line.get(0).connect(line.get(9));
+        Cluster cluster = PathFinder.getConnectedCluster(line.get(0));
+        assertThat(cluster.size(), is(10));
+    }
+
+    @Test
+    public void testConnectedClusterExcludesDisconnected() {
+        List<DummyPathElement> line1 = createLine(0, 10);
+        List<DummyPathElement> line2 = createLine(20, 5);
+        Cluster cluster = PathFinder.getConnectedCluster(line1.get(0));
+        assertThat(cluster.size(), is(10));
+        assertThat(cluster.contains(line2.get(0)), is(false));
+    }
+
+    @Test
+    public void testDisconnectedClustersConnected() {
+        List<DummyPathElement> line = createLine(0, 10);
+        List<IPathElement> heads = Lists.newArrayList(line.get(0), line.get(9));
+        List<Cluster> clusters = PathFinder.getDisconnectedClusters(heads);
+        assertThat("connected heads are not split", clusters.isEmpty(), is(true));
+    }
+
+    @Test
+    public void testDisconnectedClustersSplit() {
+        List<DummyPathElement> line1 = createLine(0, 10);
+        List<DummyPathElement> line2 = createLine(20, 3);
+        List<IPathElement> heads = Lists.newArrayList(line1.get(0), line2.get(0));
+        List<Cluster> clusters = PathFinder.getDisconnectedClusters(heads);
+        assertThat("only the smaller cluster is split off", clusters.size(), is(1));
+        assertThat(clusters.get(0).size(), is(3));
+        assertThat(clusters.get(0).contains(line2.get(2)), is(true));
+    }
+
+    @Test
+    public void testDisconnectedClustersOneDirectional() {
+        List<DummyPathElement> line1 = createLine(0, 2);
+        List<DummyPathElement> line2 = createLine(20, 5);
+        List<DummyPathElement> line3 = createLine(40, 10);
+        // The end of the second line can reach the first line, but not the other way around.
+        line2.get(4).getReachableElements().add(line1.get(0));
+        List<IPathElement> heads = Lists.newArrayList(line1.get(0), line2.get(0), line3.get(0));
+        assertThat(PathFinder.getDisconnectedClusters(heads), nullValue());
+    }
+
+    @Test
+    public void testConnectedClusterDeepLine() {
+        // The recursive traversal overflowed the stack for long lines.
+        List<DummyPathElement> line = createLine(0, 100000);
+        Cluster cluster = PathFinder.getConnectedCluster(line.get(0));
+        assertThat(cluster.size(), is(100000));
+        assertThat(cluster.contains(line.get(99999)), is(true));
+    }
+
+    @Test
+    public void testClusterPositionEquality() {
+        List<DummyPathElement> line = createLine(0, 3);
+        Cluster cluster = PathFinder.getConnectedCluster(line.get(0));
+        assertThat("elements at the same position are equal", cluster.contains(new DummyPathElement(1)), is(true));
+        assertThat(cluster.remove(new DummyPathElement(1)), is(true));
+        assertThat(cluster.contains(line.get(1)), is(false));
+        assertThat(cluster.size(), is(2));
+    }
+}